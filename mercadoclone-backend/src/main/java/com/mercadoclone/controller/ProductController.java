@@ -1,10 +1,15 @@
 package com.mercadoclone.controller;
 
 import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
 import com.mercadoclone.dto.mapper.ProductMapper;
 import com.mercadoclone.dto.request.FilterRequest;
 import com.mercadoclone.dto.response.ApiResponse;
+import com.mercadoclone.dto.response.ProductFacetsResponse;
+import com.mercadoclone.dto.response.ProductGroupStatsResponse;
 import com.mercadoclone.dto.response.ProductResponse;
+import com.mercadoclone.dto.response.SuggestionResponse;
 import com.mercadoclone.service.ProductUseCase;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,6 +33,8 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final ProductUseCase productService;
 
     private final ProductMapper productMapper;
@@ -73,16 +80,21 @@ public class ProductController {
 
     @Operation(
             summary = "List all products",
-            description = "Returns a list with all available products",
+            description = "Returns a list with all available products. Filters can be combined and are applied together (AND). "
+                    + "A misspelled search value is corrected and reported in meta.didYouMean. "
+                    + "Passing limit or cursor returns one page and the cursor of the next one in meta.nextCursor",
             parameters = {
                     @Parameter(name = "categoryId", description = "Category ID to filter products"),
                     @Parameter(name = "brandId", description = "Brand ID to filter products"),
-                    @Parameter(name = "value", description = "Search value to filter products"),
+                    @Parameter(name = "value", description = "Search value to filter products; accepts AND, OR, NOT, \"phrases\" and parentheses"),
                     @Parameter(name = "available", description = "Filter only available products"),
                     @Parameter(name = "discounted", description = "Filter only discounted products"),
                     @Parameter(name = "rangePrice", description = "Filter products by price range"),
                     @Parameter(name = "minPrice", description = "Minimum price for price range filter"),
-                    @Parameter(name = "maxPrice", description = "Maximum price for price range filter")
+                    @Parameter(name = "maxPrice", description = "Maximum price for price range filter"),
+                    @Parameter(name = "sort", description = "Sort order: price_asc, price_desc, rating, newest or title (default: relevance for searches, id otherwise)"),
+                    @Parameter(name = "limit", description = "Page size, from 1 to 100 (default 20 when only cursor is given)"),
+                    @Parameter(name = "cursor", description = "meta.nextCursor of the previous page")
             }
     )
     @ApiResponses(value = {
@@ -93,17 +105,39 @@ public class ProductController {
     })
     @GetMapping
     public ResponseEntity<ApiResponse<List<ProductResponse>>> findAll(
-            @Parameter(hidden = true) FilterRequest filterRequest
+            @Parameter(hidden = true) FilterRequest filterRequest,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
     ) {
         logger.info("REST request to get all products");
 
-        List<ProductEntity> products = productService.findAllWithCommandPattern(filterRequest);
+        List<ProductEntity> products;
+        String nextCursor = null;
+        String didYouMean;
+        if (limit != null || cursor != null) {
+            ProductPage page = productService.getProductPage(filterRequest,
+                    limit != null ? limit : DEFAULT_PAGE_SIZE, cursor);
+            products = page.items();
+            nextCursor = page.nextCursor();
+            didYouMean = page.didYouMean();
+        } else {
+            ProductList list = productService.findProducts(filterRequest);
+            products = list.items();
+            didYouMean = list.didYouMean();
+        }
 
         List<ProductResponse> productResponses = productMapper.toResponseList(products);
 
         logger.debug("Successfully retrieved {} products", products.size());
 
-        return ResponseEntity.ok(ApiResponse.success(productResponses));
+        ApiResponse<List<ProductResponse>> response = ApiResponse.success(productResponses);
+        if (nextCursor != null) {
+            response.withMeta("nextCursor", nextCursor);
+        }
+        if (didYouMean != null) {
+            response.withMeta("didYouMean", didYouMean);
+        }
+        return ResponseEntity.ok(response);
     }
 
     @Operation(
@@ -124,16 +158,74 @@ public class ProductController {
     }
 
     @Operation(
-            summary = "Count total products",
-            description = "Returns the total number of registered products"
+            summary = "Count products",
+            description = "Returns the number of products matching the filter, or of all registered products "
+                    + "without filters. Accepts the same filters as the product list"
     )
     @GetMapping("/count")
-    public ResponseEntity<ApiResponse<Long>> getTotalProductCount() {
-        logger.info("REST request to get total product count");
+    public ResponseEntity<ApiResponse<Long>> getTotalProductCount(
+            @Parameter(hidden = true) FilterRequest filterRequest) {
+        logger.info("REST request to count products");
 
-        long count = productService.getTotalProductCount();
+        long count = productService.countProducts(filterRequest);
 
         logger.debug("Total product count: {}", count);
         return ResponseEntity.ok(ApiResponse.success(count));
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Count products per facet",
+            description = "Returns, for the products matching the filter, the counts per brand, category, discount bucket "
+                    + "and price bucket, and how many are available, ship for free and accept installments. "
+                    + "Accepts the same filters as the product list"
+    )
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<ProductFacetsResponse>> getFacets(
+            @Parameter(hidden = true) FilterRequest filterRequest) {
+
+        logger.info("REST request to get product facets");
+
+        ProductFacetsResponse facets = productMapper.toFacetsResponse(productService.getProductFacets(filterRequest));
+
+        logger.debug("Counted facets of {} products", facets.total());
+        return ResponseEntity.ok(ApiResponse.success(facets));
+    }
+
+    @Operation(
+            summary = "Aggregate price and rating per group",
+            description = "Returns min, max, mean, p50 and p90 of the current price and the average rating "
+                    + "of each category, brand or seller, largest groups first"
+    )
+    @GetMapping("/aggregations")
+    public ResponseEntity<ApiResponse<List<ProductGroupStatsResponse>>> getAggregations(
+            @Parameter(description = "Grouping: category, brand or seller")
+            @RequestParam(defaultValue = "category") String groupBy) {
+
+        logger.info("REST request to aggregate products by: {}", groupBy);
+
+        List<ProductGroupStatsResponse> stats = productMapper.toGroupStatsResponseList(
+                productService.getAggregations(groupBy));
+
+        logger.debug("Aggregated {} groups", stats.size());
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    @Operation(
+            summary = "Suggest completions",
+            description = "Returns titles, brands and category names with a word starting with the prefix, most rated first"
+    )
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<SuggestionResponse>>> suggest(
+            @Parameter(description = "Typed prefix", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions (1-10)")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        logger.debug("REST request to suggest completions for: {}", prefix);
+
+        List<SuggestionResponse> suggestions = productMapper.toSuggestionResponseList(
+                productService.getSuggestions(prefix, limit));
+
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+}
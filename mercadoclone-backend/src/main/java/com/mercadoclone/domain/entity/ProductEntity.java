@@ -212,6 +212,10 @@ public class ProductEntity {
         return price != null && price.getDiscount() != null && price.getDiscount() > 0;
     }
 
+    public boolean allowsInstallments() {
+        return paymentMethods != null && paymentMethods.stream().anyMatch(PaymentMethodEntity::allowsInstallments);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
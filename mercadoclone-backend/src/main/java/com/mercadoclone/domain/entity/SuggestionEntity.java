@@ -0,0 +1,21 @@
+package com.mercadoclone.domain.entity;
+
+/**
+ * Autocomplete suggestion: a product title, brand or category name.
+ *
+ * @param text        the text to suggest, as shown in the catalog
+ * @param type        what the text is
+ * @param ratingCount ratings received by the products behind the text, used for ranking
+ */
+public record SuggestionEntity(
+        String text,
+        Type type,
+        long ratingCount
+) {
+
+    public enum Type {
+        TITLE,
+        BRAND,
+        CATEGORY
+    }
+}
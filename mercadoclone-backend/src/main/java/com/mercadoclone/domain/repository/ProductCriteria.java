@@ -0,0 +1,115 @@
+package com.mercadoclone.domain.repository;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.util.Locale;
+
+/**
+ * Combinação de critérios de busca de produtos, aplicados como um AND.
+ *
+ * Critérios nulos (ou {@code false}, para os booleanos) não restringem o
+ * resultado. A faixa de preço só é aplicada quando os dois limites são informados.
+ * A ordenação não restringe o resultado: sem ela, buscas por termo vêm por
+ * relevância e as demais por identificador.
+ *
+ * @param categoryId identificador da categoria
+ * @param brand      marca, comparada sem diferenciar maiúsculas e minúsculas
+ * @param searchTerm termo buscado no título ou descrição
+ * @param available  apenas produtos com estoque disponível
+ * @param discounted apenas produtos com desconto
+ * @param minPrice   preço mínimo (inclusive)
+ * @param maxPrice   preço máximo (inclusive)
+ * @param sort       ordenação do resultado, ou null para a ordem padrão
+ * @author MercadoClone Team
+ */
+public record ProductCriteria(
+        String categoryId,
+        String brand,
+        String searchTerm,
+        boolean available,
+        boolean discounted,
+        Double minPrice,
+        Double maxPrice,
+        ProductSort sort) {
+
+    /**
+     * Critérios na ordem padrão.
+     */
+    public ProductCriteria(String categoryId, String brand, String searchTerm, boolean available, boolean discounted,
+                           Double minPrice, Double maxPrice) {
+        this(categoryId, brand, searchTerm, available, discounted, minPrice, maxPrice, null);
+    }
+
+    public boolean hasCategory() {
+        return categoryId != null && !categoryId.isBlank();
+    }
+
+    public boolean hasBrand() {
+        return brand != null && !brand.isBlank();
+    }
+
+    public boolean hasSearchTerm() {
+        return searchTerm != null && !searchTerm.isBlank();
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null && maxPrice != null;
+    }
+
+    public boolean hasSort() {
+        return sort != null;
+    }
+
+    /**
+     * Número de critérios informados (a ordenação não conta).
+     */
+    public int size() {
+        int size = 0;
+        if (hasCategory()) size++;
+        if (hasBrand()) size++;
+        if (hasSearchTerm()) size++;
+        if (available) size++;
+        if (discounted) size++;
+        if (hasPriceRange()) size++;
+        return size;
+    }
+
+    /**
+     * Verifica se o produto atende a todos os critérios.
+     */
+    public boolean matches(ProductEntity product) {
+        if (hasCategory() && (product.getCategory() == null || !categoryId.equals(product.getCategory().id()))) {
+            return false;
+        }
+        if (hasBrand() && !brand.equalsIgnoreCase(product.getBrand())) {
+            return false;
+        }
+        if (available && !product.isAvailable()) {
+            return false;
+        }
+        if (discounted && !product.hasDiscount()) {
+            return false;
+        }
+        if (hasPriceRange()) {
+            Double price = product.getPrice() == null ? null : product.getPrice().getCurrent();
+            if (price == null || price < minPrice || price > maxPrice) {
+                return false;
+            }
+        }
+        return !hasSearchTerm() || matchesSearchTerm(product);
+    }
+
+    /**
+     * Verifica se o termo de busca aparece no título ou nas descrições do produto.
+     */
+    public boolean matchesSearchTerm(ProductEntity product) {
+        String term = searchTerm.toLowerCase(Locale.ROOT);
+        return contains(product.getTitle(), term)
+                || contains(product.getDescription(), term)
+                || contains(product.getShortDescription(), term);
+    }
+
+    private static boolean contains(String text, String lowerCaseTerm) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(lowerCaseTerm);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mercadoclone.domain.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Contagens por faceta dos produtos que atendem a um filtro.
+ *
+ * As faixas de preço são derivadas dos preços do catálogo inteiro (quantis
+ * arredondados), e não do resultado filtrado, para que continuem as mesmas
+ * enquanto o usuário refina o filtro.
+ *
+ * @param total        número de produtos que atendem ao filtro
+ * @param brands       contagem por marca, da mais frequente para a menos frequente
+ * @param categories   contagem por categoria, da mais frequente para a menos frequente
+ * @param discounts    contagem por faixa de desconto (percentual), da menor para a maior
+ * @param prices       contagem por faixa de preço, da menor para a maior
+ * @param available    número de produtos com estoque disponível
+ * @param freeShipping número de produtos com frete grátis
+ * @param installments número de produtos que aceitam parcelamento
+ * @author MercadoClone Team
+ */
+public record ProductFacets(
+        long total,
+        List<Term> brands,
+        List<Term> categories,
+        List<Range> discounts,
+        List<Range> prices,
+        long available,
+        long freeShipping,
+        long installments) {
+
+    /**
+     * Número de faixas de preço calculadas a partir do catálogo.
+     */
+    public static final int PRICE_BUCKETS = 5;
+
+    private static final double[] DISCOUNT_EDGES = {1, 10, 20, 30, 40, 50};
+
+    public ProductFacets {
+        brands = List.copyOf(brands);
+        categories = List.copyOf(categories);
+        discounts = List.copyOf(discounts);
+        prices = List.copyOf(prices);
+    }
+
+    /**
+     * Um valor de faceta categórica e o número de produtos com esse valor.
+     *
+     * @param value valor a informar no filtro (id da categoria, nome da marca)
+     * @param label nome para exibição
+     * @param count número de produtos
+     */
+    public record Term(String value, String label, long count) {
+
+        /**
+         * Ordem de exibição: os mais frequentes primeiro, empates pelo nome.
+         */
+        public static final Comparator<Term> BY_COUNT = Comparator.comparingLong(Term::count).reversed()
+                .thenComparing(Term::label);
+    }
+
+    /**
+     * Uma faixa de valores e o número de produtos dentro dela.
+     *
+     * @param from  limite inferior, inclusive
+     * @param to    limite superior, exclusivo, ou null na última faixa
+     * @param count número de produtos
+     */
+    public record Range(double from, Double to, long count) {
+    }
+
+    /**
+     * Limites inferiores das faixas de desconto: 1-9%, 10-19%, ..., 50% ou mais.
+     */
+    public static double[] discountEdges() {
+        return DISCOUNT_EDGES.clone();
+    }
+
+    /**
+     * Calcula os limites inferiores das faixas de preço a partir dos preços do
+     * catálogo em ordem crescente: a primeira faixa começa em zero e as demais
+     * nos quantis, arredondados para baixo a dois algarismos significativos.
+     *
+     * @param sortedPrices preços do catálogo, em ordem crescente
+     * @return limites inferiores distintos, em ordem crescente
+     */
+    public static double[] priceEdges(double[] sortedPrices) {
+        if (sortedPrices.length == 0) {
+            return new double[0];
+        }
+        double[] edges = new double[PRICE_BUCKETS];
+        int count = 1;
+        for (int bucket = 1; bucket < PRICE_BUCKETS; bucket++) {
+            double edge = roundDown(sortedPrices[(int) ((long) sortedPrices.length * bucket / PRICE_BUCKETS)]);
+            if (edge > edges[count - 1]) {
+                edges[count++] = edge;
+            }
+        }
+        return Arrays.copyOf(edges, count);
+    }
+
+    /**
+     * Retorna a faixa de um valor, ou -1 quando ele fica abaixo da primeira.
+     *
+     * @param edges limites inferiores das faixas, em ordem crescente
+     * @param value o valor (NaN não pertence a nenhuma faixa)
+     */
+    public static int bucketOf(double[] edges, double value) {
+        int bucket = -1;
+        for (int i = 0; i < edges.length && value >= edges[i]; i++) {
+            bucket = i;
+        }
+        return bucket;
+    }
+
+    /**
+     * Monta as faixas a partir dos limites inferiores e da contagem de cada uma.
+     */
+    public static List<Range> ranges(double[] edges, long[] counts) {
+        List<Range> ranges = new ArrayList<>(edges.length);
+        for (int i = 0; i < edges.length; i++) {
+            ranges.add(new Range(edges[i], i + 1 < edges.length ? edges[i + 1] : null, counts[i]));
+        }
+        return ranges;
+    }
+
+    private static double roundDown(double price) {
+        if (price < 10) {
+            return Math.floor(price);
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(price)) - 1);
+        return Math.floor(price / magnitude) * magnitude;
+    }
+}
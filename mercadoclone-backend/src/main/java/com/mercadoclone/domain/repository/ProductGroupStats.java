@@ -0,0 +1,76 @@
+package com.mercadoclone.domain.repository;
+
+import java.util.Comparator;
+
+/**
+ * Estatísticas de preço e avaliação de um grupo de produtos.
+ *
+ * Os percentis usam o método do posto mais próximo: o p90 é o menor preço
+ * maior ou igual a 90% dos preços do grupo. Estatísticas de preço consideram
+ * apenas produtos com preço, e a avaliação média apenas produtos avaliados;
+ * sem nenhum, os valores são null.
+ *
+ * @param key           chave do grupo (id da categoria, marca em minúsculas ou id do vendedor)
+ * @param label         nome do grupo para exibição
+ * @param count         número de produtos do grupo
+ * @param minPrice      menor preço atual
+ * @param maxPrice      maior preço atual
+ * @param meanPrice     média dos preços atuais
+ * @param p50Price      mediana dos preços atuais
+ * @param p90Price      percentil 90 dos preços atuais
+ * @param averageRating média das avaliações médias dos produtos
+ * @author MercadoClone Team
+ */
+public record ProductGroupStats(
+        String key,
+        String label,
+        long count,
+        Double minPrice,
+        Double maxPrice,
+        Double meanPrice,
+        Double p50Price,
+        Double p90Price,
+        Double averageRating) {
+
+    /**
+     * Ordem de exibição: os grupos com mais produtos primeiro, empates pelo nome.
+     */
+    public static final Comparator<ProductGroupStats> BY_COUNT = Comparator.comparingLong(ProductGroupStats::count)
+            .reversed().thenComparing(ProductGroupStats::label);
+
+    /**
+     * Calcula as estatísticas de um grupo.
+     *
+     * @param key          chave do grupo
+     * @param label        nome do grupo
+     * @param count        número de produtos do grupo
+     * @param sortedPrices array com os preços do grupo, em ordem crescente, entre {@code from} e {@code to}
+     * @param from         início dos preços do grupo no array, inclusive
+     * @param to           fim dos preços do grupo no array, exclusivo
+     * @param ratingSum    soma das avaliações médias dos produtos avaliados
+     * @param ratingCount  número de produtos avaliados
+     */
+    public static ProductGroupStats of(String key, String label, long count, double[] sortedPrices, int from, int to,
+                                       double ratingSum, long ratingCount) {
+        Double averageRating = ratingCount > 0 ? ratingSum / ratingCount : null;
+        if (from >= to) {
+            return new ProductGroupStats(key, label, count, null, null, null, null, null, averageRating);
+        }
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += sortedPrices[i];
+        }
+        return new ProductGroupStats(key, label, count,
+                sortedPrices[from],
+                sortedPrices[to - 1],
+                sum / (to - from),
+                percentile(sortedPrices, from, to, 50),
+                percentile(sortedPrices, from, to, 90),
+                averageRating);
+    }
+
+    private static double percentile(double[] sortedPrices, int from, int to, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * (to - from));
+        return sortedPrices[from + Math.max(rank, 1) - 1];
+    }
+}
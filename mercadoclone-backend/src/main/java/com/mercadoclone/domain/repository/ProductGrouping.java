@@ -0,0 +1,79 @@
+package com.mercadoclone.domain.repository;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Agrupamentos disponíveis para as estatísticas de produtos.
+ *
+ * Produtos sem o valor agrupado (sem categoria, marca ou vendedor) ficam de
+ * fora. Marcas são agrupadas sem diferenciar maiúsculas e minúsculas.
+ *
+ * @author MercadoClone Team
+ */
+public enum ProductGrouping {
+
+    CATEGORY("category"),
+    BRAND("brand"),
+    SELLER("seller");
+
+    private final String parameter;
+
+    ProductGrouping(String parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Nome do agrupamento no parâmetro {@code groupBy}.
+     */
+    public String parameter() {
+        return parameter;
+    }
+
+    /**
+     * Converte o parâmetro {@code groupBy} no agrupamento correspondente.
+     *
+     * @param parameter o valor informado
+     * @return o agrupamento
+     * @throws IllegalArgumentException se o valor estiver vazio ou não corresponder a nenhum agrupamento
+     */
+    public static ProductGrouping fromParameter(String parameter) {
+        if (parameter != null) {
+            for (ProductGrouping grouping : values()) {
+                if (grouping.parameter.equalsIgnoreCase(parameter.trim())) {
+                    return grouping;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid groupBy '" + parameter + "': expected one of "
+                + Arrays.stream(values()).map(ProductGrouping::parameter).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Chave do grupo de um produto: id da categoria, marca em minúsculas ou id do vendedor.
+     *
+     * @return a chave, ou null quando o produto não tem o valor agrupado
+     */
+    public String key(ProductEntity product) {
+        return switch (this) {
+            case CATEGORY -> product.getCategory() == null ? null : product.getCategory().id();
+            case BRAND -> product.getBrand() == null ? null : product.getBrand().toLowerCase(Locale.ROOT);
+            case SELLER -> product.getSeller() == null ? null : product.getSeller().getId();
+        };
+    }
+
+    /**
+     * Nome para exibição do grupo de um produto (a chave quando o produto não tem nome).
+     */
+    public String label(ProductEntity product) {
+        String label = switch (this) {
+            case CATEGORY -> product.getCategory() == null ? null : product.getCategory().name();
+            case BRAND -> product.getBrand();
+            case SELLER -> product.getSeller() == null ? null : product.getSeller().getName();
+        };
+        return label != null ? label : key(product);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mercadoclone.domain.repository;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.util.List;
+
+/**
+ * Os produtos de uma consulta e a correção ortográfica aplicada à busca.
+ *
+ * @param items      produtos encontrados, na ordem do resultado
+ * @param didYouMean termo de busca corrigido com que os produtos foram encontrados, ou null
+ * @author MercadoClone Team
+ */
+public record ProductList(
+        List<ProductEntity> items,
+        String didYouMean) {
+
+    public ProductList(List<ProductEntity> items) {
+        this(items, null);
+    }
+}
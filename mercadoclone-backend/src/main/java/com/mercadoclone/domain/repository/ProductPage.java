@@ -0,0 +1,27 @@
+package com.mercadoclone.domain.repository;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.util.List;
+
+/**
+ * Uma página de produtos e o cursor opaco da página seguinte.
+ *
+ * @param items      produtos da página, na ordem do resultado
+ * @param nextCursor cursor a informar para obter a próxima página, ou null na última página
+ * @param didYouMean termo de busca corrigido com que os produtos foram encontrados, ou null
+ * @author MercadoClone Team
+ */
+public record ProductPage(
+        List<ProductEntity> items,
+        String nextCursor,
+        String didYouMean) {
+
+    public ProductPage(List<ProductEntity> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -1,8 +1,10 @@
 package com.mercadoclone.domain.repository;
 
 import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Interface do repositório de produtos.
@@ -58,6 +60,23 @@ public interface ProductRepository {
      */
     List<ProductEntity> findBySearchTerm(String searchTerm);
 
+    /**
+     * Busca os produtos mais relevantes para um termo de busca.
+     *
+     * A implementação padrão mantém a ordem de {@link #findBySearchTerm(String)};
+     * implementações com índice devem ordenar por relevância sem ordenar todos os resultados.
+     *
+     * @param searchTerm o termo a ser buscado
+     * @param limit      número máximo de produtos
+     * @return até {@code limit} produtos, do mais relevante para o menos relevante
+     * @throws IllegalArgumentException se searchTerm for null ou vazio
+     */
+    default List<ProductEntity> findTopBySearchTerm(String searchTerm, int limit) {
+        return findBySearchTerm(searchTerm).stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Busca produtos disponíveis em estoque.
      *
@@ -81,6 +100,19 @@ public interface ProductRepository {
      */
     long count();
 
+    /**
+     * Versão do catálogo servido, que muda a cada recarga.
+     *
+     * Resultados calculados com uma versão continuam válidos enquanto ela não
+     * mudar. A implementação padrão retorna -1: o repositório não é versionado
+     * e seus resultados não devem ser reaproveitados.
+     *
+     * @return a versão atual do catálogo, ou -1 se o repositório não for versionado
+     */
+    default long version() {
+        return -1;
+    }
+
     /**
      * Busca produtos com desconto.
      *
@@ -97,4 +129,81 @@ public interface ProductRepository {
      * @throws IllegalArgumentException se minPrice for maior que maxPrice ou se algum for negativo
      */
     List<ProductEntity> findByPriceRange(Double minPrice, Double maxPrice);
-}
\ No newline at end of file
+
+    /**
+     * Busca produtos que atendem a todos os critérios informados.
+     *
+     * Implementações com índices devem começar pelo critério mais seletivo e
+     * evitar ordenar a cada consulta. Implementações que corrigem termos de
+     * busca sem resultados informam a correção aplicada junto com os produtos.
+     *
+     * @param criteria os critérios combinados
+     * @return os produtos que atendem a todos os critérios, na ordenação pedida, e a correção aplicada ao termo
+     * @throws UnsupportedOperationException se o repositório não ordena na ordem pedida
+     */
+    ProductList findMatching(ProductCriteria criteria);
+
+    /**
+     * Conta os produtos que atendem a todos os critérios, sem montar a lista de resultados.
+     *
+     * Implementações com índices devem responder pelas cardinalidades dos índices.
+     *
+     * @param criteria os critérios combinados (a ordenação é ignorada)
+     * @return o número de produtos que atendem a todos os critérios
+     */
+    long countMatching(ProductCriteria criteria);
+
+    /**
+     * Busca uma página dos produtos que atendem a todos os critérios, na ordem
+     * de {@link #findMatching(ProductCriteria)}.
+     *
+     * O cursor é opaco: deve ser o {@code nextCursor} da página anterior, ou
+     * null para a primeira página. Só a primeira página informa a correção
+     * aplicada ao termo de busca.
+     *
+     * @param criteria os critérios combinados
+     * @param limit    número máximo de produtos na página
+     * @param cursor   o cursor da página anterior, ou null
+     * @return a página e o cursor da próxima página
+     * @throws IllegalArgumentException se o cursor for inválido
+     * @throws UnsupportedOperationException se o repositório não pagina na ordem pedida
+     */
+    ProductPage findPage(ProductCriteria criteria, int limit, String cursor);
+
+    /**
+     * Conta os produtos que atendem a todos os critérios por marca, categoria,
+     * faixa de desconto, faixa de preço, disponibilidade, frete grátis e parcelamento.
+     *
+     * A ordenação dos critérios é ignorada. Implementações devem contar pelos
+     * índices, sem materializar os produtos.
+     *
+     * @param criteria os critérios combinados
+     * @return as contagens por faceta
+     * @throws UnsupportedOperationException se o repositório não mantém índices de facetas
+     */
+    ProductFacets findFacets(ProductCriteria criteria);
+
+    /**
+     * Calcula as estatísticas de preço e avaliação de cada grupo de produtos.
+     *
+     * Implementações devem mantê-las prontas a cada carga do catálogo.
+     *
+     * @param grouping o agrupamento
+     * @return as estatísticas de cada grupo, os grupos com mais produtos primeiro
+     * @throws UnsupportedOperationException se o repositório não mantém as estatísticas
+     */
+    List<ProductGroupStats> aggregate(ProductGrouping grouping);
+
+    /**
+     * Sugere títulos, marcas e nomes de categoria que começam com o prefixo
+     * (em qualquer palavra), os mais avaliados primeiro.
+     *
+     * Implementações devem responder por um índice, sem percorrer o catálogo.
+     *
+     * @param prefix o prefixo digitado
+     * @param limit  número máximo de sugestões
+     * @return lista de sugestões ordenada por número de avaliações
+     * @throws UnsupportedOperationException se o repositório não mantém índice de sugestões
+     */
+    List<SuggestionEntity> suggest(String prefix, int limit);
+}
@@ -0,0 +1,96 @@
+package com.mercadoclone.domain.repository;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ordenações disponíveis para listas de produtos.
+ *
+ * Produtos sem o valor ordenado (sem preço, avaliação, data ou título) ficam
+ * no fim; empates mantêm a ordem por identificador. Títulos seguem a ordem
+ * alfabética do português, sem diferenciar maiúsculas e minúsculas.
+ *
+ * @author MercadoClone Team
+ */
+public enum ProductSort {
+
+    PRICE_ASC("price_asc"),
+    PRICE_DESC("price_desc"),
+    RATING("rating"),
+    NEWEST("newest"),
+    TITLE("title");
+
+    /**
+     * Localidade da ordem alfabética dos títulos.
+     */
+    public static final Locale TITLE_LOCALE = Locale.forLanguageTag("pt-BR");
+
+    private final String parameter;
+
+    ProductSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Nome da ordenação no parâmetro {@code sort}.
+     */
+    public String parameter() {
+        return parameter;
+    }
+
+    /**
+     * Converte o parâmetro {@code sort} na ordenação correspondente.
+     *
+     * @param parameter o valor informado, ou null
+     * @return a ordenação, ou null quando o parâmetro não foi informado
+     * @throws IllegalArgumentException se o valor não corresponder a nenhuma ordenação
+     */
+    public static ProductSort fromParameter(String parameter) {
+        if (parameter == null || parameter.isBlank()) {
+            return null;
+        }
+        for (ProductSort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(parameter.trim())) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Invalid sort '" + parameter + "': expected one of "
+                + Arrays.stream(values()).map(ProductSort::parameter).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Cria o comparador desta ordenação (um novo a cada chamada, pois o {@link Collator} não é thread-safe).
+     */
+    public Comparator<ProductEntity> comparator() {
+        Comparator<ProductEntity> order = switch (this) {
+            case PRICE_ASC -> nullsLast(product -> product.getPrice() == null ? null : product.getPrice().getCurrent(),
+                    Comparator.<Double>naturalOrder());
+            case PRICE_DESC -> nullsLast(product -> product.getPrice() == null ? null : product.getPrice().getCurrent(),
+                    Comparator.<Double>reverseOrder());
+            case RATING -> nullsLast(product -> product.getRating() == null ? null : product.getRating().getAverage(),
+                    Comparator.<Double>reverseOrder());
+            case NEWEST -> nullsLast(ProductEntity::getCreatedAt, Comparator.reverseOrder());
+            case TITLE -> nullsLast(ProductEntity::getTitle, titleCollator());
+        };
+        return order.thenComparing(ProductEntity::getId);
+    }
+
+    /**
+     * Cria o {@link Collator} da ordem dos títulos: acentos contam, maiúsculas e minúsculas não.
+     */
+    public static Collator titleCollator() {
+        Collator collator = Collator.getInstance(TITLE_LOCALE);
+        collator.setStrength(Collator.SECONDARY);
+        return collator;
+    }
+
+    private static <T> Comparator<ProductEntity> nullsLast(Function<ProductEntity, T> key, Comparator<? super T> order) {
+        return Comparator.comparing(key, Comparator.nullsLast(order));
+    }
+}
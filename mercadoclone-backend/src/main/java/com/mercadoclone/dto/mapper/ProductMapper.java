@@ -1,7 +1,15 @@
 package com.mercadoclone.dto.mapper;
 
 import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.dto.response.FacetRangeResponse;
+import com.mercadoclone.dto.response.FacetTermResponse;
+import com.mercadoclone.dto.response.ProductFacetsResponse;
+import com.mercadoclone.dto.response.ProductGroupStatsResponse;
 import com.mercadoclone.dto.response.ProductResponse;
+import com.mercadoclone.dto.response.SuggestionResponse;
 import org.mapstruct.Mapper;
 
 import java.util.List;
@@ -11,4 +19,18 @@ public interface ProductMapper {
     ProductResponse toResponse(ProductEntity product);
 
     List<ProductResponse> toResponseList(List<ProductEntity> products);
+
+    SuggestionResponse toSuggestionResponse(SuggestionEntity suggestion);
+
+    List<SuggestionResponse> toSuggestionResponseList(List<SuggestionEntity> suggestions);
+
+    ProductFacetsResponse toFacetsResponse(ProductFacets facets);
+
+    FacetTermResponse toFacetTermResponse(ProductFacets.Term term);
+
+    FacetRangeResponse toFacetRangeResponse(ProductFacets.Range range);
+
+    ProductGroupStatsResponse toGroupStatsResponse(ProductGroupStats stats);
+
+    List<ProductGroupStatsResponse> toGroupStatsResponseList(List<ProductGroupStats> stats);
 }
@@ -19,6 +19,8 @@ public record FilterRequest(
         @Parameter(description = "Minimum price")
         @RequestParam(defaultValue = "0", required = false) Double minPrice,
         @Parameter(description = "Maximum price")
-        @RequestParam(defaultValue = "0", required = false) Double maxPrice
+        @RequestParam(defaultValue = "0", required = false) Double maxPrice,
+        @Parameter(description = "Sort order: price_asc, price_desc, rating, newest or title")
+        @RequestParam(required = false) String sort
 ) {
 }
@@ -3,6 +3,8 @@ package com.mercadoclone.dto.response;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ApiResponse<T> {
@@ -10,6 +12,7 @@ public class ApiResponse<T> {
     private boolean success;
     private T data;
     private String message;
+    private Map<String, Object> meta;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
     private LocalDateTime timestamp;
@@ -50,6 +53,17 @@ public class ApiResponse<T> {
         return new ApiResponse<>(false, null, message);
     }
 
+    /**
+     * Adds response metadata, such as a search correction.
+     */
+    public ApiResponse<T> withMeta(String key, Object value) {
+        if (meta == null) {
+            meta = new LinkedHashMap<>();
+        }
+        meta.put(key, value);
+        return this;
+    }
+
     // Getters and Setters
 
     public boolean isSuccess() { return success; }
@@ -61,6 +75,9 @@ public class ApiResponse<T> {
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
 
+    public Map<String, Object> getMeta() { return meta; }
+    public void setMeta(Map<String, Object> meta) { this.meta = meta; }
+
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.mercadoclone.dto.response;
+
+public record FacetRangeResponse(
+        double from,
+        Double to,
+        long count
+) {
+}
@@ -0,0 +1,8 @@
+package com.mercadoclone.dto.response;
+
+public record FacetTermResponse(
+        String value,
+        String label,
+        long count
+) {
+}
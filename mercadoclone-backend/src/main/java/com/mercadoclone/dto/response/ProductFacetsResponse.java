@@ -0,0 +1,15 @@
+package com.mercadoclone.dto.response;
+
+import java.util.List;
+
+public record ProductFacetsResponse(
+        long total,
+        List<FacetTermResponse> brands,
+        List<FacetTermResponse> categories,
+        List<FacetRangeResponse> discounts,
+        List<FacetRangeResponse> prices,
+        long available,
+        long freeShipping,
+        long installments
+) {
+}
@@ -0,0 +1,14 @@
+package com.mercadoclone.dto.response;
+
+public record ProductGroupStatsResponse(
+        String key,
+        String label,
+        long count,
+        Double minPrice,
+        Double maxPrice,
+        Double meanPrice,
+        Double p50Price,
+        Double p90Price,
+        Double averageRating
+) {
+}
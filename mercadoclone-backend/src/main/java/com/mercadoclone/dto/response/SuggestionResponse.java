@@ -0,0 +1,7 @@
+package com.mercadoclone.dto.response;
+
+public record SuggestionResponse(
+        String text,
+        String type
+) {
+}
@@ -76,6 +76,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Trata operações não suportadas pelo repositório configurado.
+     */
+    @ExceptionHandler(UnsupportedOperationException.class)
+    public ResponseEntity<com.mercadoclone.dto.response.ApiError> handleUnsupportedOperation(UnsupportedOperationException ex, WebRequest request) {
+        logger.warn("Unsupported operation: {}", ex.getMessage());
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("path", request.getDescription(false));
+
+        com.mercadoclone.dto.response.ApiError error = new com.mercadoclone.dto.response.ApiError(ex.getMessage(), "NOT_SUPPORTED", details);
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(error);
+    }
+
     /**
      * Trata exceções de validação de argumentos de método.
      */
@@ -0,0 +1,116 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.ProductRatingEntity;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.domain.repository.ProductGrouping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price and rating statistics of every {@link ProductGrouping}, computed when the snapshot is built.
+ *
+ * For each grouping the products are numbered by group in one pass, then the
+ * price index is walked cheapest first, dealing every price into its group's
+ * slice of a single {@code double[]}: each slice comes out sorted without
+ * sorting, so percentiles are read by position. Only the resulting statistics
+ * are kept, and a query returns them as they are.
+ *
+ * Built once per snapshot and never modified afterwards.
+ *
+ * @author MercadoClone Team
+ */
+final class CatalogAggregates {
+
+    private final Map<ProductGrouping, List<ProductGroupStats>> groups;
+
+    private CatalogAggregates(Map<ProductGrouping, List<ProductGroupStats>> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Computes the statistics of every grouping over the products in ordinal order.
+     */
+    static CatalogAggregates of(List<ProductEntity> products, PriceIndex priceIndex) {
+        Map<ProductGrouping, List<ProductGroupStats>> groups = new EnumMap<>(ProductGrouping.class);
+        for (ProductGrouping grouping : ProductGrouping.values()) {
+            groups.put(grouping, aggregate(products, priceIndex, grouping));
+        }
+        return new CatalogAggregates(Collections.unmodifiableMap(groups));
+    }
+
+    /**
+     * Returns the statistics of each group, largest groups first (shared and unmodifiable).
+     */
+    List<ProductGroupStats> of(ProductGrouping grouping) {
+        return groups.get(grouping);
+    }
+
+    private static List<ProductGroupStats> aggregate(List<ProductEntity> products, PriceIndex priceIndex,
+                                                     ProductGrouping grouping) {
+        int[] groupOf = new int[products.size()];
+        Map<String, Integer> numbers = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        for (int ordinal = 0; ordinal < groupOf.length; ordinal++) {
+            ProductEntity product = products.get(ordinal);
+            String key = grouping.key(product);
+            groupOf[ordinal] = key == null ? -1 : numbers.computeIfAbsent(key, ignored -> {
+                keys.add(key);
+                labels.add(grouping.label(product));
+                return keys.size() - 1;
+            });
+        }
+
+        int groupCount = keys.size();
+        long[] counts = new long[groupCount];
+        double[] ratingSums = new double[groupCount];
+        long[] ratingCounts = new long[groupCount];
+        for (int ordinal = 0; ordinal < groupOf.length; ordinal++) {
+            int group = groupOf[ordinal];
+            if (group < 0) {
+                continue;
+            }
+            counts[group]++;
+            ProductRatingEntity rating = products.get(ordinal).getRating();
+            if (rating != null && rating.getAverage() != null) {
+                ratingSums[group] += rating.getAverage();
+                ratingCounts[group]++;
+            }
+        }
+
+        // Slice boundaries of each group's prices, then deal the prices cheapest first
+        int[] ordinals = priceIndex.ordinals();
+        double[] prices = priceIndex.prices();
+        int[] offsets = new int[groupCount + 1];
+        for (int ordinal : ordinals) {
+            if (groupOf[ordinal] >= 0) {
+                offsets[groupOf[ordinal] + 1]++;
+            }
+        }
+        for (int group = 0; group < groupCount; group++) {
+            offsets[group + 1] += offsets[group];
+        }
+        double[] grouped = new double[offsets[groupCount]];
+        int[] next = offsets.clone();
+        for (int rank = 0; rank < ordinals.length; rank++) {
+            int group = groupOf[ordinals[rank]];
+            if (group >= 0) {
+                grouped[next[group]++] = prices[rank];
+            }
+        }
+
+        List<ProductGroupStats> stats = new ArrayList<>(groupCount);
+        for (int group = 0; group < groupCount; group++) {
+            stats.add(ProductGroupStats.of(keys.get(group), labels.get(group), counts[group],
+                    grouped, offsets[group], offsets[group + 1], ratingSums[group], ratingCounts[group]));
+        }
+        stats.sort(ProductGroupStats.BY_COUNT);
+        return Collections.unmodifiableList(stats);
+    }
+}
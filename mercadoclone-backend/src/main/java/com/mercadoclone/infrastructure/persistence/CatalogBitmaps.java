@@ -0,0 +1,169 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Bitmap indexes over product ordinals: one per {@link CatalogFlag}, category id and brand.
+ *
+ * Combined filters are answered by AND/OR/ANDNOT over these bitmaps, followed
+ * by a single materialization of the matching products.
+ *
+ * Built once per snapshot and never modified afterwards; a refresh that keeps
+ * every ordinal rebuilds only the bitmaps its changed products left or joined.
+ *
+ * @author MercadoClone Team
+ */
+final class CatalogBitmaps {
+
+    private final OrdinalBitmap all;
+    private final Map<CatalogFlag, OrdinalBitmap> flags;
+    private final Map<String, OrdinalBitmap> categories;
+    private final Map<String, OrdinalBitmap> brands;
+
+    private CatalogBitmaps(OrdinalBitmap all, Map<CatalogFlag, OrdinalBitmap> flags,
+                           Map<String, OrdinalBitmap> categories, Map<String, OrdinalBitmap> brands) {
+        this.all = all;
+        this.flags = flags;
+        this.categories = categories;
+        this.brands = brands;
+    }
+
+    /**
+     * Indexes products in ordinal order, in a single pass.
+     */
+    static CatalogBitmaps of(ProductEntity[] ordered) {
+        Map<CatalogFlag, OrdinalBitmap.Builder> flagBuilders = new EnumMap<>(CatalogFlag.class);
+        for (CatalogFlag flag : CatalogFlag.values()) {
+            flagBuilders.put(flag, new OrdinalBitmap.Builder());
+        }
+        Map<String, OrdinalBitmap.Builder> categoryBuilders = new HashMap<>();
+        Map<String, OrdinalBitmap.Builder> brandBuilders = new HashMap<>();
+
+        for (int ordinal = 0; ordinal < ordered.length; ordinal++) {
+            ProductEntity product = ordered[ordinal];
+            for (CatalogFlag flag : CatalogFlag.values()) {
+                if (flag.test(product)) {
+                    flagBuilders.get(flag).add(ordinal);
+                }
+            }
+            String category = categoryOf(product);
+            if (category != null) {
+                categoryBuilders.computeIfAbsent(category, key -> new OrdinalBitmap.Builder()).add(ordinal);
+            }
+            String brand = brandOf(product);
+            if (brand != null) {
+                brandBuilders.computeIfAbsent(brand, key -> new OrdinalBitmap.Builder()).add(ordinal);
+            }
+        }
+
+        Map<CatalogFlag, OrdinalBitmap> flags = new EnumMap<>(CatalogFlag.class);
+        flagBuilders.forEach((flag, builder) -> flags.put(flag, builder.build()));
+        return new CatalogBitmaps(
+                OrdinalBitmap.range(ordered.length),
+                Collections.unmodifiableMap(flags),
+                build(categoryBuilders),
+                build(brandBuilders)
+        );
+    }
+
+    /**
+     * Returns these bitmaps with the products at the changed ordinals indexed
+     * again; every other ordinal must hold the same product in both arrays.
+     * Bitmaps no changed product left or joined are shared, not copied.
+     */
+    CatalogBitmaps update(ProductEntity[] previous, ProductEntity[] ordered, int[] changed) {
+        Map<CatalogFlag, OrdinalBitmap> updatedFlags = new EnumMap<>(CatalogFlag.class);
+        for (CatalogFlag flag : CatalogFlag.values()) {
+            OrdinalBitmap.Builder left = new OrdinalBitmap.Builder();
+            OrdinalBitmap.Builder joined = new OrdinalBitmap.Builder();
+            for (int ordinal : changed) {
+                boolean before = flag.test(previous[ordinal]);
+                if (before != flag.test(ordered[ordinal])) {
+                    (before ? left : joined).add(ordinal);
+                }
+            }
+            OrdinalBitmap leftBitmap = left.build();
+            OrdinalBitmap joinedBitmap = joined.build();
+            updatedFlags.put(flag, leftBitmap.isEmpty() && joinedBitmap.isEmpty()
+                    ? flags.get(flag) : flags.get(flag).andNot(leftBitmap).or(joinedBitmap));
+        }
+        return new CatalogBitmaps(
+                all,
+                Collections.unmodifiableMap(updatedFlags),
+                update(categories, previous, ordered, changed, CatalogBitmaps::categoryOf),
+                update(brands, previous, ordered, changed, CatalogBitmaps::brandOf)
+        );
+    }
+
+    /**
+     * Returns the bitmap of every product in the snapshot.
+     */
+    OrdinalBitmap all() {
+        return all;
+    }
+
+    OrdinalBitmap flag(CatalogFlag flag) {
+        return flags.get(flag);
+    }
+
+    OrdinalBitmap category(String categoryId) {
+        return categories.getOrDefault(categoryId, OrdinalBitmap.EMPTY);
+    }
+
+    /**
+     * Returns the products of a brand, compared ignoring case.
+     */
+    OrdinalBitmap brand(String brand) {
+        return brands.getOrDefault(CatalogSnapshot.brandKey(brand), OrdinalBitmap.EMPTY);
+    }
+
+    private static Map<String, OrdinalBitmap> update(Map<String, OrdinalBitmap> bitmaps, ProductEntity[] previous,
+                                                     ProductEntity[] ordered, int[] changed,
+                                                     Function<ProductEntity, String> key) {
+        Map<String, OrdinalBitmap.Builder> left = new HashMap<>();
+        Map<String, OrdinalBitmap.Builder> joined = new HashMap<>();
+        for (int ordinal : changed) {
+            String before = key.apply(previous[ordinal]);
+            String after = key.apply(ordered[ordinal]);
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            if (before != null) {
+                left.computeIfAbsent(before, value -> new OrdinalBitmap.Builder()).add(ordinal);
+            }
+            if (after != null) {
+                joined.computeIfAbsent(after, value -> new OrdinalBitmap.Builder()).add(ordinal);
+            }
+        }
+        if (left.isEmpty() && joined.isEmpty()) {
+            return bitmaps;
+        }
+
+        Map<String, OrdinalBitmap> updated = new HashMap<>(bitmaps);
+        left.forEach((value, builder) -> updated.put(value, updated.get(value).andNot(builder.build())));
+        joined.forEach((value, builder) -> updated.merge(value, builder.build(), OrdinalBitmap::or));
+        updated.values().removeIf(OrdinalBitmap::isEmpty);
+        return Collections.unmodifiableMap(updated);
+    }
+
+    private static String categoryOf(ProductEntity product) {
+        return product.getCategory() == null ? null : product.getCategory().id();
+    }
+
+    private static String brandOf(ProductEntity product) {
+        return product.getBrand() == null ? null : CatalogSnapshot.brandKey(product.getBrand());
+    }
+
+    private static Map<String, OrdinalBitmap> build(Map<String, OrdinalBitmap.Builder> builders) {
+        Map<String, OrdinalBitmap> bitmaps = new HashMap<>(builders.size() * 2);
+        builders.forEach((key, builder) -> bitmaps.put(key, builder.build()));
+        return Collections.unmodifiableMap(bitmaps);
+    }
+}
@@ -0,0 +1,19 @@
+package com.mercadoclone.infrastructure.persistence;
+
+/**
+ * Summary of an incremental catalog refresh.
+ *
+ * @param added     products whose id was not in the previous snapshot
+ * @param changed   products whose content hash changed
+ * @param removed   products no longer present in the source files
+ * @param unchanged products reused as-is from the previous snapshot
+ */
+public record CatalogChanges(int added, int changed, int removed, int unchanged) {
+
+    /**
+     * Whether the refresh produced a different catalog.
+     */
+    public boolean hasChanges() {
+        return added > 0 || changed > 0 || removed > 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.PriceEntity;
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.ProductRatingEntity;
+
+/**
+ * Dense primitive copies of the fields the catalog filters on, aligned by product ordinal.
+ *
+ * Scans over these arrays touch contiguous memory and never unbox, instead of
+ * following {@code ProductEntity -> PriceEntity -> Double} for every product.
+ * Missing prices and ratings are stored as NaN, which fails every comparison;
+ * a missing discount is stored as 0.
+ *
+ * Built once per snapshot and never modified afterwards; a refresh that keeps
+ * every ordinal copies the columns and rewrites only the changed ordinals.
+ *
+ * @author MercadoClone Team
+ */
+final class CatalogColumns {
+
+    private final double[] currentPrice;
+    private final int[] discount;
+    private final float[] ratingAverage;
+
+    private CatalogColumns(double[] currentPrice, int[] discount, float[] ratingAverage) {
+        this.currentPrice = currentPrice;
+        this.discount = discount;
+        this.ratingAverage = ratingAverage;
+    }
+
+    /**
+     * Extracts the columns from products in ordinal order.
+     */
+    static CatalogColumns of(ProductEntity[] ordered) {
+        CatalogColumns columns = new CatalogColumns(new double[ordered.length], new int[ordered.length],
+                new float[ordered.length]);
+        for (int ordinal = 0; ordinal < ordered.length; ordinal++) {
+            columns.set(ordinal, ordered[ordinal]);
+        }
+        return columns;
+    }
+
+    /**
+     * Returns a copy of these columns with the products at the changed ordinals
+     * extracted again; every other ordinal must hold the same product.
+     */
+    CatalogColumns update(ProductEntity[] ordered, int[] changed) {
+        CatalogColumns columns = new CatalogColumns(currentPrice.clone(), discount.clone(), ratingAverage.clone());
+        for (int ordinal : changed) {
+            columns.set(ordinal, ordered[ordinal]);
+        }
+        return columns;
+    }
+
+    private void set(int ordinal, ProductEntity product) {
+        PriceEntity price = product.getPrice();
+        currentPrice[ordinal] = price != null && price.getCurrent() != null ? price.getCurrent() : Double.NaN;
+        discount[ordinal] = price != null && price.getDiscount() != null ? price.getDiscount() : 0;
+
+        ProductRatingEntity rating = product.getRating();
+        ratingAverage[ordinal] = rating != null && rating.getAverage() != null
+                ? rating.getAverage().floatValue() : Float.NaN;
+    }
+
+    int size() {
+        return currentPrice.length;
+    }
+
+    /**
+     * Returns the current price at the given ordinal, or NaN when the product has none.
+     */
+    double currentPrice(int ordinal) {
+        return currentPrice[ordinal];
+    }
+
+    int discount(int ordinal) {
+        return discount[ordinal];
+    }
+
+    /**
+     * Returns the average rating at the given ordinal, or NaN when the product has none.
+     */
+    float ratingAverage(int ordinal) {
+        return ratingAverage[ordinal];
+    }
+}
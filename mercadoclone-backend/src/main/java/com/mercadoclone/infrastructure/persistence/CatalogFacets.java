@@ -0,0 +1,163 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.repository.ProductFacets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet values of every product, encoded as small integers aligned by ordinal.
+ *
+ * Brands and categories are numbered in order of first appearance, discount
+ * and price buckets by their position among the bucket edges (-1 when the
+ * product has no value). Counting the facets of a match bitmap is then one
+ * pass that increments primitive counters, plus one bitmap intersection per
+ * flag; no product is materialized. The facets of the whole catalog are
+ * counted once, when the index is built.
+ *
+ * Built once per snapshot, on first use, and never modified afterwards.
+ *
+ * @author MercadoClone Team
+ */
+final class CatalogFacets {
+
+    private final CatalogBitmaps bitmaps;
+    private final int[] brands;
+    private final String[] brandNames;
+    private final int[] categories;
+    private final String[] categoryIds;
+    private final String[] categoryNames;
+    private final double[] discountEdges;
+    private final byte[] discountBuckets;
+    private final double[] priceEdges;
+    private final byte[] priceBuckets;
+    private final ProductFacets all;
+
+    private CatalogFacets(CatalogBitmaps bitmaps, int[] brands, String[] brandNames, int[] categories,
+                          String[] categoryIds, String[] categoryNames, double[] discountEdges,
+                          byte[] discountBuckets, double[] priceEdges, byte[] priceBuckets) {
+        this.bitmaps = bitmaps;
+        this.brands = brands;
+        this.brandNames = brandNames;
+        this.categories = categories;
+        this.categoryIds = categoryIds;
+        this.categoryNames = categoryNames;
+        this.discountEdges = discountEdges;
+        this.discountBuckets = discountBuckets;
+        this.priceEdges = priceEdges;
+        this.priceBuckets = priceBuckets;
+        this.all = count(bitmaps.all());
+    }
+
+    /**
+     * Encodes the facet values of the products in ordinal order.
+     */
+    static CatalogFacets of(List<ProductEntity> products, CatalogColumns columns, PriceIndex priceIndex,
+                            CatalogBitmaps bitmaps) {
+        int size = products.size();
+        int[] brands = new int[size];
+        int[] categories = new int[size];
+        byte[] discountBuckets = new byte[size];
+        byte[] priceBuckets = new byte[size];
+        Map<String, Integer> brandNumbers = new HashMap<>();
+        List<String> brandNames = new ArrayList<>();
+        Map<String, Integer> categoryNumbers = new HashMap<>();
+        List<String> categoryIds = new ArrayList<>();
+        List<String> categoryNames = new ArrayList<>();
+        double[] discountEdges = ProductFacets.discountEdges();
+        double[] priceEdges = ProductFacets.priceEdges(priceIndex.prices());
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            ProductEntity product = products.get(ordinal);
+
+            brands[ordinal] = -1;
+            if (product.getBrand() != null) {
+                brands[ordinal] = brandNumbers.computeIfAbsent(CatalogSnapshot.brandKey(product.getBrand()), key -> {
+                    brandNames.add(product.getBrand());
+                    return brandNames.size() - 1;
+                });
+            }
+
+            categories[ordinal] = -1;
+            if (product.getCategory() != null && product.getCategory().id() != null) {
+                categories[ordinal] = categoryNumbers.computeIfAbsent(product.getCategory().id(), id -> {
+                    categoryIds.add(id);
+                    categoryNames.add(product.getCategory().name() != null ? product.getCategory().name() : id);
+                    return categoryIds.size() - 1;
+                });
+            }
+
+            int discount = columns.discount(ordinal);
+            discountBuckets[ordinal] = (byte) (discount > 0 ? ProductFacets.bucketOf(discountEdges, discount) : -1);
+            priceBuckets[ordinal] = (byte) ProductFacets.bucketOf(priceEdges, columns.currentPrice(ordinal));
+        }
+
+        return new CatalogFacets(bitmaps, brands, brandNames.toArray(new String[0]), categories,
+                categoryIds.toArray(new String[0]), categoryNames.toArray(new String[0]),
+                discountEdges, discountBuckets, priceEdges, priceBuckets);
+    }
+
+    /**
+     * Returns the facets of the whole catalog.
+     */
+    ProductFacets all() {
+        return all;
+    }
+
+    /**
+     * Counts the facets of the products in the bitmap.
+     */
+    ProductFacets count(OrdinalBitmap matches) {
+        long[] brandCounts = new long[brandNames.length];
+        long[] categoryCounts = new long[categoryIds.length];
+        long[] discountCounts = new long[discountEdges.length];
+        long[] priceCounts = new long[priceEdges.length];
+
+        matches.forEach(ordinal -> {
+            if (brands[ordinal] >= 0) {
+                brandCounts[brands[ordinal]]++;
+            }
+            if (categories[ordinal] >= 0) {
+                categoryCounts[categories[ordinal]]++;
+            }
+            if (discountBuckets[ordinal] >= 0) {
+                discountCounts[discountBuckets[ordinal]]++;
+            }
+            if (priceBuckets[ordinal] >= 0) {
+                priceCounts[priceBuckets[ordinal]]++;
+            }
+        });
+
+        return new ProductFacets(
+                matches.cardinality(),
+                terms(brandNames, brandNames, brandCounts),
+                terms(categoryIds, categoryNames, categoryCounts),
+                ProductFacets.ranges(discountEdges, discountCounts),
+                ProductFacets.ranges(priceEdges, priceCounts),
+                flagCount(matches, CatalogFlag.AVAILABLE),
+                flagCount(matches, CatalogFlag.FREE_SHIPPING),
+                flagCount(matches, CatalogFlag.INSTALLMENTS));
+    }
+
+    private long flagCount(OrdinalBitmap matches, CatalogFlag flag) {
+        OrdinalBitmap flagged = bitmaps.flag(flag);
+        return matches == bitmaps.all() ? flagged.cardinality() : matches.and(flagged).cardinality();
+    }
+
+    /**
+     * Lists the values with at least one match, most frequent first.
+     */
+    private static List<ProductFacets.Term> terms(String[] values, String[] labels, long[] counts) {
+        List<ProductFacets.Term> terms = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                terms.add(new ProductFacets.Term(values[i], labels[i], counts[i]));
+            }
+        }
+        terms.sort(ProductFacets.Term.BY_COUNT);
+        return terms;
+    }
+}
@@ -0,0 +1,175 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.exception.DataLoadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the products file (or the directory of product shards) and applies
+ * changes to the live catalog through {@link JsonProductRepository#refreshData()}.
+ *
+ * Bursts of file system events (e.g. a feed being copied in several writes) are
+ * coalesced: the refresh only runs after no event was seen for the debounce window.
+ *
+ * Enabled with {@code app.data.watch.enabled=true} when the JSON repository is
+ * in use. Only products files that resolve to the file system can be watched.
+ *
+ * @author MercadoClone Team
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.data.watch", name = "enabled", havingValue = "true")
+@ConditionalOnProperty(prefix = "app.data", name = "repository", havingValue = "json", matchIfMissing = true)
+public class CatalogFileWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogFileWatcher.class);
+
+    private final JsonProductRepository repository;
+    private final ResourceLoader resourceLoader;
+    private final String productsFilePath;
+    private final long debounceMillis;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public CatalogFileWatcher(
+            JsonProductRepository repository,
+            ResourceLoader resourceLoader,
+            @Value("${app.data.products-file:classpath:data/products.json}") String productsFilePath,
+            @Value("${app.data.watch.debounce-ms:500}") long debounceMillis) {
+        this.repository = repository;
+        this.resourceLoader = resourceLoader;
+        this.productsFilePath = productsFilePath;
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Registers the watch and starts the background watcher thread.
+     */
+    @PostConstruct
+    public void start() {
+        Path target = resolveWatchedPath();
+        if (target == null) {
+            return;
+        }
+
+        boolean directory = Files.isDirectory(target);
+        Path watchedDirectory = directory ? target : target.getParent();
+        Path watchedFile = directory ? null : target.getFileName();
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            watchedDirectory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new DataLoadException("Failed to watch products file: " + productsFilePath, e);
+        }
+
+        watcherThread = new Thread(() -> watchLoop(watchedFile), "catalog-file-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+
+        logger.info("Watching {} for catalog changes", target);
+    }
+
+    /**
+     * Stops watching; the watcher thread exits once the watch service is closed.
+     */
+    @PreDestroy
+    public void stop() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Error closing catalog watch service", e);
+        }
+        watcherThread.interrupt();
+    }
+
+    private void watchLoop(Path watchedFile) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean relevant = drainEvents(watchService.take(), watchedFile);
+
+                // Debounce: keep collecting events until the directory is quiet
+                WatchKey next;
+                while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= drainEvents(next, watchedFile);
+                }
+
+                if (relevant) {
+                    refreshCatalog();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Catalog watch service closed");
+        }
+    }
+
+    /**
+     * Consumes the pending events of a key, telling whether any of them touched the catalog.
+     */
+    private boolean drainEvents(WatchKey key, Path watchedFile) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+            Path changed = (Path) event.context();
+            relevant |= watchedFile == null
+                    ? CatalogSources.isShardFile(changed)
+                    : watchedFile.equals(changed);
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void refreshCatalog() {
+        try {
+            repository.refreshData();
+        } catch (RuntimeException e) {
+            // Keep watching: the previous snapshot is still being served
+            logger.error("Failed to apply catalog changes from {}", productsFilePath, e);
+        }
+    }
+
+    /**
+     * Resolves the configured products path on the file system, or null if it cannot be watched.
+     */
+    private Path resolveWatchedPath() {
+        Resource resource = resourceLoader.getResource(productsFilePath);
+        try {
+            if (resource.isFile()) {
+                return resource.getFile().toPath().toAbsolutePath();
+            }
+        } catch (IOException e) {
+            logger.debug("Products file {} is not on the file system", productsFilePath, e);
+        }
+        logger.warn("Catalog watch disabled: {} is not a file system path", productsFilePath);
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.util.function.Predicate;
+
+/**
+ * Boolean product predicates indexed as bitmaps in every catalog snapshot.
+ *
+ * @author MercadoClone Team
+ */
+enum CatalogFlag {
+
+    AVAILABLE(ProductEntity::isAvailable),
+    DISCOUNTED(ProductEntity::hasDiscount),
+    FREE_SHIPPING(product -> product.getShipping() != null && Boolean.TRUE.equals(product.getShipping().getFree())),
+    EXPRESS_SHIPPING(product -> product.getShipping() != null && product.getShipping().isExpress()),
+    TRUSTED_SELLER(product -> product.getSeller() != null && product.getSeller().isTrusted()),
+    GOOD_RATING(product -> product.getRating() != null && product.getRating().hasGoodRating()),
+    INSTALLMENTS(ProductEntity::allowsInstallments);
+
+    private final Predicate<ProductEntity> predicate;
+
+    CatalogFlag(Predicate<ProductEntity> predicate) {
+        this.predicate = predicate;
+    }
+
+    boolean test(ProductEntity product) {
+        return predicate.test(product);
+    }
+}
@@ -0,0 +1,275 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.CategoryEntity;
+import com.mercadoclone.domain.entity.PaymentMethodEntity;
+import com.mercadoclone.domain.entity.PriceEntity;
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.ProductRatingEntity;
+import com.mercadoclone.domain.entity.SellerEntity;
+import com.mercadoclone.domain.entity.ShippingEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load-time canonicalization of the values repeated across products.
+ *
+ * Equal categories, sellers, payment methods and payment method lists are
+ * replaced by a single shared instance, and repeated strings (currency, brand,
+ * category path, seller data, specification keys and values...) by a single
+ * pooled copy. Unique texts such as titles and descriptions are left alone.
+ *
+ * The pools live only for one load, so values dropped from the catalog can be
+ * collected afterwards. Shared instances must not be modified once published.
+ *
+ * Not thread-safe: use one instance per load.
+ *
+ * @author MercadoClone Team
+ */
+final class CatalogInterner {
+
+    // Shallow sizes with compressed oops (12-byte header, 4-byte references, 8-byte alignment)
+    private static final int CATEGORY_BYTES = 24;
+    private static final int SELLER_BYTES = 48;
+    private static final int PAYMENT_METHOD_BYTES = 32;
+    private static final int LIST_BYTES = 24;
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<CategoryEntity, CategoryEntity> categories = new HashMap<>();
+    private final Map<SellerKey, SellerEntity> sellers = new HashMap<>();
+    private final Map<PaymentMethodEntity, PaymentMethodEntity> paymentMethods = new HashMap<>();
+    private final Map<List<PaymentMethodEntity>, List<PaymentMethodEntity>> paymentMethodLists = new HashMap<>();
+
+    private int stringsShared;
+    private int categoriesShared;
+    private int sellersShared;
+    private int paymentMethodsShared;
+    private long bytesSaved;
+
+    /**
+     * Bytes of heap saved by one load, estimated from shallow object sizes.
+     */
+    record MemoryReport(int strings, int categories, int sellers, int paymentMethods, long bytesSaved) {
+
+        static final MemoryReport EMPTY = new MemoryReport(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Replaces the repeated values of a product by their shared instances.
+     *
+     * @return the same product, updated in place
+     */
+    ProductEntity canonicalize(ProductEntity product) {
+        product.setBrand(string(product.getBrand()));
+        product.setWarranty(string(product.getWarranty()));
+        product.setCategory(category(product.getCategory()));
+        product.setSeller(seller(product.getSeller()));
+        product.setPaymentMethods(paymentMethods(product.getPaymentMethods()));
+
+        PriceEntity price = product.getPrice();
+        if (price != null) {
+            price.setCurrency(string(price.getCurrency()));
+        }
+
+        ShippingEntity shipping = product.getShipping();
+        if (shipping != null) {
+            shipping.setDescription(string(shipping.getDescription()));
+        }
+
+        ProductRatingEntity rating = product.getRating();
+        if (rating != null && rating.getDistribution() != null) {
+            rating.setDistribution(keyMap(rating.getDistribution()));
+        }
+
+        if (product.getSpecifications() != null) {
+            product.setSpecifications(stringMap(product.getSpecifications()));
+        }
+
+        if (product.getFeatures() != null) {
+            List<String> features = new ArrayList<>(product.getFeatures().size());
+            product.getFeatures().forEach(feature -> features.add(string(feature)));
+            product.setFeatures(features);
+        }
+
+        return product;
+    }
+
+    /**
+     * Seeds the pools with the values of an already published product, without modifying it.
+     *
+     * Used on incremental refreshes, so changed products share the instances
+     * that unchanged products already hold.
+     */
+    void register(ProductEntity product) {
+        CategoryEntity category = product.getCategory();
+        if (category != null) {
+            categories.putIfAbsent(category, category);
+            registerString(category.id());
+            registerString(category.name());
+        }
+
+        SellerEntity seller = product.getSeller();
+        if (seller != null) {
+            sellers.putIfAbsent(SellerKey.of(seller), seller);
+            registerString(seller.getName());
+            registerString(seller.getLocation());
+        }
+
+        List<PaymentMethodEntity> methods = product.getPaymentMethods();
+        if (methods != null) {
+            paymentMethodLists.putIfAbsent(methods, methods);
+            methods.forEach(method -> {
+                if (method != null) {
+                    paymentMethods.putIfAbsent(method, method);
+                }
+            });
+        }
+
+        registerString(product.getBrand());
+        if (product.getPrice() != null) {
+            registerString(product.getPrice().getCurrency());
+        }
+    }
+
+    MemoryReport report() {
+        return new MemoryReport(stringsShared, categoriesShared, sellersShared, paymentMethodsShared, bytesSaved);
+    }
+
+    private String string(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = strings.putIfAbsent(value, value);
+        if (canonical == null) {
+            return value;
+        }
+        if (canonical != value) {
+            stringsShared++;
+            bytesSaved += stringBytes(value);
+        }
+        return canonical;
+    }
+
+    private void registerString(String value) {
+        if (value != null) {
+            strings.putIfAbsent(value, value);
+        }
+    }
+
+    private CategoryEntity category(CategoryEntity category) {
+        if (category == null) {
+            return null;
+        }
+
+        List<String> path = null;
+        if (category.path() != null) {
+            path = new ArrayList<>(category.path().size());
+            for (String segment : category.path()) {
+                path.add(string(segment));
+            }
+        }
+        CategoryEntity candidate = new CategoryEntity(string(category.id()), string(category.name()), path);
+
+        CategoryEntity canonical = categories.putIfAbsent(candidate, candidate);
+        if (canonical == null) {
+            return candidate;
+        }
+        categoriesShared++;
+        bytesSaved += CATEGORY_BYTES + listBytes(path);
+        return canonical;
+    }
+
+    private SellerEntity seller(SellerEntity seller) {
+        if (seller == null) {
+            return null;
+        }
+
+        seller.setId(string(seller.getId()));
+        seller.setName(string(seller.getName()));
+        seller.setLocation(string(seller.getLocation()));
+        seller.setAvatar(string(seller.getAvatar()));
+
+        // SellerEntity equality only looks at the id, so the key covers every field
+        SellerEntity canonical = sellers.putIfAbsent(SellerKey.of(seller), seller);
+        if (canonical == null || canonical == seller) {
+            return seller;
+        }
+        sellersShared++;
+        bytesSaved += SELLER_BYTES;
+        return canonical;
+    }
+
+    private List<PaymentMethodEntity> paymentMethods(List<PaymentMethodEntity> methods) {
+        if (methods == null) {
+            return null;
+        }
+
+        List<PaymentMethodEntity> candidate = new ArrayList<>(methods.size());
+        for (PaymentMethodEntity method : methods) {
+            candidate.add(paymentMethod(method));
+        }
+
+        List<PaymentMethodEntity> canonical = paymentMethodLists.putIfAbsent(candidate, candidate);
+        if (canonical == null) {
+            return candidate;
+        }
+        bytesSaved += listBytes(candidate);
+        return canonical;
+    }
+
+    private PaymentMethodEntity paymentMethod(PaymentMethodEntity method) {
+        if (method == null) {
+            return null;
+        }
+
+        PaymentMethodEntity candidate = new PaymentMethodEntity(string(method.type()), string(method.name()),
+                string(method.icon()), method.installments(), method.discount());
+        PaymentMethodEntity canonical = paymentMethods.putIfAbsent(candidate, candidate);
+        if (canonical == null) {
+            return candidate;
+        }
+        paymentMethodsShared++;
+        bytesSaved += PAYMENT_METHOD_BYTES;
+        return canonical;
+    }
+
+    private Map<String, String> stringMap(Map<String, String> source) {
+        Map<String, String> copy = new LinkedHashMap<>(Math.max(16, source.size() * 2));
+        source.forEach((key, value) -> copy.put(string(key), string(value)));
+        return copy;
+    }
+
+    private <V> Map<String, V> keyMap(Map<String, V> source) {
+        Map<String, V> copy = new LinkedHashMap<>(Math.max(16, source.size() * 2));
+        source.forEach((key, value) -> copy.put(string(key), value));
+        return copy;
+    }
+
+    /**
+     * Shallow size of a String plus its backing array (Latin-1 strings use one byte per char).
+     */
+    static long stringBytes(String value) {
+        boolean latin1 = value.chars().allMatch(c -> c <= 0xff);
+        return 24 + align(16L + (long) value.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long listBytes(List<?> list) {
+        return list == null ? 0 : LIST_BYTES + align(16L + 4L * list.size());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private record SellerKey(String id, String name, Double reputation, String location, Boolean isOfficial,
+                             Integer positiveRating, Integer yearsOnPlatform, String avatar) {
+
+        static SellerKey of(SellerEntity seller) {
+            return new SellerKey(seller.getId(), seller.getName(), seller.getReputation(), seller.getLocation(),
+                    seller.getIsOfficial(), seller.getPositiveRating(), seller.getYearsOnPlatform(), seller.getAvatar());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadoclone.config.JacksonConfig;
+import com.mercadoclone.exception.DataLoadException;
+import com.mercadoclone.infrastructure.persistence.binary.CatalogGenerations;
+import com.mercadoclone.infrastructure.persistence.binary.CatalogSnapshotFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Converts the JSON products file(s) into binary catalog files for {@link MappedProductRepository}.
+ *
+ * Besides building the file a single process maps, it publishes generations of
+ * a catalog shared by several processes (see {@link CatalogGenerations}). It can
+ * also run as a build step, outside the application:
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.mercadoclone.infrastructure.persistence.CatalogPublisher \
+ *     -Dexec.args="file:/data/products.json /var/lib/mercadoclone/catalog https://cdn.example.com/img"
+ * </pre>
+ *
+ * @author MercadoClone Team
+ */
+public final class CatalogPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogPublisher.class);
+
+    // Generations kept on disk, so processes that did not switch yet can still open theirs
+    private static final int KEPT_GENERATIONS = 2;
+
+    // Held by the publishing process; the class monitor guards against overlapping locks within one JVM
+    private static final String LOCK_FILE = ".publish.lock";
+
+    private final ResourceLoader resourceLoader;
+    private final String productsFilePath;
+    private final String imagesBaseUrl;
+    private final JsonCatalogReader catalogReader;
+
+    public CatalogPublisher(ObjectMapper objectMapper, ResourceLoader resourceLoader,
+                            String productsFilePath, String imagesBaseUrl) {
+        this.resourceLoader = resourceLoader;
+        this.productsFilePath = productsFilePath;
+        this.imagesBaseUrl = imagesBaseUrl;
+        this.catalogReader = new JsonCatalogReader(objectMapper);
+    }
+
+    /**
+     * Builds the catalog file unless it was already built from the current JSON input.
+     */
+    public void buildIfStale(Path file) throws IOException {
+        List<Resource> sources = CatalogSources.resolve(resourceLoader, productsFilePath);
+        long fingerprint = CatalogSources.fingerprint(sources, imagesBaseUrl);
+
+        if (!isUpToDate(file, fingerprint)) {
+            build(sources, file, fingerprint);
+        }
+    }
+
+    /**
+     * Publishes a new generation in the directory, unless the current one was
+     * built from the same JSON input.
+     *
+     * Publishers on the host are serialized by an exclusive lock on the
+     * directory's lock file, held from the up-to-date check to the pruning of
+     * old generations: otherwise two of them could both claim the same next
+     * generation number, or prune a file the other has just published.
+     *
+     * @return file name of the generation now published
+     */
+    public String publish(Path directory) throws IOException {
+        List<Resource> sources = CatalogSources.resolve(resourceLoader, productsFilePath);
+        long fingerprint = CatalogSources.fingerprint(sources, imagesBaseUrl);
+
+        Files.createDirectories(directory);
+        synchronized (CatalogPublisher.class) {
+            try (FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+
+                String current = CatalogGenerations.current(directory);
+                if (current != null && isUpToDate(directory.resolve(current), fingerprint)) {
+                    return current;
+                }
+
+                Path file = CatalogGenerations.next(directory);
+                build(sources, file, fingerprint);
+                CatalogGenerations.publish(file);
+                CatalogGenerations.deleteOlder(directory, KEPT_GENERATIONS);
+
+                logger.info("Published catalog generation {} in {}", file.getFileName(), directory);
+                return file.getFileName().toString();
+            }
+        }
+    }
+
+    /**
+     * Checks if the catalog file exists and was built from the given JSON input.
+     */
+    private boolean isUpToDate(Path file, long fingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CatalogSnapshotFile.Header header = CatalogSnapshotFile.readHeader(channel);
+            return header.formatVersion() == CatalogSnapshotFile.FORMAT_VERSION
+                    && header.sourceFingerprint() == fingerprint;
+        } catch (IOException e) {
+            logger.warn("Rebuilding unreadable catalog file {}", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Streams the JSON sources into a new catalog file, one product at a time.
+     */
+    private void build(List<Resource> sources, Path file, long fingerprint) throws IOException {
+        try (CatalogSnapshotFile.Writer writer = new CatalogSnapshotFile.Writer(file, fingerprint, false)) {
+            for (Resource source : sources) {
+                try (InputStream inputStream = source.getInputStream()) {
+                    catalogReader.read(inputStream, true, product -> {
+                        CatalogSources.processProductImages(product, imagesBaseUrl);
+                        try {
+                            writer.append(product, 0L);
+                        } catch (IOException e) {
+                            throw new DataLoadException("Failed to write catalog file: " + file, e);
+                        }
+                    });
+                }
+            }
+            writer.commit();
+        }
+        logger.info("Built catalog file {}", file);
+    }
+
+    /**
+     * Publishes a catalog generation: {@code <products file> <directory> [images base url]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CatalogPublisher <products file> <directory> [images base url]");
+            System.exit(2);
+        }
+
+        String imagesBaseUrl = args.length > 2 ? args[2] : "http://localhost:3001/images/products";
+        CatalogPublisher publisher = new CatalogPublisher(
+                new JacksonConfig().objectMapper(), new DefaultResourceLoader(), args[0], imagesBaseUrl);
+        System.out.println(publisher.publish(Path.of(args[1])));
+    }
+}
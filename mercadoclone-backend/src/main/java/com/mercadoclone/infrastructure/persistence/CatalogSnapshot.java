@@ -0,0 +1,529 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable, versioned view of the whole product catalog.
+ *
+ * A snapshot is fully built before it is published, so readers holding a
+ * reference always see a complete and consistent catalog. Products are
+ * assigned ordinals in id order; derived structures (primitive columns, price
+ * index, bitmaps, text index, sort orders) are aligned by ordinal, and the
+ * per-group statistics are computed up front.
+ *
+ * @author MercadoClone Team
+ */
+final class CatalogSnapshot {
+
+    private static final Comparator<ProductEntity> BY_ID = Comparator.comparing(ProductEntity::getId);
+
+    private final long version;
+    private final List<ProductEntity> products;
+    private final Map<String, ProductEntity> productsById;
+    private final long[] contentHashes;
+    private final CatalogColumns columns;
+    private final PriceIndex priceIndex;
+    private final Map<String, List<ProductEntity>> productsByCategory;
+    private final Map<String, List<ProductEntity>> productsByBrand;
+    private final CatalogBitmaps bitmaps;
+    private final TextIndex textIndex;
+    private final SubstringIndex substringIndex;
+    private final SuggestTrie suggestTrie;
+    private final SortOrders sortOrders;
+    private final CatalogAggregates aggregates;
+    private volatile SpellingCorrector spellingCorrector;
+    private volatile CatalogFacets facets;
+
+    private CatalogSnapshot(long version, List<ProductEntity> products, Map<String, ProductEntity> productsById,
+                            long[] contentHashes, CatalogColumns columns, PriceIndex priceIndex,
+                            Map<String, List<ProductEntity>> productsByCategory,
+                            Map<String, List<ProductEntity>> productsByBrand, CatalogBitmaps bitmaps,
+                            TextIndex textIndex, SubstringIndex substringIndex, SuggestTrie suggestTrie) {
+        this.version = version;
+        this.products = products;
+        this.productsById = productsById;
+        this.contentHashes = contentHashes;
+        this.columns = columns;
+        this.priceIndex = priceIndex;
+        this.productsByCategory = productsByCategory;
+        this.productsByBrand = productsByBrand;
+        this.bitmaps = bitmaps;
+        this.textIndex = textIndex;
+        this.substringIndex = substringIndex;
+        this.suggestTrie = suggestTrie;
+        this.sortOrders = new SortOrders(products, columns, priceIndex);
+        this.aggregates = CatalogAggregates.of(products, priceIndex);
+    }
+
+    /**
+     * Builds a snapshot from a collection of products (last product wins on duplicate ids).
+     */
+    static CatalogSnapshot of(long version, Collection<ProductEntity> products) {
+        Builder builder = new Builder(version);
+        products.forEach(builder::add);
+        return builder.build();
+    }
+
+    long version() {
+        return version;
+    }
+
+    int size() {
+        return products.size();
+    }
+
+    /**
+     * Returns all products in ordinal order.
+     */
+    List<ProductEntity> products() {
+        return products;
+    }
+
+    ProductEntity get(String productId) {
+        return productsById.get(productId);
+    }
+
+    boolean contains(String productId) {
+        return productsById.containsKey(productId);
+    }
+
+    /**
+     * Returns the ordinal of a product, or -1 when it is not part of this snapshot.
+     */
+    int ordinalOf(String productId) {
+        int low = 0;
+        int high = products.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = products.get(mid).getId().compareTo(productId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the primitive filter columns, aligned by ordinal.
+     */
+    CatalogColumns columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the products of a category, in ordinal order (shared and unmodifiable).
+     */
+    List<ProductEntity> byCategory(String categoryId) {
+        return productsByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    /**
+     * Returns the products of a brand, compared ignoring case, in ordinal order (shared and unmodifiable).
+     */
+    List<ProductEntity> byBrand(String brand) {
+        return productsByBrand.getOrDefault(brandKey(brand), List.of());
+    }
+
+    /**
+     * Case-folded form of a brand, used as the brand index key.
+     */
+    static String brandKey(String brand) {
+        return brand.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the ordinals sorted by current price.
+     */
+    PriceIndex priceIndex() {
+        return priceIndex;
+    }
+
+    /**
+     * Returns the bitmap indexes of the boolean and categorical predicates.
+     */
+    CatalogBitmaps bitmaps() {
+        return bitmaps;
+    }
+
+    /**
+     * Returns the inverted index of the product texts.
+     */
+    TextIndex textIndex() {
+        return textIndex;
+    }
+
+    /**
+     * Returns the trigram index for substring searches, or null when it was not built.
+     */
+    SubstringIndex substringIndex() {
+        return substringIndex;
+    }
+
+    /**
+     * Returns the autocomplete trie over titles, brands and category names.
+     */
+    SuggestTrie suggestTrie() {
+        return suggestTrie;
+    }
+
+    /**
+     * Returns the permutations of the ordinals into the list sort orders.
+     */
+    SortOrders sortOrders() {
+        return sortOrders;
+    }
+
+    /**
+     * Returns the price and rating statistics of every grouping.
+     */
+    CatalogAggregates aggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Ordinals matching a search term and the corrected term they were found
+     * with, or null when the term as typed matched.
+     */
+    record Search(OrdinalBitmap matches, String correction) {
+    }
+
+    /**
+     * Returns the ordinals matching a search term: substring matches when the
+     * trigram index was built, whole-word matches otherwise. The term may be a
+     * boolean query (see {@link SearchQuery}). When nothing matches, a plain
+     * term is retried with its misspelled words corrected, so a substring
+     * search keeps the result set of a plain "contains" whenever it has one.
+     */
+    Search search(String searchTerm) {
+        OrdinalBitmap matches = exactSearch(searchTerm);
+        if (!matches.isEmpty()) {
+            return new Search(matches, null);
+        }
+        String corrected = correct(searchTerm);
+        OrdinalBitmap correctedMatches = corrected != null ? exactSearch(corrected) : matches;
+        return new Search(correctedMatches, correctedMatches.isEmpty() ? null : corrected);
+    }
+
+    /**
+     * Returns up to {@code limit} ordinals matching a search term, most relevant first.
+     */
+    int[] rankedSearch(String searchTerm, int limit) {
+        Search search = search(searchTerm);
+        return rank(search.matches(), searchTerm, search.correction(), limit);
+    }
+
+    /**
+     * Orders candidates by relevance to a search term (scored with its
+     * correction when it was found with one), keeping the best {@code limit}.
+     */
+    int[] rank(OrdinalBitmap candidates, String searchTerm, String correction, int limit) {
+        return textIndex.rank(candidates, rankingTerms(searchTerm, correction), limit);
+    }
+
+    /**
+     * Returns the normalized terms a search term is scored with: the words of a
+     * boolean query that are not negated, or the words of a plain term, taken
+     * from its correction when {@link #search} applied one (a substring match
+     * such as "a55" is scored with its own words).
+     */
+    List<String> rankingTerms(String searchTerm, String correction) {
+        if (SearchQuery.isBoolean(searchTerm)) {
+            List<String> terms = new ArrayList<>();
+            SearchQuery.parse(searchTerm).positiveTexts().forEach(text -> terms.addAll(TextNormalizer.tokenize(text)));
+            return terms;
+        }
+        return TextNormalizer.tokenize(correction != null ? correction : searchTerm);
+    }
+
+    /**
+     * Returns the spelling corrector over the text index vocabulary, built on first use.
+     */
+    SpellingCorrector spellingCorrector() {
+        SpellingCorrector corrector = spellingCorrector;
+        if (corrector == null) {
+            synchronized (this) {
+                corrector = spellingCorrector;
+                if (corrector == null) {
+                    corrector = SpellingCorrector.of(textIndex.vocabulary(),
+                            term -> textIndex.postings(term).cardinality());
+                    spellingCorrector = corrector;
+                }
+            }
+        }
+        return corrector;
+    }
+
+    /**
+     * Returns the facet values of the products, encoded on first use.
+     */
+    CatalogFacets facets() {
+        CatalogFacets current = facets;
+        if (current == null) {
+            synchronized (this) {
+                current = facets;
+                if (current == null) {
+                    current = CatalogFacets.of(products, columns, priceIndex, bitmaps);
+                    facets = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Evaluates boolean queries (operators, phrases, grouping) over the plain search of their words.
+     */
+    private OrdinalBitmap exactSearch(String searchTerm) {
+        if (SearchQuery.isBoolean(searchTerm)) {
+            return SearchQuery.parse(searchTerm).evaluate(new SearchQuery.Leaves() {
+                @Override
+                public OrdinalBitmap term(String word) {
+                    return plainSearch(word);
+                }
+
+                @Override
+                public OrdinalBitmap phrase(String phrase) {
+                    return substringIndex != null ? substringIndex.search(phrase) : textIndex.phrase(phrase);
+                }
+
+                @Override
+                public OrdinalBitmap all() {
+                    return OrdinalBitmap.range(products.size());
+                }
+            });
+        }
+        return plainSearch(searchTerm);
+    }
+
+    private OrdinalBitmap plainSearch(String searchTerm) {
+        return substringIndex != null ? substringIndex.search(searchTerm) : textIndex.search(searchTerm);
+    }
+
+    /**
+     * Replaces every unknown token of a plain query by its correction; null when
+     * none changed, one has no correction or the query is boolean.
+     */
+    private String correct(String searchTerm) {
+        if (SearchQuery.isBoolean(searchTerm)) {
+            return null;
+        }
+        List<String> tokens = TextNormalizer.tokenize(searchTerm);
+        boolean changed = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (textIndex.contains(token)) {
+                continue;
+            }
+            String correction = spellingCorrector().correct(token);
+            if (correction == null) {
+                return null;
+            }
+            tokens.set(i, correction);
+            changed = true;
+        }
+        return changed ? String.join(" ", tokens) : null;
+    }
+
+    /**
+     * Materializes the products of a bitmap, in ordinal order.
+     */
+    List<ProductEntity> productsAt(OrdinalBitmap ordinals) {
+        List<ProductEntity> selected = new ArrayList<>(ordinals.cardinality());
+        ordinals.forEach(ordinal -> selected.add(products.get(ordinal)));
+        return selected;
+    }
+
+    /**
+     * Returns the products at the given ordinals, in the same order.
+     */
+    List<ProductEntity> productsAt(int[] ordinals) {
+        List<ProductEntity> selected = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            selected.add(products.get(ordinal));
+        }
+        return selected;
+    }
+
+    /**
+     * Whether the snapshot was built with per-product content hashes.
+     */
+    boolean hasContentHashes() {
+        return contentHashes != null;
+    }
+
+    /**
+     * Returns the per-ordinal content hashes (shared, must not be modified), or null.
+     */
+    long[] contentHashes() {
+        return contentHashes;
+    }
+
+    /**
+     * Returns the content hash of the product at the given ordinal.
+     */
+    long contentHash(int ordinal) {
+        return contentHashes[ordinal];
+    }
+
+    /**
+     * Accumulates products off to the side until the snapshot is ready to be published.
+     */
+    static final class Builder {
+
+        /**
+         * When more than one product in this many changed, indexing from scratch is cheaper than patching.
+         */
+        private static final int MAX_PATCHED_SHARE = 4;
+
+        private final long version;
+        private final Map<String, ProductEntity> productsById = new HashMap<>();
+        private Map<String, Long> contentHashes;
+        private boolean substringIndex;
+        private CatalogSnapshot previous;
+
+        Builder(long version) {
+            this.version = version;
+        }
+
+        /**
+         * Also builds the trigram index, so searches keep the substring semantics.
+         */
+        Builder substringIndex(boolean enabled) {
+            this.substringIndex = enabled;
+            return this;
+        }
+
+        /**
+         * Derives the columns, bitmaps and text postings from a previous snapshot
+         * when the new one keeps all of its ids, so only the products that
+         * changed are indexed again.
+         */
+        Builder basedOn(CatalogSnapshot previous) {
+            this.previous = previous;
+            return this;
+        }
+
+        Builder add(ProductEntity product) {
+            productsById.put(product.getId(), product);
+            return this;
+        }
+
+        /**
+         * Adds a product together with the hash of its source content.
+         */
+        Builder add(ProductEntity product, long contentHash) {
+            if (contentHashes == null) {
+                contentHashes = new HashMap<>();
+            }
+            contentHashes.put(product.getId(), contentHash);
+            return add(product);
+        }
+
+        boolean contains(String productId) {
+            return productsById.containsKey(productId);
+        }
+
+        int size() {
+            return productsById.size();
+        }
+
+        CatalogSnapshot build() {
+            ProductEntity[] ordered = productsById.values().toArray(new ProductEntity[0]);
+            Arrays.sort(ordered, BY_ID);
+
+            long[] hashes = null;
+            if (contentHashes != null) {
+                hashes = new long[ordered.length];
+                for (int ordinal = 0; ordinal < ordered.length; ordinal++) {
+                    hashes[ordinal] = contentHashes.getOrDefault(ordered[ordinal].getId(), 0L);
+                }
+            }
+
+            int[] changed = changedOrdinals(ordered);
+            CatalogColumns columns;
+            CatalogBitmaps bitmaps;
+            TextIndex textIndex;
+            if (changed != null) {
+                ProductEntity[] before = previous.products.toArray(new ProductEntity[0]);
+                columns = previous.columns.update(ordered, changed);
+                bitmaps = previous.bitmaps.update(before, ordered, changed);
+                textIndex = previous.textIndex.update(before, ordered, changed);
+            } else {
+                columns = CatalogColumns.of(ordered);
+                bitmaps = CatalogBitmaps.of(ordered);
+                textIndex = TextIndex.of(ordered);
+            }
+
+            List<ProductEntity> products = Collections.unmodifiableList(Arrays.asList(ordered));
+            return new CatalogSnapshot(
+                    version,
+                    products,
+                    Collections.unmodifiableMap(productsById),
+                    hashes,
+                    columns,
+                    PriceIndex.of(columns),
+                    group(ordered, product -> product.getCategory() == null ? null : product.getCategory().id()),
+                    group(ordered, product -> product.getBrand() == null ? null : brandKey(product.getBrand())),
+                    bitmaps,
+                    textIndex,
+                    substringIndex ? SubstringIndex.of(products) : null,
+                    SuggestTrie.of(ordered)
+            );
+        }
+
+        /**
+         * Returns the (ascending) ordinals whose product instance differs from the
+         * previous snapshot, or null when it must be indexed from scratch: there
+         * is no previous snapshot, an id was added or removed (which shifts the
+         * ordinals), or so many products changed that patching costs more.
+         */
+        private int[] changedOrdinals(ProductEntity[] ordered) {
+            if (previous == null || ordered.length != previous.size()) {
+                return null;
+            }
+            int[] changed = new int[ordered.length];
+            int count = 0;
+            for (int ordinal = 0; ordinal < ordered.length; ordinal++) {
+                ProductEntity before = previous.products.get(ordinal);
+                if (!before.getId().equals(ordered[ordinal].getId())) {
+                    return null;
+                }
+                if (before != ordered[ordinal]) {
+                    changed[count++] = ordinal;
+                }
+            }
+            return count > ordered.length / MAX_PATCHED_SHARE ? null : Arrays.copyOf(changed, count);
+        }
+
+        /**
+         * Groups products by a key (products without one are left out), keeping ordinal order.
+         */
+        private static Map<String, List<ProductEntity>> group(ProductEntity[] ordered,
+                                                              Function<ProductEntity, String> key) {
+            Map<String, List<ProductEntity>> groups = new HashMap<>();
+            for (ProductEntity product : ordered) {
+                String value = key.apply(product);
+                if (value != null) {
+                    groups.computeIfAbsent(value, ignored -> new ArrayList<>()).add(product);
+                }
+            }
+            groups.replaceAll((value, products) -> Collections.unmodifiableList(products));
+            return Collections.unmodifiableMap(groups);
+        }
+    }
+}
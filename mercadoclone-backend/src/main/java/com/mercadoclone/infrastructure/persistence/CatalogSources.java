@@ -0,0 +1,102 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.exception.DataLoadException;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Helpers shared by the repositories that build their catalog from the JSON products file(s).
+ *
+ * @author MercadoClone Team
+ */
+final class CatalogSources {
+
+    private static final String[] SHARD_SUFFIXES = {".json", ".json.gz"};
+
+    private CatalogSources() {
+    }
+
+    /**
+     * Resolves the configured products path to the resources that must be read.
+     *
+     * The path may also be a directory, in which case every {@code *.json} /
+     * {@code *.json.gz} shard inside it is returned in name order.
+     */
+    static List<Resource> resolve(ResourceLoader resourceLoader, String productsFilePath) throws IOException {
+        Resource resource = resourceLoader.getResource(productsFilePath);
+        if (!resource.exists()) {
+            throw new DataLoadException("Products file not found: " + productsFilePath);
+        }
+
+        if (!resource.isFile() || !resource.getFile().isDirectory()) {
+            return List.of(resource);
+        }
+
+        try (Stream<Path> files = Files.list(resource.getFile().toPath())) {
+            List<Resource> shards = files
+                    .filter(Files::isRegularFile)
+                    .filter(CatalogSources::isShardFile)
+                    .sorted()
+                    .map(FileSystemResource::new)
+                    .collect(Collectors.toList());
+
+            if (shards.isEmpty()) {
+                throw new DataLoadException("No product shards found in: " + productsFilePath);
+            }
+            return shards;
+        }
+    }
+
+    /**
+     * Checks if a file name looks like a products shard ({@code *.json} or {@code *.json.gz}).
+     */
+    static boolean isShardFile(Path path) {
+        String fileName = path.getFileName().toString();
+        for (String suffix : SHARD_SUFFIXES) {
+            if (fileName.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Identifies the JSON input a binary catalog file was built from.
+     *
+     * Covers every source (name, size and modification time) plus the settings
+     * that change how products are processed while loading.
+     */
+    static long fingerprint(List<Resource> sources, String settings) throws IOException {
+        StringBuilder description = new StringBuilder(settings);
+        for (Resource source : sources) {
+            description.append('|').append(source.getDescription())
+                    .append(':').append(source.contentLength())
+                    .append(':').append(source.lastModified());
+        }
+        return JsonCatalogReader.contentHash(description.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Processes product image URLs, adding the base URL.
+     */
+    static void processProductImages(ProductEntity product, String imagesBaseUrl) {
+        if (product.getImages() != null) {
+            product.getImages().forEach(image -> {
+                if (image.getUrl() != null && !image.getUrl().startsWith("http")) {
+                    String fullUrl = imagesBaseUrl + "/" + image.getUrl();
+                    image.setUrl(fullUrl);
+                }
+            });
+        }
+    }
+}
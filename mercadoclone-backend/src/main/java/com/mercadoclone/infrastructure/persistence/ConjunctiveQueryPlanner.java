@@ -0,0 +1,286 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Executes a {@link ProductCriteria} against a snapshot, most selective criterion first.
+ *
+ * Every criterion gets a cardinality estimate from the snapshot statistics:
+ * exact bitmap cardinalities for category, brand, flags and the text search
+ * (posting list intersection), and a price index count for the price range.
+ * The cheapest criterion produces the candidate bitmap; the others only
+ * narrow it, either by AND with their bitmap or by checking each remaining
+ * candidate, and execution stops as soon as no candidate is left.
+ *
+ * @author MercadoClone Team
+ */
+final class ConjunctiveQueryPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConjunctiveQueryPlanner.class);
+
+    private ConjunctiveQueryPlanner() {
+    }
+
+    /**
+     * One criterion of the plan.
+     *
+     * @param field    criterion name, for logging
+     * @param estimate number of products matching this criterion alone
+     * @param bitmap   ordinals matching the criterion
+     * @param residual per-ordinal check, or null when the bitmap is precomputed and cheaper to AND
+     * @param counter  counts the ordinals matching the criterion that a predicate accepts, without building them
+     */
+    record Step(String field, int estimate, Supplier<OrdinalBitmap> bitmap, IntPredicate residual,
+                ToIntFunction<IntPredicate> counter) {
+
+        OrdinalBitmap narrow(OrdinalBitmap candidates) {
+            if (residual == null) {
+                return candidates.and(bitmap.get());
+            }
+            OrdinalBitmap.Builder narrowed = new OrdinalBitmap.Builder();
+            candidates.forEach(ordinal -> {
+                if (residual.test(ordinal)) {
+                    narrowed.add(ordinal);
+                }
+            });
+            return narrowed.build();
+        }
+
+        boolean test(int ordinal) {
+            return residual != null ? residual.test(ordinal) : bitmap.get().contains(ordinal);
+        }
+
+        @Override
+        public String toString() {
+            return field + "~" + estimate;
+        }
+    }
+
+    /**
+     * Returns the products matching every criterion, with the correction the
+     * search term was applied with: in the requested sort order, which walks
+     * the precomputed permutation keeping the matches; otherwise most relevant
+     * first when the criteria include a search term, in ordinal order when they do not.
+     */
+    static ProductList execute(CatalogSnapshot snapshot, ProductCriteria criteria) {
+        if (criteria.size() == 0) {
+            return new ProductList(criteria.hasSort()
+                    ? snapshot.productsAt(snapshot.sortOrders().order(criteria.sort()).select(null, 0, snapshot.size()))
+                    : snapshot.products());
+        }
+        CatalogSnapshot.Search search = search(snapshot, criteria);
+        String correction = search != null ? search.correction() : null;
+        OrdinalBitmap matches = select(snapshot, criteria, search);
+        if (criteria.hasSort()) {
+            return new ProductList(snapshot.productsAt(snapshot.sortOrders().order(criteria.sort())
+                    .select(matches, 0, snapshot.size())), correction);
+        }
+        if (search != null) {
+            return new ProductList(snapshot.productsAt(
+                    snapshot.rank(matches, criteria.searchTerm(), correction, matches.cardinality())), correction);
+        }
+        return new ProductList(snapshot.productsAt(matches));
+    }
+
+    /**
+     * Returns one page of the products matching every criterion, in the order of
+     * {@link #execute}, starting after the cursor position (from the start when null).
+     *
+     * Only the page is materialized: sorted results walk the sort permutation
+     * from the position after the cursor, id-ordered results read the next
+     * ordinals straight from the match bitmap, and ranked results keep the best
+     * {@code limit} candidates ranked after the cursor in a bounded heap.
+     * Only the first page reports the correction of the search term; later
+     * pages continue the search it already reported.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or does not belong to this snapshot and query
+     */
+    static ProductPage page(CatalogSnapshot snapshot, ProductCriteria criteria, int limit, String cursor) {
+        int queryHash = queryHash(criteria);
+        int afterOrdinal = -1;
+        float afterScore = Float.NaN;
+        if (cursor != null) {
+            PageCursor position = PageCursor.decode(cursor, snapshot.version(), queryHash);
+            afterOrdinal = snapshot.ordinalOf(position.productId());
+            afterScore = position.score();
+            if (afterOrdinal < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        CatalogSnapshot.Search search = search(snapshot, criteria);
+        String correction = search != null && cursor == null ? search.correction() : null;
+        int[] ordinals;
+        float[] scores = null;
+        if (criteria.hasSort()) {
+            SortOrders.Order order = snapshot.sortOrders().order(criteria.sort());
+            OrdinalBitmap matches = criteria.size() == 0 ? null : select(snapshot, criteria, search);
+            ordinals = order.select(matches, afterOrdinal < 0 ? 0 : order.positions()[afterOrdinal] + 1, limit + 1);
+        } else if (search != null) {
+            TextIndex.Ranking ranking = snapshot.textIndex().rank(select(snapshot, criteria, search),
+                    snapshot.rankingTerms(criteria.searchTerm(), search.correction()), limit + 1, afterScore,
+                    afterOrdinal);
+            ordinals = ranking.ordinals();
+            scores = ranking.scores();
+        } else if (criteria.size() == 0) {
+            int from = afterOrdinal + 1;
+            int to = (int) Math.min(snapshot.products().size(), (long) from + limit + 1);
+            ordinals = new int[Math.max(to - from, 0)];
+            Arrays.setAll(ordinals, i -> from + i);
+        } else {
+            ordinals = select(snapshot, criteria, search).select(afterOrdinal + 1, limit + 1);
+        }
+
+        if (ordinals.length <= limit) {
+            return new ProductPage(snapshot.productsAt(ordinals), null, correction);
+        }
+        int[] pageOrdinals = Arrays.copyOf(ordinals, limit);
+        int last = pageOrdinals[limit - 1];
+        PageCursor next = new PageCursor(snapshot.version(), queryHash,
+                scores != null ? scores[limit - 1] : Float.NaN, snapshot.products().get(last).getId());
+        return new ProductPage(snapshot.productsAt(pageOrdinals), next.encode(), correction);
+    }
+
+    /**
+     * Counts the products matching every criterion without building the result.
+     *
+     * The estimate of a single criterion is its exact cardinality, and two
+     * indexed criteria are counted by intersecting their bitmaps chunk by chunk.
+     * Otherwise the candidates of the most selective criterion are walked in
+     * place (its bitmap, or the price index slice of a price range), counting
+     * those every other criterion accepts, so no intermediate bitmap is built.
+     */
+    static int count(CatalogSnapshot snapshot, ProductCriteria criteria) {
+        List<Step> steps = plan(snapshot, criteria);
+        if (steps.isEmpty()) {
+            return snapshot.size();
+        }
+        if (steps.size() == 1) {
+            return steps.get(0).estimate();
+        }
+        logger.debug("Conjunctive count plan: {}", steps);
+
+        Step first = steps.get(0);
+        if (steps.size() == 2 && first.residual() == null && steps.get(1).residual() == null) {
+            return first.bitmap().get().andCardinality(steps.get(1).bitmap().get());
+        }
+        Step[] others = steps.subList(1, steps.size()).toArray(new Step[0]);
+        return first.counter().applyAsInt(ordinal -> {
+            for (int i = 0; i < others.length; i++) {
+                if (!others[i].test(ordinal)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Counts the facets of the products matching every criterion (the sort is
+     * ignored) from the match bitmap, without materializing the products.
+     */
+    static ProductFacets facets(CatalogSnapshot snapshot, ProductCriteria criteria) {
+        CatalogFacets facets = snapshot.facets();
+        return criteria.size() == 0 ? facets.all() : facets.count(select(snapshot, criteria));
+    }
+
+    /**
+     * Hash of the criteria that is stable across JVMs (enum hash codes are not), for cursors.
+     */
+    static int queryHash(ProductCriteria criteria) {
+        return Objects.hash(criteria.categoryId(), criteria.brand(), criteria.searchTerm(), criteria.available(),
+                criteria.discounted(), criteria.minPrice(), criteria.maxPrice(),
+                criteria.hasSort() ? criteria.sort().parameter() : null);
+    }
+
+    /**
+     * Returns the ordinals matching every criterion.
+     */
+    static OrdinalBitmap select(CatalogSnapshot snapshot, ProductCriteria criteria) {
+        return select(snapshot, criteria, search(snapshot, criteria));
+    }
+
+    private static OrdinalBitmap select(CatalogSnapshot snapshot, ProductCriteria criteria,
+                                        CatalogSnapshot.Search search) {
+        List<Step> steps = plan(snapshot, criteria, search);
+        if (steps.isEmpty()) {
+            return OrdinalBitmap.range(snapshot.products().size());
+        }
+        logger.debug("Conjunctive query plan: {}", steps);
+
+        OrdinalBitmap candidates = steps.get(0).bitmap().get();
+        for (int i = 1; i < steps.size() && !candidates.isEmpty(); i++) {
+            candidates = steps.get(i).narrow(candidates);
+        }
+        return candidates;
+    }
+
+    /**
+     * Orders the criteria by ascending estimated cardinality (ties keep the declaration order).
+     */
+    static List<Step> plan(CatalogSnapshot snapshot, ProductCriteria criteria) {
+        return plan(snapshot, criteria, search(snapshot, criteria));
+    }
+
+    private static List<Step> plan(CatalogSnapshot snapshot, ProductCriteria criteria, CatalogSnapshot.Search search) {
+        CatalogBitmaps bitmaps = snapshot.bitmaps();
+        List<Step> steps = new ArrayList<>();
+
+        if (criteria.hasCategory()) {
+            steps.add(indexed("category", bitmaps.category(criteria.categoryId())));
+        }
+        if (criteria.hasBrand()) {
+            steps.add(indexed("brand", bitmaps.brand(criteria.brand())));
+        }
+        if (criteria.available()) {
+            steps.add(indexed("available", bitmaps.flag(CatalogFlag.AVAILABLE)));
+        }
+        if (criteria.discounted()) {
+            steps.add(indexed("discounted", bitmaps.flag(CatalogFlag.DISCOUNTED)));
+        }
+        if (criteria.hasPriceRange()) {
+            double minPrice = criteria.minPrice();
+            double maxPrice = criteria.maxPrice();
+            CatalogColumns columns = snapshot.columns();
+            PriceIndex priceIndex = snapshot.priceIndex();
+            steps.add(new Step("price", priceIndex.count(minPrice, maxPrice),
+                    () -> OrdinalBitmap.of(priceIndex.range(minPrice, maxPrice)),
+                    ordinal -> {
+                        double price = columns.currentPrice(ordinal);
+                        return price >= minPrice && price <= maxPrice;
+                    },
+                    predicate -> priceIndex.count(minPrice, maxPrice, predicate)));
+        }
+        if (search != null) {
+            steps.add(indexed("search", search.matches()));
+        }
+
+        steps.sort(Comparator.comparingInt(Step::estimate));
+        return steps;
+    }
+
+    /**
+     * Runs the search term of the criteria once, or returns null when they have none.
+     */
+    private static CatalogSnapshot.Search search(CatalogSnapshot snapshot, ProductCriteria criteria) {
+        return criteria.hasSearchTerm() ? snapshot.search(criteria.searchTerm()) : null;
+    }
+
+    private static Step indexed(String field, OrdinalBitmap bitmap) {
+        return new Step(field, bitmap.cardinality(), () -> bitmap, null, bitmap::count);
+    }
+}
@@ -0,0 +1,208 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.exception.DataLoadException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the products catalog from a JSON array.
+ *
+ * Three modes are supported:
+ * - bulk: binds the whole array into a {@link List} before handing products over
+ * - streaming: walks the array token by token and binds one {@link ProductEntity}
+ *   at a time, so peak memory stays close to the size of the final cache
+ * - raw: copies each array element into its own buffer and hashes it without binding,
+ *   so callers can skip products whose content did not change
+ *
+ * Gzip compressed input (e.g. {@code products.json.gz}) is detected by its magic
+ * bytes and decompressed transparently in all modes.
+ *
+ * @author MercadoClone Team
+ */
+class JsonCatalogReader {
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ObjectMapper objectMapper;
+
+    JsonCatalogReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads every product from the stream and hands it to the sink.
+     *
+     * @param inputStream raw (optionally gzip compressed) JSON array
+     * @param streaming   whether to bind one product at a time
+     * @param sink        receives each product in file order
+     * @return the number of products read
+     */
+    int read(InputStream inputStream, boolean streaming, Consumer<ProductEntity> sink) throws IOException {
+        InputStream source = decompressIfNeeded(inputStream);
+        return streaming ? readStreaming(source, sink) : readBulk(source, sink);
+    }
+
+    /**
+     * Reads every product as raw JSON, without binding it to an entity.
+     *
+     * Each element is re-serialized compactly, so whitespace changes in the file
+     * do not change its content hash.
+     *
+     * @param inputStream raw (optionally gzip compressed) JSON array
+     * @param sink        receives the product id, the content hash and the JSON bytes
+     * @return the number of products read
+     */
+    int readRaw(InputStream inputStream, RawProductSink sink) throws IOException {
+        int count = 0;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+
+        try (JsonParser parser = objectMapper.createParser(decompressIfNeeded(inputStream))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new DataLoadException("Products file must contain a JSON array");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                buffer.reset();
+                String productId;
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer)) {
+                    productId = copyProduct(parser, generator);
+                }
+
+                if (productId == null) {
+                    throw new DataLoadException("Product without id found in products file");
+                }
+
+                byte[] content = buffer.toByteArray();
+                sink.accept(productId, contentHash(content), content);
+                count++;
+            }
+
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new DataLoadException("Unexpected token in products array: " + parser.currentToken());
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Binds raw product JSON produced by {@link #readRaw}.
+     */
+    ProductEntity bind(byte[] content) throws IOException {
+        return objectMapper.readValue(content, ProductEntity.class);
+    }
+
+    /**
+     * Copies the object under the parser to the generator, returning its top-level id.
+     */
+    private String copyProduct(JsonParser parser, JsonGenerator generator) throws IOException {
+        String productId = null;
+        boolean idValueNext = false;
+        int depth = 0;
+        JsonToken token = parser.currentToken();
+
+        while (true) {
+            if (token == null) {
+                throw new DataLoadException("Unexpected end of products file");
+            }
+            if (idValueNext && token.isScalarValue()) {
+                productId = parser.getValueAsString();
+            }
+            idValueNext = depth == 1 && token == JsonToken.FIELD_NAME && "id".equals(parser.currentName());
+
+            generator.copyCurrentEvent(parser);
+
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == 0) {
+                return productId;
+            }
+            token = parser.nextToken();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the product content.
+     */
+    static long contentHash(byte[] content) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : content) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private int readBulk(InputStream inputStream, Consumer<ProductEntity> sink) throws IOException {
+        List<ProductEntity> products = objectMapper.readValue(
+                inputStream,
+                new TypeReference<>() {
+                }
+        );
+
+        products.forEach(sink);
+        return products.size();
+    }
+
+    private int readStreaming(InputStream inputStream, Consumer<ProductEntity> sink) throws IOException {
+        int count = 0;
+
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new DataLoadException("Products file must contain a JSON array");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                sink.accept(parser.readValueAs(ProductEntity.class));
+                count++;
+            }
+
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new DataLoadException("Unexpected token in products array: " + parser.currentToken());
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Wraps the stream in a {@link GZIPInputStream} when it starts with the gzip magic number.
+     */
+    static InputStream decompressIfNeeded(InputStream inputStream) throws IOException {
+        InputStream source = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+
+        source.mark(2);
+        int first = source.read();
+        int second = source.read();
+        source.reset();
+
+        if (first == GZIP_MAGIC_FIRST && second == GZIP_MAGIC_SECOND) {
+            return new GZIPInputStream(source);
+        }
+        return source;
+    }
+
+    /**
+     * Receives products read in raw mode.
+     */
+    @FunctionalInterface
+    interface RawProductSink {
+        void accept(String productId, long contentHash, byte[] content) throws IOException;
+    }
+}
@@ -1,13 +1,21 @@
 package com.mercadoclone.infrastructure.persistence;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.domain.repository.ProductGrouping;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
 import com.mercadoclone.domain.repository.ProductRepository;
 import com.mercadoclone.exception.DataLoadException;
+import com.mercadoclone.infrastructure.persistence.binary.CatalogSnapshotFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Repository;
@@ -16,12 +24,11 @@ import org.springframework.util.StringUtils;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Collections;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Product repository implementation that loads data from a JSON file.
@@ -33,9 +40,13 @@ import java.util.stream.Collectors;
  * - ISP: Implements only the necessary interface
  * - DIP: Depends on abstractions (ProductRepository, ObjectMapper)
  *
+ * This is the default implementation ({@code app.data.repository=json}); see
+ * {@link MappedProductRepository} for catalogs that do not fit on heap.
+ *
  * @author MercadoClone Team
  */
 @Repository
+@ConditionalOnProperty(prefix = "app.data", name = "repository", havingValue = "json", matchIfMissing = true)
 public class JsonProductRepository implements ProductRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonProductRepository.class);
@@ -44,10 +55,28 @@ public class JsonProductRepository implements ProductRepository {
     private final ResourceLoader resourceLoader;
     private final String productsFilePath;
     private final String imagesBaseUrl;
+    private final JsonCatalogReader catalogReader;
+
+    @Value("${app.data.streaming-load:false}")
+    private boolean streamingLoad;
+
+    // Keeps per-product content hashes so file changes can be applied incrementally
+    @Value("${app.data.watch.enabled:false}")
+    private boolean trackContentHashes;
+
+    // Binary snapshot written after a JSON load and read back on the next boot
+    @Value("${app.data.snapshot-file:}")
+    private String binarySnapshotFile;
 
-    // In-memory cache for better performance
-    private final Map<String, ProductEntity> productsCache = new ConcurrentHashMap<>();
-    private volatile boolean dataLoaded = false;
+    // Trigram index keeping the substring semantics of the search (memory heavy)
+    @Value("${app.data.search.substring-index:false}")
+    private boolean substringSearch;
+
+    // Immutable in-memory catalog, swapped atomically on every (re)load
+    private volatile CatalogSnapshot snapshot;
+    private volatile CatalogInterner.MemoryReport memoryReport = CatalogInterner.MemoryReport.EMPTY;
+    private final AtomicLong snapshotVersions = new AtomicLong();
+    private final ReentrantLock loadLock = new ReentrantLock();
 
     public JsonProductRepository(
             ObjectMapper objectMapper,
@@ -58,181 +87,409 @@ public class JsonProductRepository implements ProductRepository {
         this.resourceLoader = resourceLoader;
         this.productsFilePath = productsFilePath;
         this.imagesBaseUrl = imagesBaseUrl;
+        this.catalogReader = new JsonCatalogReader(objectMapper);
     }
 
     /**
      * Loads data from JSON file after bean construction.
+     *
+     * The products file may also be a directory, in which case every
+     * {@code *.json} / {@code *.json.gz} shard inside it is loaded in name order.
+     *
+     * In streaming mode each product is bound, processed and cached as soon as it
+     * is read, instead of materializing the whole catalog as a list first.
+     *
+     * When {@code app.data.snapshot-file} is set, the catalog is read from that
+     * binary snapshot if it matches the current JSON input; otherwise JSON is
+     * parsed and the snapshot is (re)written for the next boot.
+     *
+     * Repeated values (categories, sellers, payment methods, common strings) are
+     * canonicalized while loading, see {@link CatalogInterner}.
+     *
+     * The new catalog is built off to the side and published in a single volatile
+     * write, so concurrent readers keep using the previous snapshot until then.
+     * If loading fails, the previous snapshot stays in place.
      */
     @PostConstruct
     public void loadData() {
+        loadLock.lock();
         try {
-            logger.info("Loading products data from: {}", productsFilePath);
+            logger.info("Loading products data from: {} (streaming: {})", productsFilePath, streamingLoad);
+
+            List<Resource> sources = resolveSources();
+            long version = snapshotVersions.incrementAndGet();
+            Path binarySnapshot = binarySnapshotPath();
+            long fingerprint = binarySnapshot == null ? 0 : sourceFingerprint(sources);
+
+            CatalogInterner interner = new CatalogInterner();
+            CatalogSnapshot loaded = binarySnapshot == null ? null
+                    : readBinarySnapshot(binarySnapshot, fingerprint, version, interner);
+            if (loaded == null) {
+                interner = new CatalogInterner();
+                loaded = readJsonSources(sources, version, interner);
+                if (binarySnapshot != null) {
+                    writeBinarySnapshot(binarySnapshot, fingerprint, loaded);
+                }
+            }
+
+            publish(loaded, interner.report());
+
+        } catch (IOException e) {
+            logger.error("Error loading products data", e);
+            throw new DataLoadException("Failed to load products data", e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
 
-            Resource resource = resourceLoader.getResource(productsFilePath);
-            if (!resource.exists()) {
-                throw new DataLoadException("Products file not found: " + productsFilePath);
+    /**
+     * Applies changes in the products file(s) to the live catalog.
+     *
+     * Every product is hashed without being bound; only products that are new or
+     * whose content hash changed are parsed again. Unchanged products keep their
+     * existing (already processed) entity instances. A new snapshot is published
+     * only when something was added, changed or removed.
+     *
+     * When no id was added or removed, the ordinals stay the same and the new
+     * snapshot patches the columns, bitmaps and text postings of the changed
+     * products only. Adding or removing a product shifts the ordinals, so the
+     * snapshot is then indexed from scratch; the price index, sort orders,
+     * suggestion and substring indexes and aggregates are always rebuilt.
+     *
+     * @return summary of the changes that were applied
+     */
+    public CatalogChanges refreshData() {
+        loadLock.lock();
+        try {
+            CatalogSnapshot previous = snapshot;
+            CatalogSnapshot.Builder builder = newSnapshotBuilder(snapshotVersions.get() + 1).basedOn(previous);
+            List<Resource> sources = resolveSources();
+            // Taken before reading, so a file changed meanwhile leaves a stale snapshot rather than a trusted one
+            Path binarySnapshot = binarySnapshotPath();
+            long fingerprint = binarySnapshot == null ? 0 : sourceFingerprint(sources);
+            int[] counters = new int[2]; // added, changed
+
+            // Changed products share the instances already held by the unchanged ones
+            CatalogInterner interner = new CatalogInterner();
+            if (previous != null) {
+                previous.products().forEach(interner::register);
             }
 
-            try (InputStream inputStream = resource.getInputStream()) {
-                List<ProductEntity> products = objectMapper.readValue(
-                        inputStream,
-                        new TypeReference<>() {
+            for (Resource source : sources) {
+                try (InputStream inputStream = source.getInputStream()) {
+                    catalogReader.readRaw(inputStream, (productId, contentHash, content) -> {
+                        int ordinal = previous == null ? -1 : previous.ordinalOf(productId);
+
+                        if (ordinal >= 0 && previous.hasContentHashes() && previous.contentHash(ordinal) == contentHash) {
+                            builder.add(previous.products().get(ordinal), contentHash);
+                            return;
                         }
-                );
 
-                // Process image URLs and add to cache
-                products.forEach(this::processProductImages);
-                products.forEach(product -> productsCache.put(product.getId(), product));
+                        ProductEntity product = catalogReader.bind(content);
+                        processProductImages(product);
+                        builder.add(interner.canonicalize(product), contentHash);
+                        counters[ordinal >= 0 ? 1 : 0]++;
+                    });
+                }
+            }
+
+            int removed = 0;
+            if (previous != null) {
+                for (ProductEntity product : previous.products()) {
+                    if (!builder.contains(product.getId())) {
+                        removed++;
+                    }
+                }
+            }
+
+            CatalogChanges changes = new CatalogChanges(counters[0], counters[1], removed,
+                    builder.size() - counters[0] - counters[1]);
+
+            if (previous == null || changes.hasChanges()) {
+                snapshotVersions.incrementAndGet();
+                CatalogSnapshot refreshed = builder.build();
+                publish(refreshed, interner.report());
 
-                dataLoaded = true;
-                logger.info("Successfully loaded {} products", products.size());
+                if (binarySnapshot != null) {
+                    writeBinarySnapshot(binarySnapshot, fingerprint, refreshed);
+                }
             }
 
+            logger.info("Catalog refresh applied: {}", changes);
+            return changes;
+
         } catch (IOException e) {
-            logger.error("Error loading products data", e);
-            throw new DataLoadException("Failed to load products data", e);
+            logger.error("Error refreshing products data", e);
+            throw new DataLoadException("Failed to refresh products data", e);
+        } finally {
+            loadLock.unlock();
         }
     }
 
     /**
-     * Processes product image URLs, adding the base URL.
+     * Parses the JSON sources into a new snapshot.
      */
-    private void processProductImages(ProductEntity product) {
-        if (product.getImages() != null) {
-            product.getImages().forEach(image -> {
-                if (image.getUrl() != null && !image.getUrl().startsWith("http")) {
-                    String fullUrl = imagesBaseUrl + "/" + image.getUrl();
-                    image.setUrl(fullUrl);
+    private CatalogSnapshot readJsonSources(List<Resource> sources, long version, CatalogInterner interner)
+            throws IOException {
+        CatalogSnapshot.Builder builder = newSnapshotBuilder(version);
+
+        for (Resource source : sources) {
+            try (InputStream inputStream = source.getInputStream()) {
+                if (trackContentHashes) {
+                    catalogReader.readRaw(inputStream, (productId, contentHash, content) -> {
+                        ProductEntity product = catalogReader.bind(content);
+                        processProductImages(product);
+                        builder.add(interner.canonicalize(product), contentHash);
+                    });
+                } else {
+                    // Process image URLs and add to the snapshot being built
+                    catalogReader.read(inputStream, streamingLoad, product -> {
+                        processProductImages(product);
+                        builder.add(interner.canonicalize(product));
+                    });
+                }
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Reads the binary snapshot, returning null when it is missing, stale or unreadable.
+     */
+    private CatalogSnapshot readBinarySnapshot(Path file, long fingerprint, long version, CatalogInterner interner) {
+        CatalogSnapshot.Builder builder = newSnapshotBuilder(version);
+        try {
+            boolean loaded = CatalogSnapshotFile.read(file, fingerprint, (product, contentHash) -> {
+                if (trackContentHashes) {
+                    builder.add(interner.canonicalize(product), contentHash);
+                } else {
+                    builder.add(interner.canonicalize(product));
                 }
             });
+
+            if (!loaded) {
+                logger.info("Binary catalog snapshot {} is missing or stale, falling back to JSON", file);
+                return null;
+            }
+
+            logger.info("Read catalog from binary snapshot {}", file);
+            return builder.build();
+
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable binary catalog snapshot {}", file, e);
+            return null;
         }
     }
 
+    /**
+     * Writes the binary snapshot; failures are logged since the JSON remains the source of truth.
+     */
+    private void writeBinarySnapshot(Path file, long fingerprint, CatalogSnapshot catalog) {
+        try {
+            CatalogSnapshotFile.write(file, fingerprint, catalog.products(), catalog.contentHashes());
+            logger.info("Wrote binary catalog snapshot {}", file);
+        } catch (IOException e) {
+            logger.warn("Failed to write binary catalog snapshot {}", file, e);
+        }
+    }
+
+    private Path binarySnapshotPath() {
+        return StringUtils.hasText(binarySnapshotFile) ? Path.of(binarySnapshotFile) : null;
+    }
+
+    private long sourceFingerprint(List<Resource> sources) throws IOException {
+        return CatalogSources.fingerprint(sources, imagesBaseUrl + "|" + trackContentHashes);
+    }
+
+    /**
+     * Resolves the configured products path to the resources that must be read.
+     */
+    private List<Resource> resolveSources() throws IOException {
+        return CatalogSources.resolve(resourceLoader, productsFilePath);
+    }
+
+    /**
+     * Atomically replaces the current catalog snapshot.
+     */
+    private void publish(CatalogSnapshot newSnapshot, CatalogInterner.MemoryReport report) {
+        snapshot = newSnapshot;
+        memoryReport = report;
+        logger.info("Successfully loaded {} products (catalog version {})", newSnapshot.size(), newSnapshot.version());
+        logger.info("Canonicalized {} strings, {} categories, {} sellers and {} payment methods (~{} KB saved)",
+                report.strings(), report.categories(), report.sellers(), report.paymentMethods(),
+                report.bytesSaved() / 1024);
+    }
+
+    private void processProductImages(ProductEntity product) {
+        CatalogSources.processProductImages(product, imagesBaseUrl);
+    }
+
     @Override
     public Optional<ProductEntity> findById(String productId) {
         validateProductId(productId);
-        ensureDataLoaded();
+        CatalogSnapshot current = currentSnapshot();
 
         logger.debug("Finding product by ID: {}", productId);
-        return Optional.ofNullable(productsCache.get(productId));
+        return Optional.ofNullable(current.get(productId));
     }
 
     @Override
     public List<ProductEntity> findAll() {
-        ensureDataLoaded();
+        CatalogSnapshot current = currentSnapshot();
 
         logger.debug("Finding all products");
-        return Collections.unmodifiableList(
-                productsCache.values().stream().collect(Collectors.toList())
-        );
+        return current.products();
     }
 
     @Override
     public List<ProductEntity> findByCategory(String categoryId) {
         validateNonBlankString(categoryId, "Category ID");
-        ensureDataLoaded();
+        CatalogSnapshot current = currentSnapshot();
 
         logger.debug("Finding products by category: {}", categoryId);
-        return productsCache.values().stream()
-                .filter(product -> product.getCategory() != null)
-                .filter(product -> categoryId.equals(product.getCategory().id()))
-                .collect(Collectors.toList());
+        return current.byCategory(categoryId);
     }
 
     @Override
     public List<ProductEntity> findByBrand(String brand) {
         validateNonBlankString(brand, "Brand");
-        ensureDataLoaded();
+        CatalogSnapshot current = currentSnapshot();
 
         logger.debug("Finding products by brand: {}", brand);
-        return productsCache.values().stream()
-                .filter(product -> brand.equalsIgnoreCase(product.getBrand()))
-                .collect(Collectors.toList());
+        return current.byBrand(brand);
     }
 
     @Override
     public List<ProductEntity> findBySearchTerm(String searchTerm) {
         validateNonBlankString(searchTerm, "Search term");
-        ensureDataLoaded();
+        CatalogSnapshot current = currentSnapshot();
 
         logger.debug("Finding products by search term: {}", searchTerm);
-        String lowerCaseSearchTerm = searchTerm.toLowerCase();
+        return current.productsAt(current.rankedSearch(searchTerm, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<ProductEntity> findTopBySearchTerm(String searchTerm, int limit) {
+        validateNonBlankString(searchTerm, "Search term");
+        CatalogSnapshot current = currentSnapshot();
 
-        return productsCache.values().stream()
-                .filter(product -> containsSearchTerm(product, lowerCaseSearchTerm))
-                .collect(Collectors.toList());
+        logger.debug("Finding top {} products by search term: {}", limit, searchTerm);
+        return current.productsAt(current.rankedSearch(searchTerm, limit));
     }
 
     @Override
     public List<ProductEntity> findAvailableProducts() {
-        ensureDataLoaded();
+        CatalogSnapshot current = currentSnapshot();
 
         logger.debug("Finding available products");
-        return productsCache.values().stream()
-                .filter(ProductEntity::isAvailable)
-                .collect(Collectors.toList());
+        return current.productsAt(current.bitmaps().flag(CatalogFlag.AVAILABLE));
     }
 
     @Override
     public boolean existsById(String productId) {
         validateProductId(productId);
-        ensureDataLoaded();
 
-        return productsCache.containsKey(productId);
+        return currentSnapshot().contains(productId);
     }
 
     @Override
     public long count() {
-        ensureDataLoaded();
-        return productsCache.size();
+        return currentSnapshot().size();
     }
 
     @Override
     public List<ProductEntity> findProductsWithDiscount() {
-        ensureDataLoaded();
+        CatalogSnapshot current = currentSnapshot();
 
         logger.debug("Finding products with discount");
 
-        return productsCache.values().stream()
-                .filter(ProductEntity::hasDiscount)
-                .collect(Collectors.toList());
+        return current.productsAt(current.bitmaps().flag(CatalogFlag.DISCOUNTED));
     }
 
     @Override
     public List<ProductEntity> findByPriceRange(Double minPrice, Double maxPrice) {
         validatePriceRange(minPrice, maxPrice);
-        ensureDataLoaded();
+        CatalogSnapshot current = currentSnapshot();
 
         logger.debug("Finding products by price range: {} - {}", minPrice, maxPrice);
-        return productsCache.values().stream()
-                .filter(product -> product.getPrice() != null)
-                .filter(product -> product.getPrice().getCurrent() != null)
-                .filter(product -> {
-                    Double currentPrice = product.getPrice().getCurrent();
-                    return currentPrice >= minPrice && currentPrice <= maxPrice;
-                })
-                .collect(Collectors.toList());
+        // Two binary searches over the price index; results come cheapest first
+        return current.productsAt(current.priceIndex().range(minPrice, maxPrice));
     }
 
-    /**
-     * Checks if a product contains the search term in title or description.
-     */
-    private boolean containsSearchTerm(ProductEntity product, String searchTerm) {
-        return (product.getTitle() != null &&
-                product.getTitle().toLowerCase().contains(searchTerm)) ||
-                (product.getDescription() != null &&
-                        product.getDescription().toLowerCase().contains(searchTerm)) ||
-                (product.getShortDescription() != null &&
-                        product.getShortDescription().toLowerCase().contains(searchTerm));
+    @Override
+    public ProductList findMatching(ProductCriteria criteria) {
+        if (criteria.hasPriceRange()) {
+            validatePriceRange(criteria.minPrice(), criteria.maxPrice());
+        }
+        CatalogSnapshot current = currentSnapshot();
+
+        logger.debug("Finding products matching: {}", criteria);
+        return ConjunctiveQueryPlanner.execute(current, criteria);
+    }
+
+    @Override
+    public ProductPage findPage(ProductCriteria criteria, int limit, String cursor) {
+        if (criteria.hasPriceRange()) {
+            validatePriceRange(criteria.minPrice(), criteria.maxPrice());
+        }
+        CatalogSnapshot current = currentSnapshot();
+
+        logger.debug("Finding page of {} products matching: {}", limit, criteria);
+        return ConjunctiveQueryPlanner.page(current, criteria, limit, cursor);
+    }
+
+    @Override
+    public long countMatching(ProductCriteria criteria) {
+        if (criteria.hasPriceRange()) {
+            validatePriceRange(criteria.minPrice(), criteria.maxPrice());
+        }
+        CatalogSnapshot current = currentSnapshot();
+
+        logger.debug("Counting products matching: {}", criteria);
+        return ConjunctiveQueryPlanner.count(current, criteria);
+    }
+
+    @Override
+    public ProductFacets findFacets(ProductCriteria criteria) {
+        if (criteria.hasPriceRange()) {
+            validatePriceRange(criteria.minPrice(), criteria.maxPrice());
+        }
+        CatalogSnapshot current = currentSnapshot();
+
+        logger.debug("Counting facets of products matching: {}", criteria);
+        return ConjunctiveQueryPlanner.facets(current, criteria);
+    }
+
+    @Override
+    public List<ProductGroupStats> aggregate(ProductGrouping grouping) {
+        logger.debug("Aggregating products by {}", grouping);
+        // Computed when the snapshot was built
+        return currentSnapshot().aggregates().of(grouping);
+    }
+
+    @Override
+    public List<SuggestionEntity> suggest(String prefix, int limit) {
+        validateNonBlankString(prefix, "Prefix");
+
+        return currentSnapshot().suggestTrie().suggest(prefix, limit);
+    }
+
+    private CatalogSnapshot.Builder newSnapshotBuilder(long version) {
+        return new CatalogSnapshot.Builder(version).substringIndex(substringSearch);
     }
 
     /**
-     * Validates if data has been loaded.
+     * Returns the published snapshot, validating that data has been loaded.
+     *
+     * Callers read the volatile reference once and work on that snapshot only.
      */
-    private void ensureDataLoaded() {
-        if (!dataLoaded) {
+    private CatalogSnapshot currentSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
             throw new DataLoadException("Product data not loaded");
         }
+        return current;
     }
 
     /**
@@ -268,11 +525,11 @@ public class JsonProductRepository implements ProductRepository {
 
     /**
      * Reloads data from file (useful for testing or manual updates).
+     *
+     * Requests served during the reload keep reading the previous snapshot.
      */
     public void reloadData() {
         logger.info("Reloading products data");
-        productsCache.clear();
-        dataLoaded = false;
         loadData();
     }
 
@@ -280,6 +537,27 @@ public class JsonProductRepository implements ProductRepository {
      * Returns the number of products in cache.
      */
     public int getCacheSize() {
-        return productsCache.size();
+        CatalogSnapshot current = snapshot;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * Returns how much heap the canonicalization of the last (re)load saved.
+     */
+    CatalogInterner.MemoryReport getMemoryReport() {
+        return memoryReport;
+    }
+
+    @Override
+    public long version() {
+        return getCatalogVersion();
+    }
+
+    /**
+     * Returns the version of the published catalog snapshot, or 0 before the first load.
+     */
+    public long getCatalogVersion() {
+        CatalogSnapshot current = snapshot;
+        return current == null ? 0 : current.version();
     }
 }
\ No newline at end of file
@@ -0,0 +1,543 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.domain.repository.ProductGrouping;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
+import com.mercadoclone.domain.repository.ProductRepository;
+import com.mercadoclone.exception.DataLoadException;
+import com.mercadoclone.infrastructure.persistence.binary.CatalogGenerations;
+import com.mercadoclone.infrastructure.persistence.binary.MappedCatalogFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Product repository that keeps the catalog in a memory-mapped record file.
+ *
+ * The JSON products file(s) are converted once into a {@link CatalogSnapshotFile}
+ * which is then mapped read-only. Only an id-sorted index of record locations
+ * and a bounded LRU cache of decoded products live on heap, so a node can serve
+ * catalogs several times larger than its heap at page-cache speed.
+ *
+ * {@code findById}, {@code existsById} and {@code count} use the index and decode
+ * at most one record; the other finders scan the file, decoding one record at a
+ * time and keeping only the matches; pages stop decoding once they are full.
+ * Queries that need the in-memory indexes (suggestions, sorted results,
+ * facets, aggregations) are
+ * rejected with {@link UnsupportedOperationException}.
+ *
+ * Several processes on a host can share one read-only catalog file through
+ * the page cache: see {@code app.data.mapped.shared.*} and {@link CatalogPublisher}.
+ *
+ * Enabled with {@code app.data.repository=mapped}.
+ *
+ * @author MercadoClone Team
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.data", name = "repository", havingValue = "mapped")
+public class MappedProductRepository implements ProductRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedProductRepository.class);
+
+    private final String productsFilePath;
+    private final CatalogPublisher publisher;
+
+    @Value("${app.data.mapped.file:${java.io.tmpdir}/mercadoclone/catalog.bin}")
+    private String catalogFile;
+
+    // Decoded products kept on heap for hot ids (0 disables the cache)
+    @Value("${app.data.mapped.cache-size:10000}")
+    private int cacheSize;
+
+    // Largest single mapping; bigger files are mapped in several segments
+    @Value("${app.data.mapped.segment-size:1073741824}")
+    private int segmentSize;
+
+    // Directory of catalog generations shared by several processes (empty = private file)
+    @Value("${app.data.mapped.shared.directory:}")
+    private String sharedDirectory;
+
+    // Whether this process builds and publishes generations, or only reads them
+    @Value("${app.data.mapped.shared.publish:false}")
+    private boolean publishShared;
+
+    @Value("${app.data.mapped.shared.poll-ms:1000}")
+    private long pollMillis;
+
+    // Mapped file and its cache, swapped atomically on every (re)load
+    private volatile MappedCatalog catalog;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private ScheduledExecutorService generationPoller;
+
+    public MappedProductRepository(
+            ObjectMapper objectMapper,
+            ResourceLoader resourceLoader,
+            @Value("${app.data.products-file:classpath:data/products.json}") String productsFilePath,
+            @Value("${app.images.base-url:http://localhost:3001/images/products}") String imagesBaseUrl) {
+        this.productsFilePath = productsFilePath;
+        this.publisher = new CatalogPublisher(objectMapper, resourceLoader, productsFilePath, imagesBaseUrl);
+    }
+
+    /**
+     * Builds (if needed) and maps the catalog file after bean construction.
+     *
+     * The file is rebuilt from JSON only when it is missing, unreadable or was
+     * built from a different JSON input; products are streamed into it one at a
+     * time, so the whole catalog is never held on heap.
+     *
+     * With {@code app.data.mapped.shared.directory} set, the file is instead the
+     * generation named by the directory's marker, optionally published by this
+     * process first, and the marker is polled so new generations are picked up
+     * without a restart.
+     */
+    @PostConstruct
+    public void loadData() {
+        loadLock.lock();
+        try {
+            if (StringUtils.hasText(sharedDirectory)) {
+                Path directory = Path.of(sharedDirectory);
+                logger.info("Loading shared catalog from: {} (publish: {})", directory, publishShared);
+
+                if (publishShared) {
+                    publisher.publish(directory);
+                }
+                String generation = CatalogGenerations.current(directory);
+                if (generation == null) {
+                    throw new DataLoadException("No catalog generation published in: " + directory);
+                }
+                map(directory.resolve(generation), generation);
+                startGenerationPoller();
+            } else {
+                logger.info("Loading products data from: {} (mapped file: {})", productsFilePath, catalogFile);
+
+                Path file = Path.of(catalogFile);
+                publisher.buildIfStale(file);
+                map(file, null);
+            }
+
+        } catch (IOException e) {
+            logger.error("Error loading products data", e);
+            throw new DataLoadException("Failed to load products data", e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Switches to the generation named by the shared directory's marker, if it changed.
+     *
+     * @return true when a new generation was mapped
+     */
+    public boolean refreshGeneration() {
+        if (!StringUtils.hasText(sharedDirectory)) {
+            return false;
+        }
+
+        loadLock.lock();
+        try {
+            Path directory = Path.of(sharedDirectory);
+            String generation = CatalogGenerations.current(directory);
+            MappedCatalog current = catalog;
+            if (generation == null || (current != null && generation.equals(current.generation()))) {
+                return false;
+            }
+
+            map(directory.resolve(generation), generation);
+            return true;
+
+        } catch (IOException e) {
+            logger.error("Error switching catalog generation", e);
+            throw new DataLoadException("Failed to switch catalog generation", e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Maps the file and publishes it, with an empty cache, in a single volatile write.
+     */
+    private void map(Path file, String generation) throws IOException {
+        MappedCatalogFile mapped = MappedCatalogFile.open(file, segmentSize);
+        MappedCatalog previous = catalog;
+        catalog = new MappedCatalog(mapped, new ProductCache(cacheSize), generation,
+                previous == null ? 1 : previous.version() + 1);
+        logger.info("Successfully mapped {} products from {} ({} segment(s))",
+                mapped.size(), file.getFileName(), mapped.segmentCount());
+    }
+
+    private void startGenerationPoller() {
+        if (generationPoller != null || pollMillis <= 0) {
+            return;
+        }
+
+        generationPoller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-generation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        generationPoller.scheduleWithFixedDelay(() -> {
+            try {
+                refreshGeneration();
+            } catch (RuntimeException e) {
+                logger.warn("Catalog generation poll failed", e);
+            }
+        }, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (generationPoller != null) {
+            generationPoller.shutdownNow();
+            generationPoller = null;
+        }
+    }
+
+    @Override
+    public Optional<ProductEntity> findById(String productId) {
+        validateNonBlankString(productId, "Product ID");
+        MappedCatalog current = currentCatalog();
+
+        logger.debug("Finding product by ID: {}", productId);
+        ProductEntity cached = current.cache().get(productId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        int ordinal = current.file().ordinalOf(productId);
+        if (ordinal < 0) {
+            return Optional.empty();
+        }
+        ProductEntity product = current.file().decode(ordinal);
+        current.cache().put(productId, product);
+        return Optional.of(product);
+    }
+
+    @Override
+    public List<ProductEntity> findAll() {
+        logger.debug("Finding all products");
+        return scan(product -> true);
+    }
+
+    @Override
+    public List<ProductEntity> findByCategory(String categoryId) {
+        validateNonBlankString(categoryId, "Category ID");
+
+        logger.debug("Finding products by category: {}", categoryId);
+        return scan(product -> product.getCategory() != null && categoryId.equals(product.getCategory().id()));
+    }
+
+    @Override
+    public List<ProductEntity> findByBrand(String brand) {
+        validateNonBlankString(brand, "Brand");
+
+        logger.debug("Finding products by brand: {}", brand);
+        return scan(product -> brand.equalsIgnoreCase(product.getBrand()));
+    }
+
+    @Override
+    public List<ProductEntity> findBySearchTerm(String searchTerm) {
+        validateNonBlankString(searchTerm, "Search term");
+
+        logger.debug("Finding products by search term: {}", searchTerm);
+        String lowerCaseSearchTerm = searchTerm.toLowerCase();
+        return scan(product -> containsSearchTerm(product, lowerCaseSearchTerm));
+    }
+
+    @Override
+    public List<ProductEntity> findAvailableProducts() {
+        logger.debug("Finding available products");
+        return scan(ProductEntity::isAvailable);
+    }
+
+    @Override
+    public boolean existsById(String productId) {
+        validateNonBlankString(productId, "Product ID");
+
+        return currentCatalog().file().ordinalOf(productId) >= 0;
+    }
+
+    @Override
+    public long count() {
+        return currentCatalog().file().size();
+    }
+
+    @Override
+    public List<ProductEntity> findProductsWithDiscount() {
+        logger.debug("Finding products with discount");
+        return scan(ProductEntity::hasDiscount);
+    }
+
+    @Override
+    public List<ProductEntity> findByPriceRange(Double minPrice, Double maxPrice) {
+        validatePriceRange(minPrice, maxPrice);
+
+        logger.debug("Finding products by price range: {} - {}", minPrice, maxPrice);
+        return scan(product -> product.getPrice() != null
+                && product.getPrice().getCurrent() != null
+                && product.getPrice().getCurrent() >= minPrice
+                && product.getPrice().getCurrent() <= maxPrice);
+    }
+
+    /**
+     * Scans the file in id order, keeping the products matching every criterion.
+     *
+     * Sorted results are not supported: ordering the matches would hold them all on heap.
+     * Search terms are matched as typed, without spelling correction.
+     */
+    @Override
+    public ProductList findMatching(ProductCriteria criteria) {
+        if (criteria.hasSort()) {
+            throw new UnsupportedOperationException("Sorted results are not supported by the mapped repository");
+        }
+        if (criteria.hasPriceRange()) {
+            validatePriceRange(criteria.minPrice(), criteria.maxPrice());
+        }
+
+        logger.debug("Finding products matching: {}", criteria);
+        return new ProductList(scan(criteria::matches));
+    }
+
+    /**
+     * Counts by scanning the file, decoding one record at a time without keeping any.
+     */
+    @Override
+    public long countMatching(ProductCriteria criteria) {
+        if (criteria.hasPriceRange()) {
+            validatePriceRange(criteria.minPrice(), criteria.maxPrice());
+        }
+        MappedCatalogFile file = currentCatalog().file();
+
+        logger.debug("Counting products matching: {}", criteria);
+        long count = 0;
+        for (int ordinal = 0; ordinal < file.size(); ordinal++) {
+            if (criteria.matches(file.decode(ordinal))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Pages through the file in id order, resuming right after the cursor's
+     * product and decoding records only until the page is full.
+     *
+     * Sorted pages are not supported: ordering the matches would decode them all.
+     */
+    @Override
+    public ProductPage findPage(ProductCriteria criteria, int limit, String cursor) {
+        if (criteria.hasSort()) {
+            throw new UnsupportedOperationException("Sorted pages are not supported by the mapped repository");
+        }
+        if (criteria.hasPriceRange()) {
+            validatePriceRange(criteria.minPrice(), criteria.maxPrice());
+        }
+        MappedCatalog current = currentCatalog();
+        MappedCatalogFile file = current.file();
+        int queryHash = ConjunctiveQueryPlanner.queryHash(criteria);
+
+        int from = 0;
+        if (cursor != null) {
+            PageCursor position = PageCursor.decode(cursor, current.version(), queryHash);
+            int afterOrdinal = file.ordinalOf(position.productId());
+            if (afterOrdinal < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            from = afterOrdinal + 1;
+        }
+
+        logger.debug("Finding page of {} products matching: {}", limit, criteria);
+        List<ProductEntity> page = new ArrayList<>();
+        for (int ordinal = from; ordinal < file.size(); ordinal++) {
+            ProductEntity product = file.decode(ordinal);
+            if (criteria.matches(product)) {
+                if (page.size() == limit) {
+                    PageCursor next = new PageCursor(current.version(), queryHash, Float.NaN,
+                            page.get(limit - 1).getId());
+                    return new ProductPage(page, next.encode());
+                }
+                page.add(product);
+            }
+        }
+        return new ProductPage(page, null);
+    }
+
+    /**
+     * Not supported: facet counts need the per-ordinal facet columns of an
+     * in-memory catalog; counting them here would decode every match.
+     */
+    @Override
+    public ProductFacets findFacets(ProductCriteria criteria) {
+        throw new UnsupportedOperationException("Facet counts are not supported by the mapped repository");
+    }
+
+    /**
+     * Not supported: the statistics are built with the in-memory catalog;
+     * computing them here would decode and sort the whole file on every call.
+     */
+    @Override
+    public List<ProductGroupStats> aggregate(ProductGrouping grouping) {
+        throw new UnsupportedOperationException("Aggregations are not supported by the mapped repository");
+    }
+
+    /**
+     * Not supported: suggestions need the prefix trie of an in-memory catalog,
+     * and scanning the mapped file on every keystroke would decode it whole.
+     */
+    @Override
+    public List<SuggestionEntity> suggest(String prefix, int limit) {
+        throw new UnsupportedOperationException("Suggestions are not supported by the mapped repository");
+    }
+
+    /**
+     * Decodes every product in id order and keeps those matching the filter.
+     *
+     * Scans bypass the cache, so a full scan neither evicts nor reorders the hot ids.
+     */
+    private List<ProductEntity> scan(Predicate<ProductEntity> filter) {
+        MappedCatalogFile file = currentCatalog().file();
+
+        List<ProductEntity> matches = new ArrayList<>();
+        for (int ordinal = 0; ordinal < file.size(); ordinal++) {
+            ProductEntity product = file.decode(ordinal);
+            if (filter.test(product)) {
+                matches.add(product);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks if a product contains the search term in title or description.
+     */
+    private boolean containsSearchTerm(ProductEntity product, String searchTerm) {
+        return (product.getTitle() != null &&
+                product.getTitle().toLowerCase().contains(searchTerm)) ||
+                (product.getDescription() != null &&
+                        product.getDescription().toLowerCase().contains(searchTerm)) ||
+                (product.getShortDescription() != null &&
+                        product.getShortDescription().toLowerCase().contains(searchTerm));
+    }
+
+    /**
+     * Returns the mapped catalog, validating that data has been loaded.
+     */
+    private MappedCatalog currentCatalog() {
+        MappedCatalog current = catalog;
+        if (current == null) {
+            throw new DataLoadException("Product data not loaded");
+        }
+        return current;
+    }
+
+    /**
+     * Validates if the string is not null or empty.
+     */
+    private void validateNonBlankString(String value, String fieldName) {
+        if (!StringUtils.hasText(value)) {
+            throw new IllegalArgumentException(fieldName + " cannot be null or blank");
+        }
+    }
+
+    /**
+     * Validates the price range.
+     */
+    private void validatePriceRange(Double minPrice, Double maxPrice) {
+        if (minPrice == null || maxPrice == null) {
+            throw new IllegalArgumentException("Price range values cannot be null");
+        }
+        if (minPrice < 0 || maxPrice < 0) {
+            throw new IllegalArgumentException("Price values cannot be negative");
+        }
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+        }
+    }
+
+    /**
+     * Rebuilds and remaps the catalog file.
+     *
+     * Requests served during the reload keep reading the previous mapping.
+     */
+    public void reloadData() {
+        logger.info("Reloading products data");
+        loadData();
+    }
+
+    /**
+     * Returns the number of times a catalog file was mapped, or 0 before the first one.
+     */
+    @Override
+    public long version() {
+        MappedCatalog current = catalog;
+        return current == null ? 0 : current.version();
+    }
+
+    /**
+     * Returns the number of decoded products currently cached on heap.
+     */
+    public int getCacheSize() {
+        MappedCatalog current = catalog;
+        return current == null ? 0 : current.cache().size();
+    }
+
+    private record MappedCatalog(MappedCatalogFile file, ProductCache cache, String generation, long version) {
+    }
+
+    /**
+     * Bounded, access-ordered cache of decoded products.
+     */
+    private static final class ProductCache {
+
+        private final int capacity;
+        private final Map<String, ProductEntity> entries;
+
+        ProductCache(int capacity) {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ProductEntity> eldest) {
+                    return size() > ProductCache.this.capacity;
+                }
+            };
+        }
+
+        synchronized ProductEntity get(String productId) {
+            return capacity > 0 ? entries.get(productId) : null;
+        }
+
+        synchronized void put(String productId, ProductEntity product) {
+            if (capacity > 0) {
+                entries.put(productId, product);
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
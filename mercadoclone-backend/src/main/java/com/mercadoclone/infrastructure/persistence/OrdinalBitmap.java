@@ -0,0 +1,592 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import java.util.Arrays;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable compressed set of product ordinals, in the style of Roaring bitmaps.
+ *
+ * Ordinals are split by their high 16 bits into chunks of 65536 values. Each
+ * chunk is stored as a sorted {@code char[]} while it holds up to 4096 values,
+ * and as a 1024-word bitmap above that, so sparse and dense sets both stay
+ * small and AND/OR/ANDNOT run chunk by chunk without decompressing.
+ *
+ * Instances never change once built; operations return new bitmaps that may
+ * share chunks with their inputs. Safe for concurrent use.
+ *
+ * @author MercadoClone Team
+ */
+final class OrdinalBitmap {
+
+    // Largest chunk stored as a sorted array; 4096 chars take as much room as a full bitmap
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1024;
+
+    static final OrdinalBitmap EMPTY = new OrdinalBitmap(new char[0], new Container[0]);
+
+    private final char[] keys;
+    private final Container[] containers;
+    private final int cardinality;
+
+    private OrdinalBitmap(char[] keys, Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+        int total = 0;
+        for (Container container : containers) {
+            total += container.cardinality();
+        }
+        this.cardinality = total;
+    }
+
+    /**
+     * Builds a bitmap from ordinals in any order (duplicates are ignored).
+     */
+    static OrdinalBitmap of(int... ordinals) {
+        int[] sorted = ordinals.clone();
+        Arrays.sort(sorted);
+        Builder builder = new Builder();
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                builder.add(sorted[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds the bitmap of every ordinal in {@code [0, size)}.
+     */
+    static OrdinalBitmap range(int size) {
+        Builder builder = new Builder();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            builder.add(ordinal);
+        }
+        return builder.build();
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    boolean contains(int ordinal) {
+        int index = Arrays.binarySearch(keys, (char) (ordinal >>> 16));
+        return index >= 0 && containers[index].contains((char) ordinal);
+    }
+
+    OrdinalBitmap and(OrdinalBitmap other) {
+        return merge(this, other, OrdinalBitmap::and, false, false);
+    }
+
+    OrdinalBitmap or(OrdinalBitmap other) {
+        return merge(this, other, OrdinalBitmap::or, true, true);
+    }
+
+    OrdinalBitmap andNot(OrdinalBitmap other) {
+        return merge(this, other, OrdinalBitmap::andNot, true, false);
+    }
+
+    /**
+     * Returns the cardinality of the intersection without building it.
+     */
+    int andCardinality(OrdinalBitmap other) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += andCardinality(containers[i++], other.containers[j++]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the ordinals accepted by a predicate, without allocating.
+     */
+    int count(IntPredicate predicate) {
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            count += containers[i].count(keys[i] << 16, predicate);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the ordinals in ascending order.
+     */
+    int[] toArray() {
+        int[] ordinals = new int[cardinality];
+        int offset = 0;
+        for (int i = 0; i < keys.length; i++) {
+            offset = containers[i].copyTo(keys[i] << 16, ordinals, offset);
+        }
+        return ordinals;
+    }
+
+    /**
+     * Returns up to {@code limit} ordinals greater than or equal to {@code from}, in ascending order,
+     * without visiting the chunks before it.
+     */
+    int[] select(int from, int limit) {
+        int[] ordinals = new int[Math.min(limit, cardinality)];
+        int start = Math.max(from, 0);
+        int index = Arrays.binarySearch(keys, (char) (start >>> 16));
+        int offset = 0;
+        for (int i = index >= 0 ? index : -index - 1; i < keys.length && offset < ordinals.length; i++) {
+            char low = keys[i] == start >>> 16 ? (char) start : 0;
+            offset = containers[i].copyFrom(keys[i] << 16, low, ordinals, offset);
+        }
+        return offset == ordinals.length ? ordinals : Arrays.copyOf(ordinals, offset);
+    }
+
+    /**
+     * Visits the ordinals in ascending order.
+     */
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Combines two bitmaps chunk by chunk; chunks present on one side only are kept as is when requested.
+     */
+    private static OrdinalBitmap merge(OrdinalBitmap left, OrdinalBitmap right, BinaryOperator<Container> operation,
+                                       boolean keepLeftOnly, boolean keepRightOnly) {
+        char[] keys = new char[left.keys.length + right.keys.length];
+        Container[] containers = new Container[keys.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.keys.length || j < right.keys.length) {
+            int comparison = i == left.keys.length ? 1
+                    : j == right.keys.length ? -1
+                    : Character.compare(left.keys[i], right.keys[j]);
+            char key;
+            Container container;
+            if (comparison < 0) {
+                key = left.keys[i];
+                container = keepLeftOnly ? left.containers[i] : null;
+                i++;
+            } else if (comparison > 0) {
+                key = right.keys[j];
+                container = keepRightOnly ? right.containers[j] : null;
+                j++;
+            } else {
+                key = left.keys[i];
+                container = operation.apply(left.containers[i++], right.containers[j++]);
+            }
+            if (container != null) {
+                keys[count] = key;
+                containers[count++] = container;
+            }
+        }
+        return count == 0 ? EMPTY : new OrdinalBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count));
+    }
+
+    private static Container and(Container left, Container right) {
+        if (left instanceof ArrayContainer leftArray) {
+            return right instanceof ArrayContainer rightArray
+                    ? intersect(leftArray.values, rightArray.values)
+                    : filter(leftArray.values, right, true);
+        }
+        if (right instanceof ArrayContainer rightArray) {
+            return filter(rightArray.values, left, true);
+        }
+        long[] words = ((BitmapContainer) left).words.clone();
+        long[] other = ((BitmapContainer) right).words;
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= other[i];
+        }
+        return fromWords(words);
+    }
+
+    private static int andCardinality(Container left, Container right) {
+        if (left instanceof BitmapContainer leftBitmap && right instanceof BitmapContainer rightBitmap) {
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                count += Long.bitCount(leftBitmap.words[i] & rightBitmap.words[i]);
+            }
+            return count;
+        }
+        ArrayContainer array = left instanceof ArrayContainer leftArray ? leftArray : (ArrayContainer) right;
+        Container other = array == left ? right : left;
+        int count = 0;
+        for (char value : array.values) {
+            if (other.contains(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Container or(Container left, Container right) {
+        if (left instanceof ArrayContainer leftArray && right instanceof ArrayContainer rightArray) {
+            return union(leftArray.values, rightArray.values);
+        }
+        long[] words = left.toWords();
+        if (right instanceof ArrayContainer rightArray) {
+            for (char value : rightArray.values) {
+                words[value >>> 6] |= 1L << value;
+            }
+        } else {
+            long[] other = ((BitmapContainer) right).words;
+            for (int i = 0; i < WORDS; i++) {
+                words[i] |= other[i];
+            }
+        }
+        return fromWords(words);
+    }
+
+    private static Container andNot(Container left, Container right) {
+        if (left instanceof ArrayContainer leftArray) {
+            return filter(leftArray.values, right, false);
+        }
+        long[] words = ((BitmapContainer) left).words.clone();
+        if (right instanceof ArrayContainer rightArray) {
+            for (char value : rightArray.values) {
+                words[value >>> 6] &= ~(1L << value);
+            }
+        } else {
+            long[] other = ((BitmapContainer) right).words;
+            for (int i = 0; i < WORDS; i++) {
+                words[i] &= ~other[i];
+            }
+        }
+        return fromWords(words);
+    }
+
+    private static Container intersect(char[] left, char[] right) {
+        char[] values = new char[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                values[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return fromValues(values, count);
+    }
+
+    private static Container union(char[] left, char[] right) {
+        char[] values = new char[left.length + right.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length || j < right.length) {
+            if (j == right.length || (i < left.length && left[i] < right[j])) {
+                values[count++] = left[i++];
+            } else if (i == left.length || right[j] < left[i]) {
+                values[count++] = right[j++];
+            } else {
+                values[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        if (count <= ARRAY_LIMIT) {
+            return fromValues(values, count);
+        }
+        return new BitmapContainer(new ArrayContainer(Arrays.copyOf(values, count)).toWords());
+    }
+
+    /**
+     * Keeps the values that are (or are not) in the other container.
+     */
+    private static Container filter(char[] values, Container other, boolean keepContained) {
+        char[] kept = new char[values.length];
+        int count = 0;
+        for (char value : values) {
+            if (other.contains(value) == keepContained) {
+                kept[count++] = value;
+            }
+        }
+        return fromValues(kept, count);
+    }
+
+    private static Container fromValues(char[] values, int count) {
+        if (count == 0) {
+            return null;
+        }
+        return new ArrayContainer(count == values.length ? values : Arrays.copyOf(values, count));
+    }
+
+    /**
+     * Wraps bitmap words, switching back to an array when the chunk became sparse.
+     */
+    private static Container fromWords(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        if (count == 0) {
+            return null;
+        }
+        if (count > ARRAY_LIMIT) {
+            return new BitmapContainer(words, count);
+        }
+        char[] values = new char[count];
+        int index = 0;
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                values[index++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values);
+    }
+
+    /**
+     * One chunk of 65536 ordinals sharing the same high 16 bits.
+     */
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract long[] toWords();
+
+        abstract int copyTo(int high, int[] target, int offset);
+
+        /**
+         * Copies the values from {@code low} on until the target is full.
+         */
+        abstract int copyFrom(int high, char low, int[] target, int offset);
+
+        abstract void forEach(int high, IntConsumer action);
+
+        abstract int count(int high, IntPredicate predicate);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            for (char value : values) {
+                words[value >>> 6] |= 1L << value;
+            }
+            return words;
+        }
+
+        @Override
+        int copyTo(int high, int[] target, int offset) {
+            for (char value : values) {
+                target[offset++] = high | value;
+            }
+            return offset;
+        }
+
+        @Override
+        int copyFrom(int high, char low, int[] target, int offset) {
+            int index = Arrays.binarySearch(values, low);
+            for (int i = index >= 0 ? index : -index - 1; i < values.length && offset < target.length; i++) {
+                target[offset++] = high | values[i];
+            }
+            return offset;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (char value : values) {
+                action.accept(high | value);
+            }
+        }
+
+        @Override
+        int count(int high, IntPredicate predicate) {
+            int count = 0;
+            for (char value : values) {
+                if (predicate.test(high | value)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words) {
+            this(words, Arrays.stream(words).mapToInt(Long::bitCount).sum());
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        int copyTo(int high, int[] target, int offset) {
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    target[offset++] = high | (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+        @Override
+        int copyFrom(int high, char low, int[] target, int offset) {
+            for (int i = low >>> 6; i < WORDS && offset < target.length; i++) {
+                long word = i == low >>> 6 ? words[i] & (-1L << low) : words[i];
+                while (word != 0 && offset < target.length) {
+                    target[offset++] = high | (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(high | (i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        int count(int high, IntPredicate predicate) {
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    if (predicate.test(high | (i << 6) + Long.numberOfTrailingZeros(word))) {
+                        count++;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Accumulates ordinals added in strictly ascending order.
+     *
+     * Starts small and grows on demand, since most bitmaps of a text index
+     * (one per token) only ever hold a handful of ordinals.
+     */
+    static final class Builder {
+
+        private char[] keys = new char[1];
+        private Container[] containers = new Container[1];
+        private int containerCount;
+        private char[] values = new char[4];
+        private int valueCount;
+        private long[] words;
+        private int currentKey = -1;
+        private int last = -1;
+
+        Builder add(int ordinal) {
+            if (ordinal <= last) {
+                throw new IllegalArgumentException("Ordinals must be added in ascending order: " + ordinal);
+            }
+            last = ordinal;
+
+            int key = ordinal >>> 16;
+            if (key != currentKey) {
+                flush();
+                currentKey = key;
+            }
+
+            char value = (char) ordinal;
+            if (words != null) {
+                words[value >>> 6] |= 1L << value;
+            } else if (valueCount < ARRAY_LIMIT) {
+                if (valueCount == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, values.length * 2));
+                }
+                values[valueCount++] = value;
+            } else {
+                words = new ArrayContainer(values).toWords();
+                words[value >>> 6] |= 1L << value;
+            }
+            return this;
+        }
+
+        OrdinalBitmap build() {
+            flush();
+            if (containerCount == 0) {
+                return EMPTY;
+            }
+            return new OrdinalBitmap(Arrays.copyOf(keys, containerCount), Arrays.copyOf(containers, containerCount));
+        }
+
+        private void flush() {
+            if (currentKey < 0) {
+                return;
+            }
+            if (containerCount == keys.length) {
+                keys = Arrays.copyOf(keys, containerCount * 2);
+                containers = Arrays.copyOf(containers, containerCount * 2);
+            }
+            keys[containerCount] = (char) currentKey;
+            containers[containerCount++] = words != null
+                    ? new BitmapContainer(words)
+                    : new ArrayContainer(Arrays.copyOf(values, valueCount));
+            valueCount = 0;
+            words = null;
+            currentKey = -1;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last product of a page, encoded as an opaque token.
+ *
+ * A cursor only makes sense for the snapshot and the query it was produced
+ * for: ordinals and relevance scores change when the catalog is reloaded, so
+ * the cursor records the snapshot version and a hash of the query, and is
+ * rejected when either differs. The position itself is the sort key (the
+ * relevance score, NaN for id order) and the product id.
+ *
+ * @author MercadoClone Team
+ */
+record PageCursor(long version, int queryHash, float score, String productId) {
+
+    /**
+     * Encodes the cursor as URL-safe Base64.
+     */
+    String encode() {
+        String raw = version + ":" + queryHash + ":" + Float.floatToIntBits(score) + ":" + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor and checks that it belongs to the given snapshot version and query.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed, stale or from another query
+     */
+    static PageCursor decode(String token, long version, int queryHash) {
+        PageCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            cursor = new PageCursor(Long.parseLong(parts[0]), Integer.parseInt(parts[1]),
+                    Float.intBitsToFloat(Integer.parseInt(parts[2])), parts[3]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (cursor.version() != version) {
+            throw new IllegalArgumentException("Cursor refers to an outdated catalog; restart from the first page");
+        }
+        if (cursor.queryHash() != queryHash) {
+            throw new IllegalArgumentException("Cursor does not belong to this query");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,145 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Product ordinals sorted by current price, for range queries in O(log n + k).
+ *
+ * Two parallel primitive arrays: the sorted prices and the ordinal each one
+ * belongs to. A range is located with two binary searches and copied out as
+ * one contiguous slice, so results come in ascending price order (ties in
+ * ordinal order). Products without a price are not indexed.
+ *
+ * Built once per snapshot and never modified afterwards.
+ *
+ * @author MercadoClone Team
+ */
+final class PriceIndex {
+
+    private final double[] prices;
+    private final int[] ordinals;
+
+    private PriceIndex(double[] prices, int[] ordinals) {
+        this.prices = prices;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * Sorts the ordinals of the priced products by their current price.
+     */
+    static PriceIndex of(CatalogColumns columns) {
+        int[] ordinals = new int[columns.size()];
+        int count = 0;
+        for (int ordinal = 0; ordinal < columns.size(); ordinal++) {
+            if (!Double.isNaN(columns.currentPrice(ordinal))) {
+                ordinals[count++] = ordinal;
+            }
+        }
+        ordinals = Arrays.copyOf(ordinals, count);
+
+        // Stable merge sort on primitives, so equal prices keep their ordinal order
+        int[] scratch = new int[count];
+        for (int width = 1; width < count; width <<= 1) {
+            for (int from = 0; from < count - width; from += width << 1) {
+                merge(columns, ordinals, scratch, from, from + width, Math.min(from + (width << 1), count));
+            }
+        }
+
+        double[] prices = new double[count];
+        for (int i = 0; i < count; i++) {
+            prices[i] = columns.currentPrice(ordinals[i]);
+        }
+        return new PriceIndex(prices, ordinals);
+    }
+
+    int size() {
+        return ordinals.length;
+    }
+
+    /**
+     * Returns the ordinals of the indexed prices, cheapest first (shared, must not be modified).
+     */
+    int[] ordinals() {
+        return ordinals;
+    }
+
+    /**
+     * Returns the indexed prices in ascending order (shared, must not be modified).
+     */
+    double[] prices() {
+        return prices;
+    }
+
+    /**
+     * Returns the ordinals priced within {@code [minPrice, maxPrice]}, cheapest first.
+     */
+    int[] range(double minPrice, double maxPrice) {
+        int from = firstAtLeast(minPrice);
+        int to = firstAbove(maxPrice);
+        return from < to ? Arrays.copyOfRange(ordinals, from, to) : new int[0];
+    }
+
+    /**
+     * Returns the number of products priced within {@code [minPrice, maxPrice]}.
+     */
+    int count(double minPrice, double maxPrice) {
+        return Math.max(0, firstAbove(maxPrice) - firstAtLeast(minPrice));
+    }
+
+    /**
+     * Counts the ordinals priced within {@code [minPrice, maxPrice]} that the predicate
+     * accepts, walking the slice in place instead of copying it.
+     */
+    int count(double minPrice, double maxPrice, IntPredicate predicate) {
+        int count = 0;
+        for (int i = firstAtLeast(minPrice), to = firstAbove(maxPrice); i < to; i++) {
+            if (predicate.test(ordinals[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int firstAtLeast(double price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] < price) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstAbove(double price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] <= price) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void merge(CatalogColumns columns, int[] ordinals, int[] scratch, int from, int middle, int to) {
+        System.arraycopy(ordinals, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle
+                    && columns.currentPrice(scratch[left]) <= columns.currentPrice(scratch[right]))) {
+                ordinals[i] = scratch[left++];
+            } else {
+                ordinals[i] = scratch[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Parsed boolean search query, such as {@code "s pen" AND samsung NOT usado}.
+ *
+ * Grammar, loosest binding first:
+ * <pre>
+ * query   := and (OR and)*
+ * and     := unary ([AND] unary)*      adjacent clauses are ANDed
+ * unary   := NOT unary | primary
+ * primary := ( query ) | "phrase" | word
+ * </pre>
+ * Operators must be written in upper case, so the words "and", "or" and
+ * "not" are still searchable. A query without operators, quotes or
+ * parentheses, or with an unpaired quote or unbalanced parentheses, is a
+ * plain query and keeps the plain search semantics.
+ *
+ * Queries are evaluated bottom up on bitmaps: AND intersects its positive
+ * clauses, smallest first, and then subtracts its negated ones, so
+ * {@code samsung NOT usado} never materializes "everything but usado".
+ *
+ * @author MercadoClone Team
+ */
+sealed interface SearchQuery permits SearchQuery.Term, SearchQuery.Phrase, SearchQuery.And, SearchQuery.Or,
+        SearchQuery.Not {
+
+    /**
+     * Resolves the leaves of a query against an index.
+     */
+    interface Leaves {
+
+        OrdinalBitmap term(String word);
+
+        OrdinalBitmap phrase(String phrase);
+
+        OrdinalBitmap all();
+    }
+
+    record Term(String word) implements SearchQuery {
+        @Override
+        public OrdinalBitmap evaluate(Leaves leaves) {
+            return leaves.term(word);
+        }
+    }
+
+    record Phrase(String text) implements SearchQuery {
+        @Override
+        public OrdinalBitmap evaluate(Leaves leaves) {
+            return leaves.phrase(text);
+        }
+    }
+
+    record And(List<SearchQuery> clauses) implements SearchQuery {
+        @Override
+        public OrdinalBitmap evaluate(Leaves leaves) {
+            List<OrdinalBitmap> positives = clauses.stream()
+                    .filter(clause -> !(clause instanceof Not))
+                    .map(clause -> clause.evaluate(leaves))
+                    .sorted(Comparator.comparingInt(OrdinalBitmap::cardinality))
+                    .toList();
+
+            OrdinalBitmap result = positives.isEmpty() ? leaves.all() : positives.get(0);
+            for (int i = 1; i < positives.size() && !result.isEmpty(); i++) {
+                result = result.and(positives.get(i));
+            }
+            for (SearchQuery clause : clauses) {
+                if (clause instanceof Not not && !result.isEmpty()) {
+                    result = result.andNot(not.clause().evaluate(leaves));
+                }
+            }
+            return result;
+        }
+    }
+
+    record Or(List<SearchQuery> clauses) implements SearchQuery {
+        @Override
+        public OrdinalBitmap evaluate(Leaves leaves) {
+            OrdinalBitmap result = OrdinalBitmap.EMPTY;
+            for (SearchQuery clause : clauses) {
+                result = result.or(clause.evaluate(leaves));
+            }
+            return result;
+        }
+    }
+
+    record Not(SearchQuery clause) implements SearchQuery {
+        @Override
+        public OrdinalBitmap evaluate(Leaves leaves) {
+            return leaves.all().andNot(clause.evaluate(leaves));
+        }
+    }
+
+    OrdinalBitmap evaluate(Leaves leaves);
+
+    /**
+     * Returns the texts of the words and phrases that are not negated, for relevance ranking.
+     */
+    default List<String> positiveTexts() {
+        List<String> texts = new ArrayList<>();
+        collectPositiveTexts(this, texts);
+        return texts;
+    }
+
+    private static void collectPositiveTexts(SearchQuery query, List<String> texts) {
+        if (query instanceof Term term) {
+            texts.add(term.word());
+        } else if (query instanceof Phrase phrase) {
+            texts.add(phrase.text());
+        } else if (query instanceof And and) {
+            and.clauses().forEach(clause -> collectPositiveTexts(clause, texts));
+        } else if (query instanceof Or or) {
+            or.clauses().forEach(clause -> collectPositiveTexts(clause, texts));
+        }
+    }
+
+    /**
+     * Whether the query uses operators, quotes or parentheses. A query whose
+     * quotes are unpaired or whose parentheses are unbalanced, such as
+     * {@code monitor 27"} or {@code cabo usb (2m}, is not boolean: the stray
+     * character is punctuation and the plain search simply ignores it.
+     */
+    static boolean isBoolean(String query) {
+        return balanced(query) && (hasOperator(query)
+                || query.indexOf('"') >= 0 || query.indexOf('(') >= 0 || query.indexOf(')') >= 0);
+    }
+
+    private static boolean hasOperator(String query) {
+        for (String word : query.trim().split("\\s+")) {
+            if (word.equals("AND") || word.equals("OR") || word.equals("NOT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean balanced(String query) {
+        boolean quoted = false;
+        int depth = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')' && --depth < 0) {
+                return false;
+            }
+        }
+        return !quoted && depth == 0;
+    }
+
+    /**
+     * Parses a query.
+     *
+     * @throws IllegalArgumentException if the query is empty or malformed
+     */
+    static SearchQuery parse(String query) {
+        return new Parser(query).parse();
+    }
+
+    /**
+     * Recursive descent parser over the raw query text.
+     */
+    final class Parser {
+
+        private enum Kind { WORD, PHRASE, AND, OR, NOT, OPEN, CLOSE, END }
+
+        private record Token(Kind kind, String text) {
+        }
+
+        private final String query;
+        private final List<Token> tokens = new ArrayList<>();
+        private int next;
+
+        private Parser(String query) {
+            this.query = query;
+        }
+
+        private SearchQuery parse() {
+            lex();
+            SearchQuery result = or();
+            if (peek() != Kind.END) {
+                throw invalid("unexpected " + tokens.get(next).text());
+            }
+            return result;
+        }
+
+        private SearchQuery or() {
+            List<SearchQuery> clauses = new ArrayList<>();
+            clauses.add(and());
+            while (peek() == Kind.OR) {
+                next++;
+                clauses.add(and());
+            }
+            return clauses.size() == 1 ? clauses.get(0) : new Or(List.copyOf(clauses));
+        }
+
+        private SearchQuery and() {
+            List<SearchQuery> clauses = new ArrayList<>();
+            clauses.add(unary());
+            while (peek() != Kind.OR && peek() != Kind.CLOSE && peek() != Kind.END) {
+                if (peek() == Kind.AND) {
+                    next++;
+                }
+                clauses.add(unary());
+            }
+            return clauses.size() == 1 ? clauses.get(0) : new And(List.copyOf(clauses));
+        }
+
+        private SearchQuery unary() {
+            if (peek() == Kind.NOT) {
+                next++;
+                return new Not(unary());
+            }
+            return primary();
+        }
+
+        private SearchQuery primary() {
+            Token token = tokens.get(next++);
+            switch (token.kind()) {
+                case WORD:
+                    return new Term(token.text());
+                case PHRASE:
+                    return new Phrase(token.text());
+                case OPEN:
+                    SearchQuery inner = or();
+                    if (peek() != Kind.CLOSE) {
+                        throw invalid("missing closing parenthesis");
+                    }
+                    next++;
+                    return inner;
+                default:
+                    throw invalid(token.kind() == Kind.END ? "unexpected end" : "unexpected " + token.text());
+            }
+        }
+
+        private Kind peek() {
+            return tokens.get(next).kind();
+        }
+
+        private void lex() {
+            int i = 0;
+            while (i < query.length()) {
+                char c = query.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')') {
+                    tokens.add(new Token(c == '(' ? Kind.OPEN : Kind.CLOSE, String.valueOf(c)));
+                    i++;
+                } else if (c == '"') {
+                    int end = query.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw invalid("missing closing quote");
+                    }
+                    tokens.add(new Token(Kind.PHRASE, query.substring(i + 1, end)));
+                    i = end + 1;
+                } else {
+                    int end = i;
+                    while (end < query.length() && !Character.isWhitespace(query.charAt(end))
+                            && "()\"".indexOf(query.charAt(end)) < 0) {
+                        end++;
+                    }
+                    String word = query.substring(i, end);
+                    tokens.add(switch (word) {
+                        case "AND" -> new Token(Kind.AND, word);
+                        case "OR" -> new Token(Kind.OR, word);
+                        case "NOT" -> new Token(Kind.NOT, word);
+                        default -> new Token(Kind.WORD, word);
+                    });
+                    i = end;
+                }
+            }
+            tokens.add(new Token(Kind.END, ""));
+        }
+
+        private IllegalArgumentException invalid(String reason) {
+            return new IllegalArgumentException("Invalid search query '" + query + "': " + reason);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.repository.ProductSort;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Product ordinals permuted into every {@link ProductSort} order.
+ *
+ * Each order is a permutation of the ordinals plus its inverse (the position
+ * of every ordinal), computed for every order while the snapshot is built, so
+ * not even the first sorted request of a snapshot sorts. A sorted result is
+ * produced by walking the permutation and keeping the ordinals of the match
+ * bitmap, so requests never compare products; a page resumes from the
+ * position of the last product it returned.
+ *
+ * Titles are ordered by their pt-BR collation keys, built once per permutation
+ * instead of collating the titles at every comparison.
+ *
+ * @author MercadoClone Team
+ */
+final class SortOrders {
+
+    private final List<ProductEntity> products;
+    private final CatalogColumns columns;
+    private final PriceIndex priceIndex;
+    private final Order[] orders = new Order[ProductSort.values().length];
+
+    SortOrders(List<ProductEntity> products, CatalogColumns columns, PriceIndex priceIndex) {
+        this.products = products;
+        this.columns = columns;
+        this.priceIndex = priceIndex;
+        for (ProductSort sort : ProductSort.values()) {
+            orders[sort.ordinal()] = Order.of(permutation(sort));
+        }
+    }
+
+    /**
+     * One sort order of the snapshot.
+     *
+     * @param ordinals  the ordinals in sort order
+     * @param positions the position of each ordinal in {@code ordinals}
+     */
+    record Order(int[] ordinals, int[] positions) {
+
+        static Order of(int[] ordinals) {
+            int[] positions = new int[ordinals.length];
+            for (int position = 0; position < ordinals.length; position++) {
+                positions[ordinals[position]] = position;
+            }
+            return new Order(ordinals, positions);
+        }
+
+        /**
+         * Returns up to {@code limit} ordinals of the matches (every ordinal when null),
+         * in sort order, starting at a position.
+         */
+        int[] select(OrdinalBitmap matches, int fromPosition, int limit) {
+            int available = matches == null ? ordinals.length : matches.cardinality();
+            int[] selected = new int[Math.max(0, Math.min(limit, available))];
+            int count = 0;
+            for (int position = Math.max(fromPosition, 0); position < ordinals.length && count < selected.length;
+                 position++) {
+                int ordinal = ordinals[position];
+                if (matches == null || matches.contains(ordinal)) {
+                    selected[count++] = ordinal;
+                }
+            }
+            return count == selected.length ? selected : Arrays.copyOf(selected, count);
+        }
+    }
+
+    Order order(ProductSort sort) {
+        return orders[sort.ordinal()];
+    }
+
+    private int[] permutation(ProductSort sort) {
+        return switch (sort) {
+            case PRICE_ASC -> priceAscending();
+            case PRICE_DESC -> sorted((a, b) -> Double.compare(columns.currentPrice(b), columns.currentPrice(a)),
+                    ordinal -> Double.isNaN(columns.currentPrice(ordinal)));
+            case RATING -> sorted((a, b) -> Float.compare(columns.ratingAverage(b), columns.ratingAverage(a)),
+                    ordinal -> Float.isNaN(columns.ratingAverage(ordinal)));
+            case NEWEST -> newest();
+            case TITLE -> byTitle();
+        };
+    }
+
+    /**
+     * The price index already holds the priced ordinals cheapest first; unpriced ones follow.
+     */
+    private int[] priceAscending() {
+        int[] priced = priceIndex.range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        int[] ordinals = Arrays.copyOf(priced, products.size());
+        int count = priced.length;
+        for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+            if (Double.isNaN(columns.currentPrice(ordinal))) {
+                ordinals[count++] = ordinal;
+            }
+        }
+        return ordinals;
+    }
+
+    private int[] newest() {
+        LocalDateTime[] createdAt = new LocalDateTime[products.size()];
+        for (int ordinal = 0; ordinal < createdAt.length; ordinal++) {
+            createdAt[ordinal] = products.get(ordinal).getCreatedAt();
+        }
+        return sorted((a, b) -> createdAt[b].compareTo(createdAt[a]), ordinal -> createdAt[ordinal] == null);
+    }
+
+    private int[] byTitle() {
+        Collator collator = ProductSort.titleCollator();
+        CollationKey[] keys = new CollationKey[products.size()];
+        for (int ordinal = 0; ordinal < keys.length; ordinal++) {
+            String title = products.get(ordinal).getTitle();
+            keys[ordinal] = title == null ? null : collator.getCollationKey(title);
+        }
+        return sorted((a, b) -> keys[a].compareTo(keys[b]), ordinal -> keys[ordinal] == null);
+    }
+
+    /**
+     * Stable sort of the ordinals having a value; the ordinals without one follow in ordinal order.
+     */
+    private int[] sorted(Comparator<Integer> byValue, IntPredicate missing) {
+        Integer[] present = new Integer[products.size()];
+        int[] absent = new int[products.size()];
+        int presentCount = 0;
+        int absentCount = 0;
+        for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+            if (missing.test(ordinal)) {
+                absent[absentCount++] = ordinal;
+            } else {
+                present[presentCount++] = ordinal;
+            }
+        }
+        Arrays.sort(present, 0, presentCount, byValue);
+
+        int[] ordinals = new int[products.size()];
+        for (int i = 0; i < presentCount; i++) {
+            ordinals[i] = present[i];
+        }
+        System.arraycopy(absent, 0, ordinals, presentCount, absentCount);
+        return ordinals;
+    }
+}
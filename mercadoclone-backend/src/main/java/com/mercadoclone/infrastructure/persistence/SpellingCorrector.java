@@ -0,0 +1,153 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Corrects misspelled search tokens against the text index vocabulary (SymSpell).
+ *
+ * Every vocabulary term is stored under each string obtained by deleting up
+ * to {@link #MAX_DISTANCE} characters from its first {@link #PREFIX_LENGTH}
+ * characters. A misspelled token generates its own deletes the same way, so
+ * candidates are found with hash lookups instead of comparing the token with
+ * the whole vocabulary; each candidate is then checked with the real edit
+ * distance (optimal string alignment, transpositions count as one edit).
+ *
+ * The best correction is the closest term, then the one in most products.
+ * Tokens of up to four characters accept a single edit, so short words are
+ * not turned into unrelated ones.
+ *
+ * @author MercadoClone Team
+ */
+final class SpellingCorrector {
+
+    static final int MAX_DISTANCE = 2;
+
+    private static final int PREFIX_LENGTH = 7;
+    private static final int SHORT_TOKEN_LENGTH = 4;
+
+    private final Set<String> vocabulary;
+    private final Map<String, List<String>> deletes;
+    private final ToIntFunction<String> frequency;
+
+    private SpellingCorrector(Set<String> vocabulary, Map<String, List<String>> deletes,
+                              ToIntFunction<String> frequency) {
+        this.vocabulary = vocabulary;
+        this.deletes = deletes;
+        this.frequency = frequency;
+    }
+
+    /**
+     * Builds the deletion dictionary of the vocabulary.
+     *
+     * @param vocabulary normalized terms
+     * @param frequency  number of products containing a term, to break ties
+     */
+    static SpellingCorrector of(Set<String> vocabulary, ToIntFunction<String> frequency) {
+        Map<String, List<String>> deletes = new HashMap<>();
+        for (String term : vocabulary) {
+            for (String delete : deletesOf(term)) {
+                deletes.computeIfAbsent(delete, key -> new ArrayList<>(1)).add(term);
+            }
+        }
+        return new SpellingCorrector(vocabulary, deletes, frequency);
+    }
+
+    /**
+     * Returns the best vocabulary term within the allowed distance of the (normalized) token, or null.
+     */
+    String correct(String token) {
+        if (vocabulary.contains(token)) {
+            return token;
+        }
+        int maxDistance = token.length() <= SHORT_TOKEN_LENGTH ? 1 : MAX_DISTANCE;
+
+        String best = null;
+        int bestDistance = maxDistance + 1;
+        int bestFrequency = 0;
+        Set<String> checked = new HashSet<>();
+        for (String delete : deletesOf(token)) {
+            for (String candidate : deletes.getOrDefault(delete, List.of())) {
+                if (!checked.add(candidate)) {
+                    continue;
+                }
+                int distance = distance(token, candidate, bestDistance);
+                if (distance > maxDistance || distance > bestDistance) {
+                    continue;
+                }
+                int candidateFrequency = frequency.applyAsInt(candidate);
+                if (distance < bestDistance || candidateFrequency > bestFrequency
+                        || (candidateFrequency == bestFrequency && candidate.compareTo(best) < 0)) {
+                    best = candidate;
+                    bestDistance = distance;
+                    bestFrequency = candidateFrequency;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The prefix of the word and every string obtained by deleting up to {@link #MAX_DISTANCE} of its characters.
+     */
+    private static Set<String> deletesOf(String word) {
+        String prefix = word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+        Set<String> result = new HashSet<>();
+        result.add(prefix);
+        List<String> frontier = List.of(prefix);
+        for (int distance = 1; distance <= MAX_DISTANCE; distance++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String delete = current.substring(0, i) + current.substring(i + 1);
+                    if (result.add(delete)) {
+                        next.add(delete);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    /**
+     * Optimal string alignment distance, or {@code limit + 1} as soon as it must exceed the limit.
+     */
+    static int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
@@ -0,0 +1,156 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index giving the exact results of the substring search over
+ * title, description and short description.
+ *
+ * The matching rule is unchanged: a product matches when one of those fields,
+ * lower-cased, contains the lower-cased term (so "a55" finds "GalaxyA55").
+ * The index only narrows the products to check: texts and terms are folded
+ * character by character (accents dropped, lower case) and cut into
+ * trigrams, and a product can only match when it holds every trigram of the
+ * term. The candidates from the posting intersection are then verified with
+ * the original {@code contains} check. Terms shorter than a trigram verify
+ * every product.
+ *
+ * Built once per snapshot and never modified afterwards.
+ *
+ * @author MercadoClone Team
+ */
+final class SubstringIndex {
+
+    private static final int GRAM = 3;
+
+    private final List<ProductEntity> products;
+    private final Map<Long, OrdinalBitmap> postings;
+
+    private SubstringIndex(List<ProductEntity> products, Map<Long, OrdinalBitmap> postings) {
+        this.products = products;
+        this.postings = postings;
+    }
+
+    /**
+     * Indexes products in ordinal order.
+     */
+    static SubstringIndex of(List<ProductEntity> ordered) {
+        Map<Long, OrdinalBitmap.Builder> builders = new HashMap<>();
+        long[] grams = new long[64];
+        for (int ordinal = 0; ordinal < ordered.size(); ordinal++) {
+            ProductEntity product = ordered.get(ordinal);
+            int count = 0;
+            for (String text : new String[]{product.getTitle(), product.getDescription(), product.getShortDescription()}) {
+                if (text == null) {
+                    continue;
+                }
+                String folded = fold(text);
+                for (int i = 0; i + GRAM <= folded.length(); i++) {
+                    if (count == grams.length) {
+                        grams = Arrays.copyOf(grams, count * 2);
+                    }
+                    grams[count++] = gram(folded, i);
+                }
+            }
+
+            Arrays.sort(grams, 0, count);
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || grams[i] != grams[i - 1]) {
+                    builders.computeIfAbsent(grams[i], key -> new OrdinalBitmap.Builder()).add(ordinal);
+                }
+            }
+        }
+
+        Map<Long, OrdinalBitmap> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((gram, builder) -> postings.put(gram, builder.build()));
+        return new SubstringIndex(ordered, Collections.unmodifiableMap(postings));
+    }
+
+    /**
+     * Returns the ordinals of the products containing the term, in any case, in one of the text fields.
+     */
+    OrdinalBitmap search(String searchTerm) {
+        String lowerCaseSearchTerm = searchTerm.toLowerCase();
+        OrdinalBitmap candidates = candidates(fold(searchTerm));
+
+        OrdinalBitmap.Builder matches = new OrdinalBitmap.Builder();
+        if (candidates == null) {
+            for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+                if (containsSearchTerm(products.get(ordinal), lowerCaseSearchTerm)) {
+                    matches.add(ordinal);
+                }
+            }
+        } else {
+            candidates.forEach(ordinal -> {
+                if (containsSearchTerm(products.get(ordinal), lowerCaseSearchTerm)) {
+                    matches.add(ordinal);
+                }
+            });
+        }
+        return matches.build();
+    }
+
+    /**
+     * Intersects the postings of every trigram of the folded term, rarest first; null when it has none.
+     */
+    private OrdinalBitmap candidates(String foldedTerm) {
+        if (foldedTerm.length() < GRAM) {
+            return null;
+        }
+
+        OrdinalBitmap[] gramPostings = new OrdinalBitmap[foldedTerm.length() - GRAM + 1];
+        for (int i = 0; i < gramPostings.length; i++) {
+            OrdinalBitmap posting = postings.get(gram(foldedTerm, i));
+            if (posting == null) {
+                return OrdinalBitmap.EMPTY;
+            }
+            gramPostings[i] = posting;
+        }
+        Arrays.sort(gramPostings, Comparator.comparingInt(OrdinalBitmap::cardinality));
+
+        OrdinalBitmap result = gramPostings[0];
+        for (int i = 1; i < gramPostings.length && !result.isEmpty(); i++) {
+            result = result.and(gramPostings[i]);
+        }
+        return result;
+    }
+
+    /**
+     * The substring check the index must agree with.
+     */
+    static boolean containsSearchTerm(ProductEntity product, String lowerCaseSearchTerm) {
+        return (product.getTitle() != null &&
+                product.getTitle().toLowerCase().contains(lowerCaseSearchTerm)) ||
+                (product.getDescription() != null &&
+                        product.getDescription().toLowerCase().contains(lowerCaseSearchTerm)) ||
+                (product.getShortDescription() != null &&
+                        product.getShortDescription().toLowerCase().contains(lowerCaseSearchTerm));
+    }
+
+    /**
+     * Folds one character at a time, so a substring of a text folds to a substring of the folded text.
+     */
+    private static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,298 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie over product titles, brands and category names, for autocomplete.
+ *
+ * Suggestions are numbered by rank (most ratings first, then alphabetically),
+ * so the best completions of a prefix are simply its smallest suggestion
+ * numbers. Every suggestion is reachable from the start of each of its words,
+ * normalized with {@link TextNormalizer} ("gal" completes "Samsung Galaxy").
+ *
+ * The trie is stored in flat arrays: nodes are numbered breadth first, so the
+ * children of a node are contiguous and found by binary search on their label,
+ * and every node keeps its precomputed top {@link #MAX_SUGGESTIONS}. A lookup
+ * is one step per prefix character plus a copy of that list. The trie stops
+ * at {@link #MAX_DEPTH} characters; longer prefixes are answered from the
+ * sorted keys, whose matching range is small at that length.
+ *
+ * Built once per snapshot and never modified afterwards.
+ *
+ * @author MercadoClone Team
+ */
+final class SuggestTrie {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private static final int MAX_DEPTH = 12;
+
+    private final SuggestionEntity[] suggestions;
+    private final String[] keys;
+    private final int[] keySuggestions;
+    private final char[] labels;
+    private final int[] childStart;
+    private final int[] childCount;
+    private final int[] topStart;
+    private final int[] top;
+
+    private SuggestTrie(SuggestionEntity[] suggestions, String[] keys, int[] keySuggestions, char[] labels,
+                        int[] childStart, int[] childCount, int[] topStart, int[] top) {
+        this.suggestions = suggestions;
+        this.keys = keys;
+        this.keySuggestions = keySuggestions;
+        this.labels = labels;
+        this.childStart = childStart;
+        this.childCount = childCount;
+        this.topStart = topStart;
+        this.top = top;
+    }
+
+    /**
+     * Collects the suggestions of the products and builds the trie.
+     */
+    static SuggestTrie of(ProductEntity[] products) {
+        SuggestionEntity[] suggestions = collect(products);
+
+        List<Key> keyList = new ArrayList<>();
+        for (int id = 0; id < suggestions.length; id++) {
+            String normalized = TextNormalizer.normalize(suggestions[id].text());
+            for (int start = 0; start < normalized.length(); start++) {
+                boolean wordStart = Character.isLetterOrDigit(normalized.charAt(start))
+                        && (start == 0 || !Character.isLetterOrDigit(normalized.charAt(start - 1)));
+                if (wordStart) {
+                    keyList.add(new Key(normalized.substring(start), id));
+                }
+            }
+        }
+        keyList.sort(Comparator.comparing(Key::text).thenComparingInt(Key::suggestion));
+
+        String[] keys = new String[keyList.size()];
+        int[] keySuggestions = new int[keyList.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keyList.get(i).text();
+            keySuggestions[i] = keyList.get(i).suggestion();
+        }
+
+        return build(suggestions, keys, keySuggestions);
+    }
+
+    /**
+     * Returns up to {@code limit} completions of the prefix, best first.
+     */
+    List<SuggestionEntity> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        int count = Math.min(limit, MAX_SUGGESTIONS);
+
+        int node = 0;
+        for (int depth = 0; depth < Math.min(normalized.length(), MAX_DEPTH); depth++) {
+            node = child(node, normalized.charAt(depth));
+            if (node < 0) {
+                return List.of();
+            }
+        }
+
+        int[] ids = normalized.length() <= MAX_DEPTH
+                ? Arrays.copyOfRange(top, topStart[node], Math.min(topStart[node] + count, topStart[node + 1]))
+                : scanKeys(normalized, count);
+
+        List<SuggestionEntity> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(suggestions[id]);
+        }
+        return result;
+    }
+
+    int nodeCount() {
+        return labels.length;
+    }
+
+    private int child(int node, char label) {
+        int low = childStart[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (labels[middle] < label) {
+                low = middle + 1;
+            } else if (labels[middle] > label) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Best suggestions among the keys starting with a prefix longer than the trie.
+     */
+    private int[] scanKeys(String prefix, int count) {
+        int from = lowerBound(keys, prefix);
+        int to = lowerBound(keys, prefix + Character.MAX_VALUE);
+        int[] ids = new int[to - from];
+        for (int i = from; i < to; i++) {
+            ids[i - from] = keySuggestions[i];
+        }
+        return smallestDistinct(ids, count);
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Builds the nodes breadth first over the sorted keys, then the top lists bottom up.
+     */
+    private static SuggestTrie build(SuggestionEntity[] suggestions, String[] keys, int[] keySuggestions) {
+        List<int[]> nodes = new ArrayList<>(); // {from, to, depth, childStart, childCount}
+        List<Character> nodeLabels = new ArrayList<>();
+        Deque<Integer> pending = new ArrayDeque<>();
+        nodes.add(new int[]{0, keys.length, 0, 0, 0});
+        nodeLabels.add('\0');
+        pending.add(0);
+
+        while (!pending.isEmpty()) {
+            int[] node = nodes.get(pending.poll());
+            int depth = node[2];
+            node[3] = nodes.size();
+            if (depth == MAX_DEPTH) {
+                continue;
+            }
+            int i = node[0];
+            while (i < node[1]) {
+                if (keys[i].length() <= depth) {
+                    i++;
+                    continue;
+                }
+                char label = keys[i].charAt(depth);
+                int end = i;
+                while (end < node[1] && keys[end].charAt(depth) == label) {
+                    end++;
+                }
+                pending.add(nodes.size());
+                nodes.add(new int[]{i, end, depth + 1, 0, 0});
+                nodeLabels.add(label);
+                node[4]++;
+                i = end;
+            }
+        }
+
+        int size = nodes.size();
+        char[] labels = new char[size];
+        int[] childStart = new int[size];
+        int[] childCount = new int[size];
+        int[][] tops = new int[size][];
+        for (int n = size - 1; n >= 0; n--) {
+            int[] node = nodes.get(n);
+            labels[n] = nodeLabels.get(n);
+            childStart[n] = node[3];
+            childCount[n] = node[4];
+            tops[n] = topOf(node, keys, keySuggestions, tops);
+        }
+
+        int[] topStart = new int[size + 1];
+        for (int n = 0; n < size; n++) {
+            topStart[n + 1] = topStart[n] + tops[n].length;
+        }
+        int[] top = new int[topStart[size]];
+        for (int n = 0; n < size; n++) {
+            System.arraycopy(tops[n], 0, top, topStart[n], tops[n].length);
+        }
+
+        return new SuggestTrie(suggestions, keys, keySuggestions, labels, childStart, childCount, topStart, top);
+    }
+
+    /**
+     * Merges the keys ending at the node with the (already computed) top lists of its children.
+     */
+    private static int[] topOf(int[] node, String[] keys, int[] keySuggestions, int[][] tops) {
+        if (node[4] == 0) {
+            return smallestDistinct(Arrays.copyOfRange(keySuggestions, node[0], node[1]), MAX_SUGGESTIONS);
+        }
+
+        int depth = node[2];
+        int ending = node[0];
+        while (ending < node[1] && keys[ending].length() <= depth) {
+            ending++;
+        }
+        int count = ending - node[0];
+        for (int child = node[3]; child < node[3] + node[4]; child++) {
+            count += tops[child].length;
+        }
+
+        int[] candidates = Arrays.copyOf(Arrays.copyOfRange(keySuggestions, node[0], ending), count);
+        int size = ending - node[0];
+        for (int child = node[3]; child < node[3] + node[4]; child++) {
+            System.arraycopy(tops[child], 0, candidates, size, tops[child].length);
+            size += tops[child].length;
+        }
+        return smallestDistinct(candidates, MAX_SUGGESTIONS);
+    }
+
+    private static int[] smallestDistinct(int[] ids, int count) {
+        Arrays.sort(ids);
+        int[] result = new int[Math.min(count, ids.length)];
+        int size = 0;
+        for (int i = 0; i < ids.length && size < result.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                result[size++] = ids[i];
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Titles, brands and category names with the ratings of their products, best ranked first.
+     */
+    private static SuggestionEntity[] collect(ProductEntity[] products) {
+        Map<SuggestionKey, Long> ratings = new HashMap<>();
+        for (ProductEntity product : products) {
+            long count = product.getRating() != null && product.getRating().getCount() != null
+                    ? product.getRating().getCount() : 0;
+            add(ratings, product.getTitle(), SuggestionEntity.Type.TITLE, count);
+            add(ratings, product.getBrand(), SuggestionEntity.Type.BRAND, count);
+            if (product.getCategory() != null) {
+                add(ratings, product.getCategory().name(), SuggestionEntity.Type.CATEGORY, count);
+            }
+        }
+
+        return ratings.entrySet().stream()
+                .map(entry -> new SuggestionEntity(entry.getKey().text(), entry.getKey().type(), entry.getValue()))
+                .sorted(Comparator.comparingLong(SuggestionEntity::ratingCount).reversed()
+                        .thenComparing(SuggestionEntity::text)
+                        .thenComparing(SuggestionEntity::type))
+                .toArray(SuggestionEntity[]::new);
+    }
+
+    private static void add(Map<SuggestionKey, Long> ratings, String text, SuggestionEntity.Type type, long count) {
+        if (text != null && !text.isBlank()) {
+            ratings.merge(new SuggestionKey(text, type), count, Long::sum);
+        }
+    }
+
+    private record SuggestionKey(String text, SuggestionEntity.Type type) {
+    }
+
+    private record Key(String text, int suggestion) {
+    }
+}
@@ -0,0 +1,510 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Inverted index of the product texts: normalized token to the ordinals containing it.
+ *
+ * Postings are kept per field as {@link OrdinalBitmap}s. A search tokenizes the
+ * query with {@link TextNormalizer} and intersects, rarest token first, the
+ * postings of each token across all fields, so a product matches when every
+ * query token appears as a whole word in its title or descriptions.
+ *
+ * Each posting also keeps, in ordinal order, the token positions of the term
+ * in the field, so a phrase is matched by checking that its tokens sit at
+ * consecutive positions instead of rescanning the text. Positions are stored
+ * as chars; tokens past the 65535th of a field share the last position.
+ *
+ * Matches are ranked with BM25, summed over the fields with a boost per
+ * field (a word in the title counts more than one in the description); the
+ * term frequency is the number of positions. Only the best {@code limit}
+ * matches are kept, in a bounded heap, instead of sorting every match.
+ *
+ * Built once per snapshot and never modified afterwards. A refresh that keeps
+ * every ordinal derives the next index from this one, rebuilding only the
+ * postings of the terms its changed products had or now have.
+ *
+ * @author MercadoClone Team
+ */
+final class TextIndex {
+
+    /**
+     * Indexed product text fields.
+     */
+    enum Field {
+        TITLE(ProductEntity::getTitle, 3.0f),
+        DESCRIPTION(ProductEntity::getDescription, 1.0f),
+        SHORT_DESCRIPTION(ProductEntity::getShortDescription, 1.5f);
+
+        private final Function<ProductEntity, String> text;
+        private final float boost;
+
+        Field(Function<ProductEntity, String> text, float boost) {
+            this.text = text;
+            this.boost = boost;
+        }
+
+        String text(ProductEntity product) {
+            return text.apply(product);
+        }
+    }
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final int size;
+    private final Map<Field, Map<String, OrdinalBitmap>> postings;
+    private final Map<Field, Map<String, Positions>> positions;
+    private final Map<Field, char[]> lengths;
+    private final Map<Field, Float> averageLengths;
+
+    private TextIndex(int size, Map<Field, Map<String, OrdinalBitmap>> postings,
+                      Map<Field, Map<String, Positions>> positions, Map<Field, char[]> lengths,
+                      Map<Field, Float> averageLengths) {
+        this.size = size;
+        this.postings = postings;
+        this.positions = positions;
+        this.lengths = lengths;
+        this.averageLengths = averageLengths;
+    }
+
+    /**
+     * Token positions of one posting: those of its i-th ordinal are
+     * {@code positions[offsets[i]]} (inclusive) to {@code positions[offsets[i + 1]]} (exclusive), ascending.
+     */
+    private record Positions(int[] offsets, char[] positions) {
+
+        int frequency(int index) {
+            return offsets[index + 1] - offsets[index];
+        }
+
+        boolean contains(int index, int position) {
+            return position <= Character.MAX_VALUE
+                    && Arrays.binarySearch(positions, offsets[index], offsets[index + 1], (char) position) >= 0;
+        }
+    }
+
+    /**
+     * Indexes products in ordinal order.
+     */
+    static TextIndex of(ProductEntity[] ordered) {
+        Map<Field, Map<String, OrdinalBitmap>> postings = new EnumMap<>(Field.class);
+        Map<Field, Map<String, Positions>> positions = new EnumMap<>(Field.class);
+        Map<Field, char[]> lengths = new EnumMap<>(Field.class);
+        Map<Field, Float> averageLengths = new EnumMap<>(Field.class);
+        for (Field field : Field.values()) {
+            Map<String, PostingBuilder> builders = new HashMap<>();
+            char[] fieldLengths = new char[ordered.length];
+            long totalLength = 0;
+            for (int ordinal = 0; ordinal < ordered.length; ordinal++) {
+                List<String> tokens = TextNormalizer.tokenize(field.text(ordered[ordinal]));
+                for (int position = 0; position < tokens.size(); position++) {
+                    builders.computeIfAbsent(tokens.get(position), key -> new PostingBuilder()).add(ordinal, position);
+                }
+                fieldLengths[ordinal] = (char) Math.min(tokens.size(), Character.MAX_VALUE);
+                totalLength += tokens.size();
+            }
+
+            Map<String, OrdinalBitmap> fieldPostings = new HashMap<>(builders.size() * 2);
+            Map<String, Positions> fieldPositions = new HashMap<>(builders.size() * 2);
+            builders.forEach((token, builder) -> {
+                fieldPostings.put(token, builder.ordinals.build());
+                fieldPositions.put(token, builder.positions());
+            });
+            postings.put(field, Collections.unmodifiableMap(fieldPostings));
+            positions.put(field, Collections.unmodifiableMap(fieldPositions));
+            lengths.put(field, fieldLengths);
+            averageLengths.put(field, ordered.length == 0 ? 0f : (float) totalLength / ordered.length);
+        }
+        return new TextIndex(ordered.length, Collections.unmodifiableMap(postings),
+                Collections.unmodifiableMap(positions), lengths, averageLengths);
+    }
+
+    /**
+     * Returns the index of the same ordinals with the texts of the products at
+     * the changed (ascending) ordinals indexed again; every other ordinal must
+     * hold the same product in both arrays. Postings of the terms no changed
+     * product had or now has are shared, not copied.
+     */
+    TextIndex update(ProductEntity[] previous, ProductEntity[] ordered, int[] changed) {
+        Map<Field, Map<String, OrdinalBitmap>> updatedPostings = new EnumMap<>(Field.class);
+        Map<Field, Map<String, Positions>> updatedPositions = new EnumMap<>(Field.class);
+        Map<Field, char[]> updatedLengths = new EnumMap<>(Field.class);
+        Map<Field, Float> updatedAverageLengths = new EnumMap<>(Field.class);
+        for (Field field : Field.values()) {
+            List<List<String>> changedTokens = new ArrayList<>(changed.length);
+            Set<String> terms = new HashSet<>();
+            char[] fieldLengths = lengths.get(field).clone();
+            for (int ordinal : changed) {
+                List<String> tokens = TextNormalizer.tokenize(field.text(ordered[ordinal]));
+                changedTokens.add(tokens);
+                terms.addAll(tokens);
+                terms.addAll(TextNormalizer.tokenize(field.text(previous[ordinal])));
+                fieldLengths[ordinal] = (char) Math.min(tokens.size(), Character.MAX_VALUE);
+            }
+            long totalLength = 0;
+            for (char length : fieldLengths) {
+                totalLength += length;
+            }
+
+            Map<String, OrdinalBitmap> fieldPostings = new HashMap<>(postings.get(field));
+            Map<String, Positions> fieldPositions = new HashMap<>(positions.get(field));
+            for (String term : terms) {
+                PostingBuilder builder = reindex(field, term, changed, changedTokens);
+                if (builder.count == 0) {
+                    fieldPostings.remove(term);
+                    fieldPositions.remove(term);
+                } else {
+                    fieldPostings.put(term, builder.ordinals.build());
+                    fieldPositions.put(term, builder.positions());
+                }
+            }
+            updatedPostings.put(field, Collections.unmodifiableMap(fieldPostings));
+            updatedPositions.put(field, Collections.unmodifiableMap(fieldPositions));
+            updatedLengths.put(field, fieldLengths);
+            updatedAverageLengths.put(field, size == 0 ? 0f : (float) totalLength / size);
+        }
+        return new TextIndex(size, Collections.unmodifiableMap(updatedPostings),
+                Collections.unmodifiableMap(updatedPositions), updatedLengths, updatedAverageLengths);
+    }
+
+    /**
+     * Merges, in ordinal order, the entries of a posting for unchanged ordinals
+     * with the positions of the term in the new tokens of the changed ones.
+     */
+    private PostingBuilder reindex(Field field, String term, int[] changed, List<List<String>> changedTokens) {
+        PostingBuilder builder = new PostingBuilder();
+        int[] ordinals = postings(field, term).toArray();
+        Positions termPositions = positions.get(field).get(term);
+        int next = 0; // index into changed
+        for (int index = 0; index <= ordinals.length; index++) {
+            int ordinal = index < ordinals.length ? ordinals[index] : Integer.MAX_VALUE;
+            while (next < changed.length && changed[next] <= ordinal) {
+                List<String> tokens = changedTokens.get(next);
+                for (int position = 0; position < tokens.size(); position++) {
+                    if (tokens.get(position).equals(term)) {
+                        builder.add(changed[next], position);
+                    }
+                }
+                next++;
+            }
+            if (index < ordinals.length && !(next > 0 && changed[next - 1] == ordinal)) {
+                for (int p = termPositions.offsets()[index]; p < termPositions.offsets()[index + 1]; p++) {
+                    builder.add(ordinal, termPositions.positions()[p]);
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Returns the ordinals whose field contains the (already normalized) term.
+     */
+    OrdinalBitmap postings(Field field, String term) {
+        return postings.get(field).getOrDefault(term, OrdinalBitmap.EMPTY);
+    }
+
+    /**
+     * Returns the ordinals containing the (already normalized) term in any field.
+     */
+    OrdinalBitmap postings(String term) {
+        OrdinalBitmap any = OrdinalBitmap.EMPTY;
+        for (Field field : Field.values()) {
+            any = any.or(postings(field, term));
+        }
+        return any;
+    }
+
+    /**
+     * Whether the (already normalized) term appears in any field.
+     */
+    boolean contains(String term) {
+        for (Field field : Field.values()) {
+            if (postings.get(field).containsKey(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns every indexed term, across all fields.
+     */
+    Set<String> vocabulary() {
+        Set<String> terms = new HashSet<>();
+        postings.values().forEach(fieldPostings -> terms.addAll(fieldPostings.keySet()));
+        return terms;
+    }
+
+    /**
+     * Returns the ordinals matching every token of the query; empty when the query has no token.
+     */
+    OrdinalBitmap search(String query) {
+        List<OrdinalBitmap> tokenPostings = new LinkedHashSet<>(TextNormalizer.tokenize(query)).stream()
+                .map(this::postings)
+                .sorted(Comparator.comparingInt(OrdinalBitmap::cardinality))
+                .toList();
+        if (tokenPostings.isEmpty()) {
+            return OrdinalBitmap.EMPTY;
+        }
+
+        OrdinalBitmap result = tokenPostings.get(0);
+        for (int i = 1; i < tokenPostings.size() && !result.isEmpty(); i++) {
+            result = result.and(tokenPostings.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ordinals where the tokens of the phrase appear consecutively, in the same field.
+     */
+    OrdinalBitmap phrase(String phrase) {
+        List<String> tokens = TextNormalizer.tokenize(phrase);
+        if (tokens.size() <= 1) {
+            return search(phrase);
+        }
+
+        OrdinalBitmap result = OrdinalBitmap.EMPTY;
+        for (Field field : Field.values()) {
+            OrdinalBitmap candidates = postings(field, tokens.get(0));
+            for (int i = 1; i < tokens.size() && !candidates.isEmpty(); i++) {
+                candidates = candidates.and(postings(field, tokens.get(i)));
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            int[] ordinals = candidates.toArray();
+            int[][] indexes = new int[tokens.size()][];
+            for (int i = 0; i < tokens.size(); i++) {
+                indexes[i] = indexesIn(postings(field, tokens.get(i)), ordinals);
+            }
+            OrdinalBitmap.Builder matches = new OrdinalBitmap.Builder();
+            for (int candidate = 0; candidate < ordinals.length; candidate++) {
+                if (hasPhrase(field, tokens, indexes, candidate)) {
+                    matches.add(ordinals[candidate]);
+                }
+            }
+            result = result.or(matches.build());
+        }
+        return result;
+    }
+
+    private boolean hasPhrase(Field field, List<String> tokens, int[][] indexes, int candidate) {
+        Map<String, Positions> fieldPositions = positions.get(field);
+        Positions first = fieldPositions.get(tokens.get(0));
+        int firstIndex = indexes[0][candidate];
+        for (int p = first.offsets()[firstIndex]; p < first.offsets()[firstIndex + 1]; p++) {
+            int start = first.positions()[p];
+            boolean matches = true;
+            for (int i = 1; i < tokens.size() && matches; i++) {
+                matches = fieldPositions.get(tokens.get(i)).contains(indexes[i][candidate], start + i);
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns, for each of the sorted ordinals, its index in the posting (or -1), walking both together.
+     */
+    private static int[] indexesIn(OrdinalBitmap posting, int[] ordinals) {
+        int[] indexes = new int[ordinals.length];
+        Arrays.fill(indexes, -1);
+        int[] cursor = new int[2]; // {index in the posting, index in the ordinals}
+        posting.forEach(ordinal -> {
+            int index = cursor[0]++;
+            while (cursor[1] < ordinals.length && ordinals[cursor[1]] < ordinal) {
+                cursor[1]++;
+            }
+            if (cursor[1] < ordinals.length && ordinals[cursor[1]] == ordinal) {
+                indexes[cursor[1]] = index;
+            }
+        });
+        return indexes;
+    }
+
+    /**
+     * Returns up to {@code limit} of the candidates, best BM25 score for the query first
+     * (ties in ordinal order).
+     */
+    int[] rank(OrdinalBitmap candidates, String query, int limit) {
+        return rank(candidates, TextNormalizer.tokenize(query), limit);
+    }
+
+    /**
+     * Returns up to {@code limit} of the candidates, best BM25 score for the (normalized) terms first.
+     */
+    int[] rank(OrdinalBitmap candidates, List<String> terms, int limit) {
+        return rank(candidates, terms, limit, Float.NaN, -1).ordinals();
+    }
+
+    /**
+     * Ranks the candidates like {@link #rank(OrdinalBitmap, List, int)}, keeping only those ranked
+     * after a given (score, ordinal) position, when {@code afterOrdinal} is not negative.
+     */
+    Ranking rank(OrdinalBitmap candidates, List<String> terms, int limit, float afterScore, int afterOrdinal) {
+        int[] ordinals = candidates.toArray();
+        float[] scores = new float[ordinals.length];
+        for (String term : new LinkedHashSet<>(terms)) {
+            for (Field field : Field.values()) {
+                OrdinalBitmap posting = postings(field, term);
+                if (!posting.isEmpty()) {
+                    score(field, posting, positions.get(field).get(term), ordinals, scores);
+                }
+            }
+        }
+        return top(ordinals, scores, Math.min(limit, ordinals.length), afterScore, afterOrdinal);
+    }
+
+    /**
+     * Ranked ordinals with their scores, best first.
+     */
+    record Ranking(int[] ordinals, float[] scores) {
+    }
+
+    /**
+     * Adds the BM25 contribution of one term in one field to the scores of the candidates containing it.
+     */
+    private void score(Field field, OrdinalBitmap posting, Positions termPositions, int[] ordinals, float[] scores) {
+        int documentFrequency = posting.cardinality();
+        float idf = (float) Math.log(1 + (size - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        float weight = field.boost * idf * (K1 + 1);
+        char[] fieldLengths = lengths.get(field);
+        float averageLength = averageLengths.get(field);
+
+        int[] indexes = indexesIn(posting, ordinals);
+        for (int candidate = 0; candidate < ordinals.length; candidate++) {
+            if (indexes[candidate] >= 0) {
+                float frequency = termPositions.frequency(indexes[candidate]);
+                float norm = K1 * (1 - B + B * fieldLengths[ordinals[candidate]] / averageLength);
+                scores[candidate] += weight * frequency / (frequency + norm);
+            }
+        }
+    }
+
+    /**
+     * Selects the best {@code k} ordinals (after the cursor position, if any) with a bounded
+     * min-heap (worst kept score at the root).
+     */
+    private static Ranking top(int[] ordinals, float[] scores, int k, float afterScore, int afterOrdinal) {
+        int[] heap = new int[k]; // indexes into ordinals/scores
+        int heapSize = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (afterOrdinal >= 0 && !(scores[i] < afterScore
+                    || (scores[i] == afterScore && ordinals[i] > afterOrdinal))) {
+                continue;
+            }
+            if (heapSize < k) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, scores);
+            } else if (k > 0 && better(i, heap[0], scores)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+
+        int[] selected = new int[heapSize];
+        float[] selectedScores = new float[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            selected[i] = ordinals[heap[0]];
+            selectedScores[i] = scores[heap[0]];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, scores);
+        }
+        return new Ranking(selected, selectedScores);
+    }
+
+    /**
+     * Higher score first; on equal scores the lower index (ordinal) wins.
+     */
+    private static boolean better(int left, int right, float[] scores) {
+        return scores[left] > scores[right] || (scores[left] == scores[right] && left < right);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], heap[index], scores)) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int heapSize, float[] scores) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < heapSize && better(heap[worst], heap[left], scores)) {
+                worst = left;
+            }
+            if (right < heapSize && better(heap[worst], heap[right], scores)) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int value = heap[i];
+        heap[i] = heap[j];
+        heap[j] = value;
+    }
+
+    /**
+     * Collects the ordinals and token positions of one posting, in ordinal order.
+     */
+    private static final class PostingBuilder {
+
+        private final OrdinalBitmap.Builder ordinals = new OrdinalBitmap.Builder();
+        private int[] offsets = new int[2];
+        private char[] positions = new char[2];
+        private int count;
+        private int positionCount;
+        private int lastOrdinal = -1;
+
+        void add(int ordinal, int position) {
+            if (ordinal != lastOrdinal) {
+                ordinals.add(ordinal);
+                if (count + 1 >= offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[count++] = positionCount;
+                lastOrdinal = ordinal;
+            }
+            if (positionCount == positions.length) {
+                positions = Arrays.copyOf(positions, positionCount * 2);
+            }
+            positions[positionCount++] = (char) Math.min(position, Character.MAX_VALUE);
+        }
+
+        Positions positions() {
+            int[] finalOffsets = Arrays.copyOf(offsets, count + 1);
+            finalOffsets[count] = positionCount;
+            return new Positions(finalOffsets, Arrays.copyOf(positions, positionCount));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.mercadoclone.infrastructure.persistence.binary;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generations of an immutable catalog file shared by several processes.
+ *
+ * A directory holds {@code catalog-<n>.bin} files, which are never modified once
+ * written, and a {@code CURRENT} marker naming the generation to serve. A new
+ * generation becomes visible when the marker is atomically replaced; readers
+ * poll the marker and remap when it changes.
+ *
+ * @author MercadoClone Team
+ */
+public final class CatalogGenerations {
+
+    public static final String MARKER = "CURRENT";
+
+    private static final Pattern GENERATION_FILE = Pattern.compile("catalog-(\\d+)\\.bin");
+
+    private CatalogGenerations() {
+    }
+
+    /**
+     * Returns the file name of the published generation, or null if none was published.
+     */
+    public static String current(Path directory) throws IOException {
+        Path marker = directory.resolve(MARKER);
+        if (!Files.isRegularFile(marker)) {
+            return null;
+        }
+        String generation = Files.readString(marker, StandardCharsets.UTF_8).trim();
+        if (!GENERATION_FILE.matcher(generation).matches()) {
+            throw new IOException("Invalid catalog generation marker: " + generation);
+        }
+        return generation;
+    }
+
+    /**
+     * Returns the path for the next generation (one past the highest existing one).
+     */
+    public static Path next(Path directory) throws IOException {
+        long highest = generationFiles(directory).stream()
+                .mapToLong(CatalogGenerations::generationNumber)
+                .max()
+                .orElse(0);
+        return directory.resolve("catalog-" + (highest + 1) + ".bin");
+    }
+
+    /**
+     * Atomically points the marker to the given generation file.
+     */
+    public static void publish(Path generationFile) throws IOException {
+        Path directory = generationFile.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, MARKER, ".tmp");
+        try {
+            Files.writeString(temporary, generationFile.getFileName().toString(), StandardCharsets.UTF_8);
+            Files.move(temporary, directory.resolve(MARKER),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Deletes all but the newest {@code keep} generations.
+     *
+     * Processes still mapping a deleted generation keep reading it until they
+     * switch; the space is released when the last mapping goes away.
+     */
+    public static void deleteOlder(Path directory, int keep) throws IOException {
+        List<Path> files = generationFiles(directory);
+        files.sort((left, right) -> Long.compare(generationNumber(right), generationNumber(left)));
+        for (Path file : files.subList(Math.min(keep, files.size()), files.size())) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<Path> generationFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> GENERATION_FILE.matcher(file.getFileName().toString()).matches())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long generationNumber(Path file) {
+        Matcher matcher = GENERATION_FILE.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+}
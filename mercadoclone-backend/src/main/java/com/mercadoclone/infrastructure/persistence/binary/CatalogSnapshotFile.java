@@ -0,0 +1,349 @@
+package com.mercadoclone.infrastructure.persistence.binary;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Versioned binary snapshot of the whole catalog, used to skip JSON parsing on startup.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header (80 bytes)
+ *   0  magic "MCCATSNP"          8  format version
+ *   12 flags                     16 record count
+ *   20 records CRC32             24 source fingerprint
+ *   32 records offset            40 string table offset
+ *   48 string table CRC32        52 index entry count
+ *   56 index offset              64 largest record payload
+ *   68 index CRC32               72 reserved
+ *   76 header CRC32 (bytes 0..75)
+ * records: [int length][long content hash][payload], see {@link ProductRecordCodec}
+ * index: [long record offset] per distinct id, sorted by the UTF-8 bytes of the id
+ * string table: [int count] then [int length][UTF-8 bytes] per entry
+ * </pre>
+ *
+ * The source fingerprint identifies the JSON input the snapshot was built from;
+ * a snapshot whose fingerprint or format version does not match is reported as
+ * stale so the caller can fall back to JSON. The index lets {@link MappedCatalogFile}
+ * serve lookups straight from the mapped file.
+ *
+ * @author MercadoClone Team
+ */
+public final class CatalogSnapshotFile {
+
+    public static final int FORMAT_VERSION = 2;
+
+    static final long MAGIC = 0x4d43434154534e50L; // "MCCATSNP"
+    static final int HEADER_SIZE = 80;
+    static final int RECORD_PREFIX_SIZE = Integer.BYTES + Long.BYTES;
+
+    private static final int FLAG_CONTENT_HASHES = 1;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * Parsed and validated file header.
+     *
+     * For a file written in another format version only {@code formatVersion} is meaningful.
+     */
+    public record Header(int formatVersion, boolean hasContentHashes, int recordCount, int recordsCrc,
+                         long sourceFingerprint, long recordsOffset, long stringTableOffset, int stringTableCrc,
+                         int indexCount, long indexOffset, int maxRecordLength, int indexCrc) {
+    }
+
+    /**
+     * Receives decoded products in file order.
+     */
+    @FunctionalInterface
+    public interface RecordSink {
+        void accept(ProductEntity product, long contentHash);
+    }
+
+    /**
+     * Writes a snapshot atomically (temporary file + move).
+     *
+     * @param target            snapshot file to create or replace
+     * @param sourceFingerprint fingerprint of the JSON input
+     * @param products          products in ordinal order
+     * @param contentHashes     per-ordinal content hashes, or null when not tracked
+     */
+    public static void write(Path target, long sourceFingerprint, List<ProductEntity> products,
+                             long[] contentHashes) throws IOException {
+        try (Writer writer = new Writer(target, sourceFingerprint, contentHashes != null)) {
+            for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+                writer.append(products.get(ordinal), contentHashes == null ? 0L : contentHashes[ordinal]);
+            }
+            writer.commit();
+        }
+    }
+
+    /**
+     * Streams products into a new snapshot file, one record at a time.
+     *
+     * Nothing is visible at the target path until {@link #commit()}; closing an
+     * uncommitted writer discards the temporary file. Only the id and offset of
+     * each record are kept on heap, to build the index.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final Path target;
+        private final Path temporary;
+        private final long sourceFingerprint;
+        private final boolean hasContentHashes;
+        private final FileChannel channel;
+        private final CRC32 recordsCrc = new CRC32();
+        private final DataOutputStream out;
+        private final StringTable.Builder strings = new StringTable.Builder();
+        private final RecordOutput record = new RecordOutput();
+        private final List<IndexEntry> index = new ArrayList<>();
+        private long position = HEADER_SIZE;
+        private int recordCount;
+        private int maxRecordLength;
+        private boolean committed;
+
+        public Writer(Path target, long sourceFingerprint, boolean hasContentHashes) throws IOException {
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            this.target = target;
+            this.temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            this.sourceFingerprint = sourceFingerprint;
+            this.hasContentHashes = hasContentHashes;
+            this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+            channel.position(HEADER_SIZE);
+            this.out = stream(recordsCrc);
+        }
+
+        public void append(ProductEntity product, long contentHash) throws IOException {
+            if (product.getId() == null) {
+                throw new IOException("Product without id cannot be written to a catalog snapshot");
+            }
+
+            record.reset();
+            ProductRecordCodec.encode(product, record, strings);
+            index.add(new IndexEntry(product.getId().getBytes(StandardCharsets.UTF_8), position));
+
+            out.writeInt(record.size());
+            out.writeLong(contentHash);
+            out.write(record.array(), 0, record.size());
+            position += RECORD_PREFIX_SIZE + record.size();
+            maxRecordLength = Math.max(maxRecordLength, record.size());
+            recordCount++;
+        }
+
+        /**
+         * Writes the index, string table and header, then moves the file into place.
+         */
+        public void commit() throws IOException {
+            out.flush();
+
+            // Stable sort keeps duplicate ids in file order; the last record wins, as with a JSON load
+            index.sort((left, right) -> Arrays.compareUnsigned(left.id(), right.id()));
+            long indexOffset = position;
+            CRC32 indexCrc = new CRC32();
+            DataOutputStream indexOut = stream(indexCrc);
+            int indexCount = 0;
+            for (int i = 0; i < index.size(); i++) {
+                if (i + 1 < index.size() && Arrays.equals(index.get(i).id(), index.get(i + 1).id())) {
+                    continue;
+                }
+                indexOut.writeLong(index.get(i).offset());
+                indexCount++;
+            }
+            indexOut.flush();
+
+            long stringTableOffset = indexOffset + (long) indexCount * Long.BYTES;
+            CRC32 stringTableCrc = new CRC32();
+            DataOutputStream tableOut = stream(stringTableCrc);
+            tableOut.writeInt(strings.values().size());
+            for (String value : strings.values()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                tableOut.writeInt(bytes.length);
+                tableOut.write(bytes);
+            }
+            tableOut.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putLong(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(hasContentHashes ? FLAG_CONTENT_HASHES : 0)
+                    .putInt(recordCount)
+                    .putInt((int) recordsCrc.getValue())
+                    .putLong(sourceFingerprint)
+                    .putLong(HEADER_SIZE)
+                    .putLong(stringTableOffset)
+                    .putInt((int) stringTableCrc.getValue())
+                    .putInt(indexCount)
+                    .putLong(indexOffset)
+                    .putInt(maxRecordLength)
+                    .putInt((int) indexCrc.getValue())
+                    .putInt(0);
+            header.putInt(HEADER_SIZE - Integer.BYTES, headerCrc(header));
+            header.clear();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.close();
+
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        private DataOutputStream stream(CRC32 crc) {
+            return new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), IO_BUFFER_SIZE), crc));
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                if (!committed) {
+                    Files.deleteIfExists(temporary);
+                }
+            }
+        }
+
+        private record IndexEntry(byte[] id, long offset) {
+        }
+    }
+
+    /**
+     * Reads a snapshot, handing every record to the sink in file order.
+     *
+     * @return false when the file is missing or stale (different format version or fingerprint)
+     * @throws IOException when the file exists but is not a valid snapshot
+     */
+    public static boolean read(Path file, long expectedFingerprint, RecordSink sink) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            if (header.formatVersion() != FORMAT_VERSION || header.sourceFingerprint() != expectedFingerprint) {
+                return false;
+            }
+
+            StringTable strings = readStringTable(channel, header);
+
+            CRC32 recordsCrc = new CRC32();
+            channel.position(header.recordsOffset());
+            DataInputStream in = new DataInputStream(new CheckedInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel), IO_BUFFER_SIZE), recordsCrc));
+
+            byte[] payload = new byte[4096];
+            for (int i = 0; i < header.recordCount(); i++) {
+                int length = in.readInt();
+                long contentHash = in.readLong();
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+                sink.accept(ProductRecordCodec.decode(new RecordInput(ByteBuffer.wrap(payload, 0, length), strings)),
+                        contentHash);
+            }
+
+            if ((int) recordsCrc.getValue() != header.recordsCrc()) {
+                throw new IOException("Catalog snapshot records are corrupted: " + file);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads and validates the header of an open snapshot file.
+     */
+    public static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                if (header.position() >= 12 && header.getLong(0) == MAGIC && header.getInt(8) != FORMAT_VERSION) {
+                    break; // shorter header of another format version
+                }
+                throw new IOException("Catalog snapshot is truncated");
+            }
+        }
+
+        if (header.getLong(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot file");
+        }
+        int formatVersion = header.getInt(8);
+        if (formatVersion != FORMAT_VERSION) {
+            return new Header(formatVersion, false, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        if (header.getInt(HEADER_SIZE - Integer.BYTES) != headerCrc(header)) {
+            throw new IOException("Catalog snapshot header is corrupted");
+        }
+
+        return new Header(
+                formatVersion,
+                (header.getInt(12) & FLAG_CONTENT_HASHES) != 0,
+                header.getInt(16),
+                header.getInt(20),
+                header.getLong(24),
+                header.getLong(32),
+                header.getLong(40),
+                header.getInt(48),
+                header.getInt(52),
+                header.getLong(56),
+                header.getInt(64),
+                header.getInt(68)
+        );
+    }
+
+    /**
+     * Reads and validates the string table of an open snapshot file.
+     */
+    public static StringTable readStringTable(FileChannel channel, Header header) throws IOException {
+        long length = channel.size() - header.stringTableOffset();
+        MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, header.stringTableOffset(), length);
+
+        CRC32 crc = new CRC32();
+        crc.update(table.duplicate());
+        if ((int) crc.getValue() != header.stringTableCrc()) {
+            throw new IOException("Catalog snapshot string table is corrupted");
+        }
+
+        String[] values = new String[table.getInt()];
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < values.length; i++) {
+            int size = table.getInt();
+            if (bytes.length < size) {
+                bytes = new byte[Math.max(size, bytes.length * 2)];
+            }
+            table.get(bytes, 0, size);
+            values[i] = new String(bytes, 0, size, StandardCharsets.UTF_8);
+        }
+        return new StringTable(values);
+    }
+
+    private static int headerCrc(ByteBuffer header) {
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, HEADER_SIZE - Integer.BYTES);
+        return (int) crc.getValue();
+    }
+}
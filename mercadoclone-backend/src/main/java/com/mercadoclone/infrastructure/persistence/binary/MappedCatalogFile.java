@@ -0,0 +1,188 @@
+package com.mercadoclone.infrastructure.persistence.binary;
+
+import com.mercadoclone.domain.entity.ProductEntity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped view of a {@link CatalogSnapshotFile}.
+ *
+ * Records and the id index are served straight from the mapping, so opening a
+ * file costs the same whatever its size, and several processes mapping the same
+ * file share one copy of it in the OS page cache. The only heap structure is
+ * the shared string table.
+ *
+ * Files larger than one mapping are split in segments that start every
+ * {@code segmentSize} bytes and overlap by the largest record, so any record
+ * is fully contained in the segment its offset falls into.
+ *
+ * Ordinals follow the order of the index (UTF-8 byte order of the ids, which
+ * matches {@link String#compareTo} for ids in the Basic Multilingual Plane).
+ *
+ * Instances are immutable and safe for concurrent use.
+ *
+ * @author MercadoClone Team
+ */
+public final class MappedCatalogFile {
+
+    private final Path path;
+    private final CatalogSnapshotFile.Header header;
+    private final StringTable strings;
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer[] segments;
+    private final long segmentSize;
+
+    private MappedCatalogFile(Path path, CatalogSnapshotFile.Header header, StringTable strings,
+                              MappedByteBuffer index, MappedByteBuffer[] segments, long segmentSize) {
+        this.path = path;
+        this.header = header;
+        this.strings = strings;
+        this.index = index;
+        this.segments = segments;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Maps a snapshot file and validates its header, index and string table.
+     *
+     * @param file        snapshot file
+     * @param segmentSize distance between the starts of two segments, in bytes
+     * @throws IOException when the file is missing or is not a valid snapshot
+     */
+    public static MappedCatalogFile open(Path file, int segmentSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CatalogSnapshotFile.Header header = CatalogSnapshotFile.readHeader(channel);
+            if (header.formatVersion() != CatalogSnapshotFile.FORMAT_VERSION) {
+                throw new IOException("Unsupported catalog snapshot version: " + header.formatVersion());
+            }
+
+            long overlap = CatalogSnapshotFile.RECORD_PREFIX_SIZE + (long) header.maxRecordLength();
+            if (segmentSize <= 0 || segmentSize + overlap > Integer.MAX_VALUE) {
+                throw new IOException("Invalid segment size " + segmentSize + " for records of up to "
+                        + header.maxRecordLength() + " bytes");
+            }
+
+            StringTable strings = CatalogSnapshotFile.readStringTable(channel, header);
+
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, header.indexOffset(),
+                    (long) header.indexCount() * Long.BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(index.duplicate());
+            if ((int) crc.getValue() != header.indexCrc()) {
+                throw new IOException("Catalog snapshot index is corrupted");
+            }
+
+            long recordsLength = header.indexOffset() - header.recordsOffset();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((recordsLength + segmentSize - 1) / segmentSize)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, header.recordsOffset() + start,
+                        Math.min(recordsLength - start, segmentSize + overlap));
+            }
+
+            return new MappedCatalogFile(file, header, strings, index, segments, segmentSize);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public CatalogSnapshotFile.Header header() {
+        return header;
+    }
+
+    /**
+     * Returns the number of distinct products.
+     */
+    public int size() {
+        return header.indexCount();
+    }
+
+    /**
+     * Returns the id of the product at the given ordinal.
+     */
+    public String idAt(int ordinal) {
+        return ProductRecordCodec.decodeId(new RecordInput(payload(ordinal), strings));
+    }
+
+    /**
+     * Returns the ordinal of the given product id, or -1 when absent.
+     *
+     * Binary search over the mapped index, comparing UTF-8 bytes in place.
+     */
+    public int ordinalOf(String productId) {
+        byte[] key = productId.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareId(middle, key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes the product at the given ordinal from the mapped file.
+     */
+    public ProductEntity decode(int ordinal) {
+        return ProductRecordCodec.decode(new RecordInput(payload(ordinal), strings));
+    }
+
+    /**
+     * Returns the content hash stored with the product at the given ordinal.
+     */
+    public long contentHash(int ordinal) {
+        long relative = recordOffset(ordinal);
+        return segments[(int) (relative / segmentSize)].getLong((int) (relative % segmentSize) + Integer.BYTES);
+    }
+
+    /**
+     * Returns the number of mapped segments.
+     */
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    private long recordOffset(int ordinal) {
+        return index.getLong(ordinal * Long.BYTES) - header.recordsOffset();
+    }
+
+    private ByteBuffer payload(int ordinal) {
+        long relative = recordOffset(ordinal);
+        ByteBuffer segment = segments[(int) (relative / segmentSize)];
+        int offset = (int) (relative % segmentSize);
+        return segment.slice(offset + CatalogSnapshotFile.RECORD_PREFIX_SIZE, segment.getInt(offset));
+    }
+
+    /**
+     * Compares the id stored in a record (an inline string, written first) with the key.
+     */
+    private int compareId(int ordinal, byte[] key) {
+        ByteBuffer record = payload(ordinal);
+        int length = new RecordInput(record, strings).readVarInt() - 1;
+        int start = record.position();
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = Integer.compare(record.get(start + i) & 0xff, key[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+}
@@ -0,0 +1,367 @@
+package com.mercadoclone.infrastructure.persistence.binary;
+
+import com.mercadoclone.domain.entity.CategoryEntity;
+import com.mercadoclone.domain.entity.PaymentMethodEntity;
+import com.mercadoclone.domain.entity.PriceEntity;
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.ProductImageEntity;
+import com.mercadoclone.domain.entity.ProductRatingEntity;
+import com.mercadoclone.domain.entity.SellerEntity;
+import com.mercadoclone.domain.entity.ShippingEntity;
+import com.mercadoclone.domain.entity.StockEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a {@link ProductEntity} graph into a compact binary record and back,
+ * without reflection.
+ *
+ * Values that repeat across products (currency, brand, category, seller,
+ * payment methods, specification keys and values) go through the shared
+ * {@link StringTable}; values that are mostly unique per product (id, title,
+ * descriptions, SKU, images, features) are stored inline.
+ *
+ * The field order below is part of the snapshot format: any change must bump
+ * {@link CatalogSnapshotFile#FORMAT_VERSION}.
+ *
+ * @author MercadoClone Team
+ */
+public final class ProductRecordCodec {
+
+    private ProductRecordCodec() {
+    }
+
+    public static void encode(ProductEntity product, RecordOutput out, StringTable.Builder strings) {
+        out.writeInlineString(product.getId());
+        out.writeInlineString(product.getTitle());
+        out.writeInlineString(product.getDescription());
+        out.writeInlineString(product.getShortDescription());
+        encodePrice(product.getPrice(), out, strings);
+        encodeImages(product.getImages(), out);
+        encodeCategory(product.getCategory(), out, strings);
+        out.writeSharedString(product.getBrand(), strings);
+        out.writeInlineString(product.getSku());
+        encodeStock(product.getStock(), out);
+        encodeRating(product.getRating(), out, strings);
+        encodePaymentMethods(product.getPaymentMethods(), out, strings);
+        encodeShipping(product.getShipping(), out, strings);
+        encodeSeller(product.getSeller(), out, strings);
+        encodeInlineStrings(product.getFeatures(), out);
+        encodeSpecifications(product.getSpecifications(), out, strings);
+        out.writeSharedString(product.getWarranty(), strings);
+        encodeDateTime(product.getCreatedAt(), out);
+        encodeDateTime(product.getUpdatedAt(), out);
+    }
+
+    public static ProductEntity decode(RecordInput in) {
+        ProductEntity product = new ProductEntity();
+        product.setId(in.readInlineString());
+        product.setTitle(in.readInlineString());
+        product.setDescription(in.readInlineString());
+        product.setShortDescription(in.readInlineString());
+        product.setPrice(decodePrice(in));
+        product.setImages(decodeImages(in));
+        product.setCategory(decodeCategory(in));
+        product.setBrand(in.readSharedString());
+        product.setSku(in.readInlineString());
+        product.setStock(decodeStock(in));
+        product.setRating(decodeRating(in));
+        product.setPaymentMethods(decodePaymentMethods(in));
+        product.setShipping(decodeShipping(in));
+        product.setSeller(decodeSeller(in));
+        product.setFeatures(decodeInlineStrings(in));
+        product.setSpecifications(decodeSpecifications(in));
+        product.setWarranty(in.readSharedString());
+        product.setCreatedAt(decodeDateTime(in));
+        product.setUpdatedAt(decodeDateTime(in));
+        return product;
+    }
+
+    /**
+     * Reads only the product id, which is always the first field of a record.
+     */
+    public static String decodeId(RecordInput in) {
+        return in.readInlineString();
+    }
+
+    private static void encodePrice(PriceEntity price, RecordOutput out, StringTable.Builder strings) {
+        if (!writePresence(price, out)) {
+            return;
+        }
+        out.writeNullableDouble(price.getCurrent());
+        out.writeNullableDouble(price.getOriginal());
+        out.writeSharedString(price.getCurrency(), strings);
+        out.writeNullableInt(price.getDiscount());
+    }
+
+    private static PriceEntity decodePrice(RecordInput in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        PriceEntity price = new PriceEntity();
+        price.setCurrent(in.readNullableDouble());
+        price.setOriginal(in.readNullableDouble());
+        price.setCurrency(in.readSharedString());
+        price.setDiscount(in.readNullableInt());
+        return price;
+    }
+
+    private static void encodeImages(List<ProductImageEntity> images, RecordOutput out) {
+        if (!writeSize(images, out)) {
+            return;
+        }
+        for (ProductImageEntity image : images) {
+            out.writeInlineString(image.getId());
+            out.writeInlineString(image.getUrl());
+            out.writeInlineString(image.getAlt());
+            out.writeNullableInt(image.getOrder());
+        }
+    }
+
+    private static List<ProductImageEntity> decodeImages(RecordInput in) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<ProductImageEntity> images = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            images.add(new ProductImageEntity(
+                    in.readInlineString(), in.readInlineString(), in.readInlineString(), in.readNullableInt()));
+        }
+        return images;
+    }
+
+    private static void encodeCategory(CategoryEntity category, RecordOutput out, StringTable.Builder strings) {
+        if (!writePresence(category, out)) {
+            return;
+        }
+        out.writeSharedString(category.id(), strings);
+        out.writeSharedString(category.name(), strings);
+        encodeSharedStrings(category.path(), out, strings);
+    }
+
+    private static CategoryEntity decodeCategory(RecordInput in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        return new CategoryEntity(in.readSharedString(), in.readSharedString(), decodeSharedStrings(in));
+    }
+
+    private static void encodeStock(StockEntity stock, RecordOutput out) {
+        if (!writePresence(stock, out)) {
+            return;
+        }
+        out.writeNullableInt(stock.available());
+        out.writeNullableInt(stock.total());
+    }
+
+    private static StockEntity decodeStock(RecordInput in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        return new StockEntity(in.readNullableInt(), in.readNullableInt());
+    }
+
+    private static void encodeRating(ProductRatingEntity rating, RecordOutput out, StringTable.Builder strings) {
+        if (!writePresence(rating, out)) {
+            return;
+        }
+        out.writeNullableDouble(rating.getAverage());
+        out.writeNullableInt(rating.getCount());
+
+        Map<String, Integer> distribution = rating.getDistribution();
+        if (!writeSize(distribution == null ? null : distribution.entrySet(), out)) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : distribution.entrySet()) {
+            out.writeSharedString(entry.getKey(), strings);
+            out.writeNullableInt(entry.getValue());
+        }
+    }
+
+    private static ProductRatingEntity decodeRating(RecordInput in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        Double average = in.readNullableDouble();
+        Integer count = in.readNullableInt();
+
+        Map<String, Integer> distribution = null;
+        int size = in.readVarInt() - 1;
+        if (size >= 0) {
+            distribution = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                distribution.put(in.readSharedString(), in.readNullableInt());
+            }
+        }
+        return new ProductRatingEntity(average, count, distribution);
+    }
+
+    private static void encodePaymentMethods(List<PaymentMethodEntity> methods, RecordOutput out,
+                                             StringTable.Builder strings) {
+        if (!writeSize(methods, out)) {
+            return;
+        }
+        for (PaymentMethodEntity method : methods) {
+            out.writeSharedString(method.type(), strings);
+            out.writeSharedString(method.name(), strings);
+            out.writeSharedString(method.icon(), strings);
+            out.writeNullableInt(method.installments());
+            out.writeNullableDouble(method.discount());
+        }
+    }
+
+    private static List<PaymentMethodEntity> decodePaymentMethods(RecordInput in) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<PaymentMethodEntity> methods = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            methods.add(new PaymentMethodEntity(
+                    in.readSharedString(), in.readSharedString(), in.readSharedString(),
+                    in.readNullableInt(), in.readNullableDouble()));
+        }
+        return methods;
+    }
+
+    private static void encodeShipping(ShippingEntity shipping, RecordOutput out, StringTable.Builder strings) {
+        if (!writePresence(shipping, out)) {
+            return;
+        }
+        out.writeNullableBoolean(shipping.getFree());
+        out.writeNullableInt(shipping.getEstimatedDays());
+        out.writeNullableDouble(shipping.getCost());
+        out.writeSharedString(shipping.getDescription(), strings);
+    }
+
+    private static ShippingEntity decodeShipping(RecordInput in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        return new ShippingEntity(
+                in.readNullableBoolean(), in.readNullableInt(), in.readNullableDouble(), in.readSharedString());
+    }
+
+    private static void encodeSeller(SellerEntity seller, RecordOutput out, StringTable.Builder strings) {
+        if (!writePresence(seller, out)) {
+            return;
+        }
+        out.writeSharedString(seller.getId(), strings);
+        out.writeSharedString(seller.getName(), strings);
+        out.writeNullableDouble(seller.getReputation());
+        out.writeSharedString(seller.getLocation(), strings);
+        out.writeNullableBoolean(seller.getIsOfficial());
+        out.writeNullableInt(seller.getPositiveRating());
+        out.writeNullableInt(seller.getYearsOnPlatform());
+        out.writeSharedString(seller.getAvatar(), strings);
+    }
+
+    private static SellerEntity decodeSeller(RecordInput in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        SellerEntity seller = new SellerEntity();
+        seller.setId(in.readSharedString());
+        seller.setName(in.readSharedString());
+        seller.setReputation(in.readNullableDouble());
+        seller.setLocation(in.readSharedString());
+        seller.setIsOfficial(in.readNullableBoolean());
+        seller.setPositiveRating(in.readNullableInt());
+        seller.setYearsOnPlatform(in.readNullableInt());
+        seller.setAvatar(in.readSharedString());
+        return seller;
+    }
+
+    private static void encodeSpecifications(Map<String, String> specifications, RecordOutput out,
+                                             StringTable.Builder strings) {
+        if (!writeSize(specifications == null ? null : specifications.entrySet(), out)) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : specifications.entrySet()) {
+            out.writeSharedString(entry.getKey(), strings);
+            out.writeSharedString(entry.getValue(), strings);
+        }
+    }
+
+    private static Map<String, String> decodeSpecifications(RecordInput in) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> specifications = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            specifications.put(in.readSharedString(), in.readSharedString());
+        }
+        return specifications;
+    }
+
+    private static void encodeInlineStrings(List<String> values, RecordOutput out) {
+        if (!writeSize(values, out)) {
+            return;
+        }
+        values.forEach(out::writeInlineString);
+    }
+
+    private static List<String> decodeInlineStrings(RecordInput in) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readInlineString());
+        }
+        return values;
+    }
+
+    private static void encodeSharedStrings(List<String> values, RecordOutput out, StringTable.Builder strings) {
+        if (!writeSize(values, out)) {
+            return;
+        }
+        values.forEach(value -> out.writeSharedString(value, strings));
+    }
+
+    private static List<String> decodeSharedStrings(RecordInput in) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readSharedString());
+        }
+        return values;
+    }
+
+    private static void encodeDateTime(LocalDateTime dateTime, RecordOutput out) {
+        if (!writePresence(dateTime, out)) {
+            return;
+        }
+        out.writeSignedVarLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeVarInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime decodeDateTime(RecordInput in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readSignedVarLong(), in.readVarInt(), ZoneOffset.UTC);
+    }
+
+    private static boolean writePresence(Object value, RecordOutput out) {
+        out.writeByte(value == null ? 0 : 1);
+        return value != null;
+    }
+
+    private static boolean writeSize(Collection<?> values, RecordOutput out) {
+        out.writeVarInt(values == null ? 0 : values.size() + 1);
+        return values != null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.mercadoclone.infrastructure.persistence.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads values written by {@link RecordOutput} from a {@link ByteBuffer}.
+ *
+ * Works on both heap and memory-mapped buffers; the buffer position is advanced
+ * as values are read.
+ *
+ * @author MercadoClone Team
+ */
+public final class RecordInput {
+
+    private final ByteBuffer buffer;
+    private final StringTable strings;
+    private byte[] scratch = new byte[256];
+
+    public RecordInput(ByteBuffer buffer, StringTable strings) {
+        this.buffer = buffer;
+        this.strings = strings;
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int readByte() {
+        return buffer.get() & 0xff;
+    }
+
+    public int readVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get();
+            result |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in catalog record");
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buffer.get();
+            result |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed varlong in catalog record");
+    }
+
+    public long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public double readDouble() {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer.get() & 0xffL);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public Double readNullableDouble() {
+        return readByte() == 0 ? null : readDouble();
+    }
+
+    public Integer readNullableInt() {
+        return readByte() == 0 ? null : (int) readSignedVarLong();
+    }
+
+    public Boolean readNullableBoolean() {
+        int value = readByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    public String readInlineString() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset() + buffer.position();
+            buffer.position(buffer.position() + length);
+            return new String(buffer.array(), offset, length, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public String readSharedString() {
+        int reference = readVarInt();
+        return reference == 0 ? null : strings.get(reference - 1);
+    }
+}
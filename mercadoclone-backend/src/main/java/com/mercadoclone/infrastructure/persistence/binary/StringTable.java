@@ -0,0 +1,59 @@
+package com.mercadoclone.infrastructure.persistence.binary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of strings shared by many product records (currencies, brands,
+ * category names, seller data, payment methods, specification keys...).
+ *
+ * Records reference entries by index, so each distinct value is stored, and
+ * decoded, only once per snapshot file.
+ *
+ * @author MercadoClone Team
+ */
+public final class StringTable {
+
+    private final String[] values;
+
+    public StringTable(String[] values) {
+        this.values = values;
+    }
+
+    public String get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Assigns indexes to strings in first-seen order.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        public int intern(String value) {
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = values.size();
+                indexes.put(value, index);
+                values.add(value);
+            }
+            return index;
+        }
+
+        public List<String> values() {
+            return values;
+        }
+
+        public StringTable build() {
+            return new StringTable(values.toArray(new String[0]));
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.mercadoclone.service;
 
 import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.domain.repository.ProductGrouping;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
 import com.mercadoclone.domain.repository.ProductRepository;
 import com.mercadoclone.dto.request.FilterRequest;
 import com.mercadoclone.exception.ProductNotFoundException;
+import com.mercadoclone.service.cache.ProductQueryCache;
 import com.mercadoclone.service.command.pattern.FilterCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,10 +36,16 @@ public class ProductService implements ProductUseCase {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
+    static final int MAX_SUGGESTIONS = 10;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final ProductQueryCache queryCache;
+
+    public ProductService(ProductRepository productRepository, ProductQueryCache queryCache) {
         this.productRepository = productRepository;
+        this.queryCache = queryCache;
     }
 
     @Override
@@ -45,9 +59,17 @@ public class ProductService implements ProductUseCase {
     }
 
     public List<ProductEntity> findAllWithCommandPattern(FilterRequest filter) {
-        FilterCommand command = FilterCommand.fromRequest(filter);
+        return findProducts(filter).items();
+    }
 
-        return command.execute(this, productRepository);
+    @Override
+    public ProductList findProducts(FilterRequest filter) {
+        ProductCriteria criteria = toValidCriteria(filter);
+        FilterCommand command = FilterCommand.fromCriteria(criteria);
+
+        // Identical concurrent queries share one computation, correction included;
+        // results of a versioned catalog are also reused until a reload bumps its version
+        return queryCache.get(productRepository.version(), criteria, () -> command.execute(this, productRepository));
     }
 
     @Override
@@ -118,6 +140,82 @@ public class ProductService implements ProductUseCase {
         return products;
     }
 
+    @Override
+    public ProductList getProductsMatching(ProductCriteria criteria) {
+        logger.info("Getting products matching: {}", criteria);
+
+        if (criteria.hasPriceRange()) {
+            validatePriceRange(criteria.minPrice(), criteria.maxPrice());
+        }
+
+        ProductList products = productRepository.findMatching(criteria);
+        logger.debug("Found {} products matching {} criteria", products.items().size(), criteria.size());
+        logCorrection(criteria, products.didYouMean());
+
+        return products;
+    }
+
+    @Override
+    public ProductPage getProductPage(FilterRequest filterRequest, int limit, String cursor) {
+        logger.info("Getting page of {} products", limit);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductCriteria criteria = toValidCriteria(filterRequest);
+
+        ProductPage page = productRepository.findPage(criteria, limit, cursor);
+        logger.debug("Found {} products in page, next cursor: {}", page.items().size(), page.nextCursor());
+        logCorrection(criteria, page.didYouMean());
+
+        return page;
+    }
+
+    @Override
+    public ProductFacets getProductFacets(FilterRequest filterRequest) {
+        logger.info("Getting product facets");
+
+        ProductCriteria criteria = toValidCriteria(filterRequest);
+
+        ProductFacets facets = productRepository.findFacets(criteria);
+        logger.debug("Counted facets of {} products", facets.total());
+
+        return facets;
+    }
+
+    @Override
+    public List<ProductGroupStats> getAggregations(String groupBy) {
+        logger.info("Getting product aggregations by: {}", groupBy);
+
+        ProductGrouping grouping = ProductGrouping.fromParameter(groupBy);
+
+        List<ProductGroupStats> stats = productRepository.aggregate(grouping);
+        logger.debug("Found {} groups by {}", stats.size(), grouping.parameter());
+
+        return stats;
+    }
+
+    /**
+     * Logs the correction the repository applied to the search term, if any.
+     */
+    private void logCorrection(ProductCriteria criteria, String correction) {
+        if (correction != null) {
+            logger.debug("Search term '{}' corrected to '{}'", criteria.searchTerm(), correction);
+        }
+    }
+
+    @Override
+    public List<SuggestionEntity> getSuggestions(String prefix, int limit) {
+        logger.debug("Getting suggestions for prefix: {}", prefix);
+
+        validateNonBlankString(prefix, "Prefix");
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return productRepository.suggest(prefix.trim(), limit);
+    }
+
     @Override
     public boolean productExists(String productId) {
         logger.debug("Checking if product exists: {}", productId);
@@ -127,6 +225,20 @@ public class ProductService implements ProductUseCase {
         return productRepository.existsById(productId);
     }
 
+    @Override
+    public long countProducts(FilterRequest filterRequest) {
+        ProductCriteria criteria = toValidCriteria(filterRequest);
+        if (criteria.size() == 0) {
+            return getTotalProductCount();
+        }
+        logger.debug("Counting products matching: {}", criteria);
+
+        long count = productRepository.countMatching(criteria);
+        logger.debug("Found {} products matching {} criteria", count, criteria.size());
+
+        return count;
+    }
+
     @Override
     public long getTotalProductCount() {
         logger.debug("Getting total product count");
@@ -153,6 +265,18 @@ public class ProductService implements ProductUseCase {
         }
     }
 
+    /**
+     * Converts the filter into criteria, validating the price range whenever one is requested.
+     * A requested range without prices must be rejected here: its criteria match every
+     * product and would otherwise be answered like an empty filter.
+     */
+    private ProductCriteria toValidCriteria(FilterRequest filter) {
+        if (filter.rangePrice() != null && filter.rangePrice()) {
+            validatePriceRange(filter.minPrice(), filter.maxPrice());
+        }
+        return FilterCommand.toCriteria(filter);
+    }
+
     /**
      * Validates the price range.
      */
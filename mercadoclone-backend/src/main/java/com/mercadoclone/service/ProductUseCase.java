@@ -1,6 +1,12 @@
 package com.mercadoclone.service;
 
 import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
 import com.mercadoclone.dto.request.FilterRequest;
 
 import java.util.List;
@@ -24,6 +30,16 @@ public interface ProductUseCase {
      */
     List<ProductEntity> findAllWithCommandPattern(FilterRequest filterRequest);
 
+    /**
+     * Lists the products matching the filter together with the spelling
+     * correction a misspelled search value was answered with.
+     *
+     * @param filterRequest the filter request containing criteria for filtering products
+     * @return the matching products and the applied correction, if any
+     * @throws IllegalArgumentException if the filter is invalid
+     */
+    ProductList findProducts(FilterRequest filterRequest);
+
     /**
      * Finds products by category.
      *
@@ -75,6 +91,57 @@ public interface ProductUseCase {
      */
     List<ProductEntity> getProductsByPriceRange(Double minPrice, Double maxPrice);
 
+    /**
+     * Finds products matching every given criterion.
+     *
+     * @param criteria the combined criteria
+     * @return products matching all criteria, with the correction applied to the search term
+     * @throws IllegalArgumentException if the price range is invalid
+     */
+    ProductList getProductsMatching(ProductCriteria criteria);
+
+    /**
+     * Returns one page of the products matching the filter, in the order of
+     * {@link #findAllWithCommandPattern(FilterRequest)}.
+     *
+     * @param filterRequest the filter request containing criteria for filtering products
+     * @param limit         maximum number of products in the page
+     * @param cursor        the next cursor of the previous page, or null for the first page
+     * @return the page and the cursor of the next one
+     * @throws IllegalArgumentException if the limit is out of range, the cursor is invalid or the price range is invalid
+     */
+    ProductPage getProductPage(FilterRequest filterRequest, int limit, String cursor);
+
+    /**
+     * Counts the products matching the filter per brand, category, discount
+     * bucket and price bucket, and how many are available, ship for free and
+     * accept installments.
+     *
+     * @param filterRequest the filter request containing criteria for filtering products
+     * @return the facet counts
+     * @throws IllegalArgumentException if the price range is invalid
+     */
+    ProductFacets getProductFacets(FilterRequest filterRequest);
+
+    /**
+     * Returns the price distribution (min, max, mean, p50, p90) and average rating of each group.
+     *
+     * @param groupBy the grouping: category, brand or seller
+     * @return the statistics of each group, largest groups first
+     * @throws IllegalArgumentException if the grouping is unknown
+     */
+    List<ProductGroupStats> getAggregations(String groupBy);
+
+    /**
+     * Suggests titles, brands and category names completing a prefix, most rated first.
+     *
+     * @param prefix the typed prefix
+     * @param limit  maximum number of suggestions
+     * @return list of suggestions
+     * @throws IllegalArgumentException if the prefix is blank or the limit is out of range
+     */
+    List<SuggestionEntity> getSuggestions(String prefix, int limit);
+
     /**
      * Checks if a product exists.
      *
@@ -83,6 +150,15 @@ public interface ProductUseCase {
      */
     boolean productExists(String productId);
 
+    /**
+     * Counts the products matching the filter, without listing them.
+     *
+     * @param filterRequest the filter request containing criteria for filtering products
+     * @return number of matching products (all products when the filter is empty)
+     * @throws IllegalArgumentException if the price range is invalid
+     */
+    long countProducts(FilterRequest filterRequest);
+
     /**
      * Returns the total number of registered products.
      *
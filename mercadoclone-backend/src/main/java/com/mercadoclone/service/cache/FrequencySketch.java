@@ -0,0 +1,86 @@
+package com.mercadoclone.service.cache;
+
+/**
+ * Approximate access frequency of keys (count-min sketch with 4-bit counters).
+ *
+ * Every key owns one counter in each of four rows, picked by four hashes; its
+ * frequency is the smallest of them, so collisions can only overestimate.
+ * Sixteen counters are packed in a long and saturate at 15. After ten
+ * increments per cache entry every counter is halved, so the sketch follows
+ * the recent popularity of keys instead of their all-time counts.
+ *
+ * Not thread-safe; guarded by the owning cache.
+ *
+ * @author MercadoClone Team
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+        this.table = new long[size];
+        this.sampleSize = 10 * Math.max(capacity, 1);
+    }
+
+    /**
+     * Returns the estimated recent frequency of the key, from 0 to 15.
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long slot = slot(hash, row);
+            frequency = Math.min(frequency, (int) ((table[index(slot)] >>> offset(slot)) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    /**
+     * Counts one access to the key, halving every counter once the sample is full.
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long slot = slot(hash, row);
+            int index = index(slot);
+            int offset = offset(slot);
+            if (((table[index] >>> offset) & MAX_COUNT) < MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+    }
+
+    private long slot(int hash, int row) {
+        long slot = (hash + SEEDS[row]) * SEEDS[row];
+        return slot + (slot >>> 32);
+    }
+
+    private int index(long slot) {
+        return (int) slot & (table.length - 1);
+    }
+
+    private static int offset(long slot) {
+        return (int) (slot >>> 60) << 2;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
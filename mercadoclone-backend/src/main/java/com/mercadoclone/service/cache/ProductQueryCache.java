@@ -0,0 +1,117 @@
+package com.mercadoclone.service.cache;
+
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductList;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+
+/**
+ * Results of product list queries, keyed by the criteria and the catalog version.
+ *
+ * The criteria must be the ones the loader executes: normalizing them here
+ * only would let a query that found nothing answer for one that matches.
+ *
+ * A catalog reload bumps the repository version, so entries of the previous
+ * catalog simply stop matching: they are never cleared, but are evicted
+ * first when room is needed. Popularity is tracked per criteria across
+ * versions, so a popular query stays admitted after a reload.
+ *
+ * Misses are computed through a {@link SingleFlight}: identical queries
+ * arriving while the first one is computed wait for it and share its result,
+ * instead of scanning the catalog once each. Queries of an unversioned
+ * repository (negative version) are coalesced but never cached.
+ *
+ * Hits, misses, evictions and size are exported as the standard
+ * {@code cache.*} meters, tagged {@code cache=productQueries}, and the
+ * coalesced queries as {@code cache.coalesced}.
+ *
+ * @author MercadoClone Team
+ */
+@Component
+public class ProductQueryCache implements MeterBinder {
+
+    static final String NAME = "productQueries";
+
+    /**
+     * Cache key: the criteria as executed (normalized once by the caller) and the catalog version.
+     */
+    record Key(long version, ProductCriteria criteria) {
+    }
+
+    private final TinyLfuCache<Key, ProductList> cache;
+    private final SingleFlight<Key, ProductList> inFlight = new SingleFlight<>();
+    private volatile long latestVersion;
+
+    public ProductQueryCache(@Value("${app.cache.product-queries.max-entries:1000}") int maxEntries) {
+        this.cache = new TinyLfuCache<>(maxEntries, Key::criteria, key -> key.version() < latestVersion);
+    }
+
+    /**
+     * Returns the cached result of the query, computing and caching it on a miss.
+     *
+     * The result, products and spelling correction together, is shared by
+     * every caller and therefore unmodifiable.
+     *
+     * @param version  the catalog version the result is computed from, or negative when the catalog is not versioned
+     * @param criteria the query, exactly as the loader runs it
+     * @param loader   computes the result on a miss
+     */
+    public ProductList get(long version, ProductCriteria criteria, Supplier<ProductList> loader) {
+        if (version > latestVersion) {
+            latestVersion = version;
+        }
+        Key key = new Key(version, criteria);
+        if (version < 0) {
+            return inFlight.execute(key, () -> unmodifiable(loader.get()));
+        }
+        ProductList cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        return inFlight.execute(key, () -> {
+            ProductList result = unmodifiable(loader.get());
+            cache.put(key, result);
+            return result;
+        });
+    }
+
+    private static ProductList unmodifiable(ProductList result) {
+        return new ProductList(Collections.unmodifiableList(result.items()), result.didYouMean());
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", cache, TinyLfuCache::hitCount)
+                .tag("cache", NAME).tag("result", "hit")
+                .description("Product queries answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, TinyLfuCache::missCount)
+                .tag("cache", NAME).tag("result", "miss")
+                .description("Product queries computed because they were not cached")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, TinyLfuCache::evictionCount)
+                .tag("cache", NAME)
+                .description("Product query results evicted or rejected by admission")
+                .register(registry);
+        FunctionCounter.builder("cache.coalesced", inFlight, SingleFlight::coalescedCount)
+                .tag("cache", NAME)
+                .description("Product queries that waited for an identical query already being computed")
+                .register(registry);
+        Gauge.builder("cache.size", cache, TinyLfuCache::size)
+                .tag("cache", NAME)
+                .description("Product query results currently cached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,240 @@
+package com.mercadoclone.service.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache with W-TinyLFU admission and eviction.
+ *
+ * New entries enter a small LRU window (1% of the capacity). An entry leaving
+ * the window competes with the least recently used entry of the main region:
+ * whichever key was requested more often recently, according to a
+ * {@link FrequencySketch}, stays. A burst of one-off keys therefore only
+ * churns the window and cannot flush the entries requested over and over.
+ * The main region is a segmented LRU: entries hit again while on probation
+ * move to the protected segment (80% of the main region).
+ *
+ * Entries reported stale are evicted before any admission contest, so keys
+ * of an outdated version make room for their replacements instead of holding
+ * on to the frequency they earned.
+ *
+ * All operations take the cache lock; they only move a few links.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author MercadoClone Team
+ */
+public final class TinyLfuCache<K, V> {
+
+    private enum Region { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Node<K, V> {
+        K key;
+        V value;
+        Region region;
+        Node<K, V> previous;
+        Node<K, V> next;
+    }
+
+    /**
+     * Circular doubly linked list with a sentinel, least recently used first.
+     */
+    private static final class AccessQueue<K, V> {
+
+        private final Node<K, V> sentinel = new Node<>();
+        private int size;
+
+        AccessQueue() {
+            sentinel.previous = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        Node<K, V> first() {
+            return size == 0 ? null : sentinel.next;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.previous = sentinel.previous;
+            node.next = sentinel;
+            sentinel.previous.next = node;
+            sentinel.previous = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            node.previous = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            remove(node);
+            addLast(node);
+        }
+    }
+
+    private final int capacity;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final Function<K, ?> frequencyKey;
+    private final Predicate<K> stale;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+    private final FrequencySketch sketch;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache counting the frequency of keys themselves and never reporting stale entries.
+     */
+    public TinyLfuCache(int capacity) {
+        this(capacity, key -> key, key -> false);
+    }
+
+    /**
+     * @param capacity     maximum number of entries (0 disables the cache)
+     * @param frequencyKey the part of a key whose popularity is tracked
+     * @param stale        whether an entry can be evicted without competing for its place
+     */
+    public TinyLfuCache(int capacity, Function<K, ?> frequencyKey, Predicate<K> stale) {
+        this.capacity = Math.max(capacity, 0);
+        this.windowCapacity = Math.max(1, this.capacity / 100);
+        this.protectedCapacity = (int) ((this.capacity - windowCapacity) * 0.8);
+        this.frequencyKey = frequencyKey;
+        this.stale = stale;
+        this.sketch = new FrequencySketch(this.capacity);
+    }
+
+    /**
+     * Returns the cached value, or null, counting the request towards the key's frequency.
+     */
+    public synchronized V get(K key) {
+        if (capacity == 0) {
+            missCount++;
+            return null;
+        }
+        sketch.increment(frequencyKey.apply(key));
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        touch(node);
+        return node.value;
+    }
+
+    /**
+     * Caches a value; it enters the window and may later be rejected in favour of more popular entries.
+     */
+    public synchronized void put(K key, V value) {
+        if (capacity == 0) {
+            return;
+        }
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            node.value = value;
+            touch(node);
+            return;
+        }
+
+        node = new Node<>();
+        node.key = key;
+        node.value = value;
+        node.region = Region.WINDOW;
+        nodes.put(key, node);
+        window.addLast(node);
+
+        if (window.size > windowCapacity) {
+            Node<K, V> candidate = window.first();
+            window.remove(candidate);
+            candidate.region = Region.PROBATION;
+            probation.addLast(candidate);
+            if (nodes.size() > capacity) {
+                evict(candidate);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    private void touch(Node<K, V> node) {
+        switch (node.region) {
+            case WINDOW -> window.moveToLast(node);
+            case PROTECTED -> protectedQueue.moveToLast(node);
+            case PROBATION -> {
+                probation.remove(node);
+                node.region = Region.PROTECTED;
+                protectedQueue.addLast(node);
+                if (protectedQueue.size > protectedCapacity) {
+                    Node<K, V> demoted = protectedQueue.first();
+                    protectedQueue.remove(demoted);
+                    demoted.region = Region.PROBATION;
+                    probation.addLast(demoted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts either the candidate leaving the window or the main region's victim, keeping the more frequent one.
+     * A stale entry at the head of a main segment goes first.
+     */
+    private void evict(Node<K, V> candidate) {
+        if (evictStale(probation.first(), candidate) || evictStale(protectedQueue.first(), candidate)) {
+            return;
+        }
+        Node<K, V> victim = probation.first();
+        if (victim == candidate) {
+            victim = protectedQueue.first();
+        }
+        if (victim == null || stale.test(candidate.key)) {
+            remove(candidate);
+        } else if (sketch.frequency(frequencyKey.apply(candidate.key))
+                > sketch.frequency(frequencyKey.apply(victim.key))) {
+            remove(victim);
+        } else {
+            remove(candidate);
+        }
+    }
+
+    private boolean evictStale(Node<K, V> head, Node<K, V> candidate) {
+        if (head == null || head == candidate || !stale.test(head.key)) {
+            return false;
+        }
+        remove(head);
+        return true;
+    }
+
+    private void remove(Node<K, V> node) {
+        switch (node.region) {
+            case WINDOW -> window.remove(node);
+            case PROBATION -> probation.remove(node);
+            case PROTECTED -> protectedQueue.remove(node);
+        }
+        nodes.remove(node.key);
+        evictionCount++;
+    }
+}
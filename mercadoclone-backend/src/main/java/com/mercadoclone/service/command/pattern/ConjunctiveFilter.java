@@ -0,0 +1,12 @@
+package com.mercadoclone.service.command.pattern;
+
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductRepository;
+import com.mercadoclone.service.ProductService;
+
+public record ConjunctiveFilter(ProductCriteria criteria) implements FilterCommand {
+    public ProductList execute(ProductService service, ProductRepository repository) {
+        return service.getProductsMatching(criteria);
+    }
+}
@@ -1,13 +1,11 @@
 package com.mercadoclone.service.command.pattern;
 
-import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.repository.ProductList;
 import com.mercadoclone.domain.repository.ProductRepository;
 import com.mercadoclone.service.ProductService;
 
-import java.util.List;
-
 public record DiscountedFilter() implements FilterCommand {
-    public List<ProductEntity> execute(ProductService service, ProductRepository repository) {
-        return service.getProductsWithDiscount();
+    public ProductList execute(ProductService service, ProductRepository repository) {
+        return new ProductList(service.getProductsWithDiscount());
     }
 }
@@ -1,34 +1,64 @@
 package com.mercadoclone.service.command.pattern;
 
-import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductList;
 import com.mercadoclone.domain.repository.ProductRepository;
+import com.mercadoclone.domain.repository.ProductSort;
 import com.mercadoclone.dto.request.FilterRequest;
 import com.mercadoclone.service.ProductService;
 import io.micrometer.common.util.StringUtils;
 
-import java.util.List;
-
 public sealed interface FilterCommand
         permits CategoryFilter, BrandFilter, SearchFilter, AvailableFilter,
-        DiscountedFilter, PriceRangeFilter, NoFilter {
+        DiscountedFilter, PriceRangeFilter, ConjunctiveFilter, NoFilter {
 
-    List<ProductEntity> execute(ProductService service, ProductRepository repository);
+    ProductList execute(ProductService service, ProductRepository repository);
 
     static FilterCommand fromRequest(FilterRequest filter) {
-        if (StringUtils.isNotBlank(filter.categoryId()))
-            return new CategoryFilter(filter.categoryId());
-        if (StringUtils.isNotBlank(filter.brandId()))
-            return new BrandFilter(filter.brandId());
-        if (StringUtils.isNotBlank(filter.value()))
-            return new SearchFilter(filter.value());
-        if (filter.available() != null && filter.available())
+        return fromCriteria(toCriteria(filter));
+    }
+
+    /**
+     * Picks the command for already normalized criteria, so the command runs
+     * exactly the query that {@link #toCriteria(FilterRequest)} describes.
+     */
+    static FilterCommand fromCriteria(ProductCriteria criteria) {
+        if (criteria.size() > 1 || criteria.hasSort())
+            return new ConjunctiveFilter(criteria);
+        if (criteria.hasCategory())
+            return new CategoryFilter(criteria.categoryId());
+        if (criteria.hasBrand())
+            return new BrandFilter(criteria.brand());
+        if (criteria.hasSearchTerm())
+            return new SearchFilter(criteria.searchTerm());
+        if (criteria.available())
             return new AvailableFilter();
-        if (filter.discounted() != null && filter.discounted())
+        if (criteria.discounted())
             return new DiscountedFilter();
-        if (filter.rangePrice() != null && filter.rangePrice())
-            return new PriceRangeFilter(filter.minPrice(), filter.maxPrice());
+        if (criteria.hasPriceRange())
+            return new PriceRangeFilter(criteria.minPrice(), criteria.maxPrice());
         return new NoFilter();
     }
+
+    /**
+     * Converts the request into criteria, trimming texts and dropping blank ones.
+     */
+    static ProductCriteria toCriteria(FilterRequest filter) {
+        boolean rangePrice = filter.rangePrice() != null && filter.rangePrice();
+        return new ProductCriteria(
+                text(filter.categoryId()),
+                text(filter.brandId()),
+                text(filter.value()),
+                filter.available() != null && filter.available(),
+                filter.discounted() != null && filter.discounted(),
+                rangePrice ? filter.minPrice() : null,
+                rangePrice ? filter.maxPrice() : null,
+                ProductSort.fromParameter(filter.sort()));
+    }
+
+    private static String text(String value) {
+        return StringUtils.isBlank(value) ? null : value.trim();
+    }
 }
 
 
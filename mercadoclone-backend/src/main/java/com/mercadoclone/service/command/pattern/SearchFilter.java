@@ -1,13 +1,13 @@
 package com.mercadoclone.service.command.pattern;
 
-import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductList;
 import com.mercadoclone.domain.repository.ProductRepository;
 import com.mercadoclone.service.ProductService;
 
-import java.util.List;
-
 public record SearchFilter(String searchTerm) implements FilterCommand {
-    public List<ProductEntity> execute(ProductService service, ProductRepository repository) {
-        return service.searchProducts(searchTerm);
+    public ProductList execute(ProductService service, ProductRepository repository) {
+        // Matched as criteria, so the correction of a misspelled term comes with the products
+        return service.getProductsMatching(new ProductCriteria(null, null, searchTerm, false, false, null, null));
     }
 }
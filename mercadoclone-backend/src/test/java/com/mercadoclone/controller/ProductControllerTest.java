@@ -2,6 +2,11 @@ package com.mercadoclone.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
 import com.mercadoclone.dto.mapper.ProductMapper;
 import com.mercadoclone.dto.response.ProductResponse;
 import com.mercadoclone.exception.ProductNotFoundException;
@@ -86,7 +91,7 @@ class ProductControllerTest {
                 new ProductEntity("product-002", "Product 2", "Description 2")
         );
 
-        when(productService.findAllWithCommandPattern(ArgumentMatchers.any())).thenReturn(products);
+        when(productService.findProducts(ArgumentMatchers.any())).thenReturn(new ProductList(products));
 
         // Mock the mapper to return a list of DTOs
         List<ProductResponse> responseList = productMapperInstance.toResponseList(products);
@@ -101,10 +106,52 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.data[1].id", is("product-002")));
     }
 
+    @Test
+    @DisplayName("Should report the corrected search term with the results")
+    void shouldReportCorrectedSearchTerm() throws Exception {
+        // Given
+        List<ProductEntity> products = List.of(new ProductEntity("product-001", "Samsung Galaxy", "Smartphone"));
+        when(productService.findProducts(ArgumentMatchers.any()))
+                .thenReturn(new ProductList(products, "samsung"), new ProductList(products));
+        when(productMapper.toResponseList(products)).thenReturn(productMapperInstance.toResponseList(products));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products").param("value", "samsumg"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.meta.didYouMean", is("samsung")));
+
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meta").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return a page and its next cursor when a limit is given")
+    void shouldReturnPageWithNextCursor() throws Exception {
+        // Given
+        List<ProductEntity> products = List.of(new ProductEntity("product-001", "Samsung Galaxy", "Smartphone"));
+        when(productService.getProductPage(ArgumentMatchers.any(), ArgumentMatchers.eq(1), ArgumentMatchers.isNull()))
+                .thenReturn(new ProductPage(products, "next-page"));
+        when(productService.getProductPage(ArgumentMatchers.any(), ArgumentMatchers.eq(20), ArgumentMatchers.eq("next-page")))
+                .thenReturn(new ProductPage(List.of(), null));
+        when(productMapper.toResponseList(products)).thenReturn(productMapperInstance.toResponseList(products));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.meta.nextCursor", is("next-page")));
+
+        mockMvc.perform(get("/api/v1/products").param("cursor", "next-page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meta").doesNotExist());
+    }
+
     @Test
     @DisplayName("Should return 400 for invalid price range")
     void shouldReturn400ForInvalidPriceRange() throws Exception {
-        when(productService.findAllWithCommandPattern(ArgumentMatchers.any()))
+        when(productService.findProducts(ArgumentMatchers.any()))
                 .thenThrow(new IllegalArgumentException("Invalid price range"));
 
         // When & Then
@@ -121,6 +168,7 @@ class ProductControllerTest {
     void shouldHandleSearchWithEmptyResults() throws Exception {
         // Given
         when(productService.searchProducts("nonexistent")).thenReturn(Arrays.asList());
+        when(productService.findProducts(ArgumentMatchers.any())).thenReturn(new ProductList(Arrays.asList()));
 
         // When & Then
         mockMvc.perform(get("/api/v1/products")
@@ -135,7 +183,7 @@ class ProductControllerTest {
     void shouldReturnTotalProductCountSuccessfully() throws Exception {
         // Given
         long expectedCount = 150L;
-        when(productService.getTotalProductCount()).thenReturn(expectedCount);
+        when(productService.countProducts(ArgumentMatchers.any())).thenReturn(expectedCount);
 
         // When & Then
         mockMvc.perform(get("/api/v1/products/count"))
@@ -145,6 +193,82 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.data", is(150)));
     }
 
+    @Test
+    @DisplayName("Should return suggestions for a prefix")
+    void shouldReturnSuggestionsForPrefix() throws Exception {
+        // Given
+        List<SuggestionEntity> suggestions = List.of(
+                new SuggestionEntity("Samsung", SuggestionEntity.Type.BRAND, 170));
+        when(productService.getSuggestions("sam", 5)).thenReturn(suggestions);
+        when(productMapper.toSuggestionResponseList(suggestions))
+                .thenReturn(productMapperInstance.toSuggestionResponseList(suggestions));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/suggest").param("prefix", "sam").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data[0].text", is("Samsung")))
+                .andExpect(jsonPath("$.data[0].type", is("BRAND")));
+    }
+
+    @Test
+    @DisplayName("Should answer 501 when the repository does not support suggestions")
+    void shouldReturnNotImplementedForUnsupportedSuggestions() throws Exception {
+        // Given
+        when(productService.getSuggestions("sam", 5))
+                .thenThrow(new UnsupportedOperationException("Suggestions are not supported by the mapped repository"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/suggest").param("prefix", "sam").param("limit", "5"))
+                .andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.code", is("NOT_SUPPORTED")));
+    }
+
+    @Test
+    @DisplayName("Should return facet counts for the filter")
+    void shouldReturnFacetCounts() throws Exception {
+        // Given
+        ProductFacets facets = new ProductFacets(3,
+                List.of(new ProductFacets.Term("Samsung", "Samsung", 2)),
+                List.of(new ProductFacets.Term("cat-electronics", "Eletrônicos", 3)),
+                List.of(new ProductFacets.Range(10, 20.0, 1)),
+                List.of(new ProductFacets.Range(0, 1000.0, 1), new ProductFacets.Range(1000, null, 2)),
+                3, 2, 1);
+        when(productService.getProductFacets(ArgumentMatchers.any())).thenReturn(facets);
+        when(productMapper.toFacetsResponse(facets)).thenReturn(productMapperInstance.toFacetsResponse(facets));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/facets").param("categoryId", "cat-electronics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data.total", is(3)))
+                .andExpect(jsonPath("$.data.brands[0].value", is("Samsung")))
+                .andExpect(jsonPath("$.data.brands[0].count", is(2)))
+                .andExpect(jsonPath("$.data.categories[0].label", is("Eletrônicos")))
+                .andExpect(jsonPath("$.data.prices[1].from", is(1000.0)))
+                .andExpect(jsonPath("$.data.prices[1].to", nullValue()))
+                .andExpect(jsonPath("$.data.installments", is(1)));
+    }
+
+    @Test
+    @DisplayName("Should return price and rating statistics per group")
+    void shouldReturnAggregations() throws Exception {
+        // Given
+        List<ProductGroupStats> stats = List.of(
+                new ProductGroupStats("cat-electronics", "Eletrônicos", 3, 100.0, 900.0, 400.0, 200.0, 900.0, 4.5));
+        when(productService.getAggregations("category")).thenReturn(stats);
+        when(productMapper.toGroupStatsResponseList(stats)).thenReturn(productMapperInstance.toGroupStatsResponseList(stats));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/aggregations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data[0].key", is("cat-electronics")))
+                .andExpect(jsonPath("$.data[0].p90_price", is(900.0)))
+                .andExpect(jsonPath("$.data[0].average_rating", is(4.5)));
+    }
+
     @Test
     @DisplayName("Should return true when product exists")
     void shouldReturnTrueWhenProductExists() throws Exception {
@@ -184,7 +308,7 @@ class ProductControllerTest {
                 new ProductEntity("product-002", "Samsung TV", "Samsung television")
         );
 
-        when(productService.findAllWithCommandPattern(ArgumentMatchers.any())).thenReturn(products);
+        when(productService.findProducts(ArgumentMatchers.any())).thenReturn(new ProductList(products));
 
         List<ProductResponse> responseList = productMapperInstance.toResponseList(products);
         when(productMapper.toResponseList(products)).thenReturn(responseList);
@@ -208,7 +332,7 @@ class ProductControllerTest {
                 new ProductEntity("product-002", "Available Product 2", "Description 2")
         );
 
-        when(productService.findAllWithCommandPattern(ArgumentMatchers.any())).thenReturn(products);
+        when(productService.findProducts(ArgumentMatchers.any())).thenReturn(new ProductList(products));
 
         List<ProductResponse> responseList = productMapperInstance.toResponseList(products);
         when(productMapper.toResponseList(products)).thenReturn(responseList);
@@ -232,7 +356,7 @@ class ProductControllerTest {
                 new ProductEntity("product-002", "Discounted Product 2", "Another discounted product")
         );
 
-        when(productService.findAllWithCommandPattern(ArgumentMatchers.any())).thenReturn(products);
+        when(productService.findProducts(ArgumentMatchers.any())).thenReturn(new ProductList(products));
 
         List<ProductResponse> responseList = productMapperInstance.toResponseList(products);
         when(productMapper.toResponseList(products)).thenReturn(responseList);
@@ -251,7 +375,7 @@ class ProductControllerTest {
     @DisplayName("Should handle empty brand filter results")
     void shouldHandleEmptyBrandFilterResults() throws Exception {
         // Given
-        when(productService.findAllWithCommandPattern(ArgumentMatchers.any())).thenReturn(Arrays.asList());
+        when(productService.findProducts(ArgumentMatchers.any())).thenReturn(new ProductList(Arrays.asList()));
         when(productMapper.toResponseList(Arrays.asList())).thenReturn(Arrays.asList());
 
         // When & Then
@@ -266,7 +390,7 @@ class ProductControllerTest {
     @DisplayName("Should handle empty available products results")
     void shouldHandleEmptyAvailableProductsResults() throws Exception {
         // Given
-        when(productService.findAllWithCommandPattern(ArgumentMatchers.any())).thenReturn(Arrays.asList());
+        when(productService.findProducts(ArgumentMatchers.any())).thenReturn(new ProductList(Arrays.asList()));
         when(productMapper.toResponseList(Arrays.asList())).thenReturn(Arrays.asList());
 
         // When & Then
@@ -281,7 +405,7 @@ class ProductControllerTest {
     @DisplayName("Should handle empty discounted products results")
     void shouldHandleEmptyDiscountedProductsResults() throws Exception {
         // Given
-        when(productService.findAllWithCommandPattern(ArgumentMatchers.any())).thenReturn(Arrays.asList());
+        when(productService.findProducts(ArgumentMatchers.any())).thenReturn(new ProductList(Arrays.asList()));
         when(productMapper.toResponseList(Arrays.asList())).thenReturn(Arrays.asList());
 
         // When & Then
@@ -169,6 +169,22 @@ class ApiResponseTest {
         assertThat(listResponse.getData()).contains("item1", "item2", "item3");
     }
 
+    @Test
+    @DisplayName("Should collect metadata only when added")
+    void shouldCollectMetadataOnlyWhenAdded() {
+        // Given
+        ApiResponse<String> plain = ApiResponse.success("data");
+
+        // When
+        ApiResponse<String> withMeta = ApiResponse.success("data")
+                .withMeta("didYouMean", "samsung")
+                .withMeta("total", 2);
+
+        // Then
+        assertThat(plain.getMeta()).isNull();
+        assertThat(withMeta.getMeta()).containsExactly(Map.entry("didYouMean", "samsung"), Map.entry("total", 2));
+    }
+
     @Test
     @DisplayName("Should set timestamp automatically in all constructors")
     void shouldSetTimestampAutomaticallyInAllConstructors() {
@@ -0,0 +1,81 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.config.JacksonConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("CatalogFileWatcher Tests")
+class CatalogFileWatcherTest {
+
+    private static final String IMAGES_BASE_URL = "http://localhost:3001/images/products";
+
+    @TempDir
+    Path dataDir;
+
+    private CatalogFileWatcher watcher;
+
+    @AfterEach
+    void tearDown() {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply changes when the products file is rewritten")
+    void shouldApplyChangesWhenProductsFileIsRewritten() throws IOException {
+        // Given
+        Path file = dataDir.resolve("products.json");
+        Files.writeString(file, "[{\"id\":\"1\",\"title\":\"One\"}]");
+        JsonProductRepository repository = startWatching(file);
+
+        // When
+        Files.writeString(file, "[{\"id\":\"1\",\"title\":\"One\"},{\"id\":\"2\",\"title\":\"Two\"}]");
+
+        // Then
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(repository.existsById("2")).isTrue());
+    }
+
+    @Test
+    @DisplayName("Should pick up new shards dropped into the products directory")
+    void shouldPickUpNewShards() throws IOException {
+        // Given
+        Files.writeString(dataDir.resolve("part-1.json"), "[{\"id\":\"1\",\"title\":\"One\"}]");
+        JsonProductRepository repository = startWatching(dataDir);
+
+        // When
+        Files.writeString(dataDir.resolve("part-2.json"), "[{\"id\":\"2\",\"title\":\"Two\"}]");
+
+        // Then
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(repository.count()).isEqualTo(2));
+    }
+
+    private JsonProductRepository startWatching(Path location) {
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+        String productsFile = location.toUri().toString();
+
+        JsonProductRepository repository = new JsonProductRepository(
+                new JacksonConfig().objectMapper(), resourceLoader, productsFile, IMAGES_BASE_URL
+        );
+        ReflectionTestUtils.setField(repository, "trackContentHashes", true);
+        repository.loadData();
+
+        watcher = new CatalogFileWatcher(repository, resourceLoader, productsFile, 50);
+        watcher.start();
+        return repository;
+    }
+}
@@ -2,25 +2,47 @@ package com.mercadoclone.infrastructure.persistence;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadoclone.config.JacksonConfig;
 import com.mercadoclone.domain.entity.*;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.domain.repository.ProductGrouping;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
+import com.mercadoclone.domain.repository.ProductSort;
 import com.mercadoclone.exception.DataLoadException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -137,6 +159,79 @@ class JsonProductRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Streaming Load Tests")
+    class StreamingLoadTests {
+
+        private final ObjectMapper realObjectMapper = new JacksonConfig().objectMapper();
+
+        private JsonProductRepository streamingRepository;
+
+        @BeforeEach
+        void setUpStreamingRepository() {
+            streamingRepository = new JsonProductRepository(
+                    realObjectMapper, resourceLoader, PRODUCTS_FILE_PATH, IMAGES_BASE_URL
+            );
+            ReflectionTestUtils.setField(streamingRepository, "streamingLoad", true);
+        }
+
+        @Test
+        @DisplayName("Should load products one at a time from a JSON array")
+        void shouldLoadProductsFromJsonArray() throws IOException {
+            // Given
+            String jsonData = "[{\"id\":\"1\",\"title\":\"Product 1\",\"images\":[{\"url\":\"one.jpg\"}]}," +
+                    "{\"id\":\"2\",\"title\":\"Product 2\"}]";
+
+            when(resourceLoader.getResource(PRODUCTS_FILE_PATH)).thenReturn(resource);
+            when(resource.exists()).thenReturn(true);
+            when(resource.getInputStream()).thenReturn(new ByteArrayInputStream(jsonData.getBytes(StandardCharsets.UTF_8)));
+
+            // When
+            streamingRepository.loadData();
+
+            // Then
+            assertThat(streamingRepository.getCacheSize()).isEqualTo(2);
+            assertThat(streamingRepository.findById("1")).get()
+                    .extracting(product -> product.getImages().get(0).getUrl())
+                    .isEqualTo(IMAGES_BASE_URL + "/one.jpg");
+        }
+
+        @Test
+        @DisplayName("Should read gzip compressed catalogs transparently")
+        void shouldReadGzipCompressedCatalog() throws IOException {
+            // Given
+            String jsonData = "[{\"id\":\"1\",\"title\":\"Product 1\"}]";
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(jsonData.getBytes(StandardCharsets.UTF_8));
+            }
+
+            when(resourceLoader.getResource(PRODUCTS_FILE_PATH)).thenReturn(resource);
+            when(resource.exists()).thenReturn(true);
+            when(resource.getInputStream()).thenReturn(new ByteArrayInputStream(compressed.toByteArray()));
+
+            // When
+            streamingRepository.loadData();
+
+            // Then
+            assertThat(streamingRepository.existsById("1")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reject files that are not a JSON array")
+        void shouldRejectNonArrayDocument() throws IOException {
+            // Given
+            when(resourceLoader.getResource(PRODUCTS_FILE_PATH)).thenReturn(resource);
+            when(resource.exists()).thenReturn(true);
+            when(resource.getInputStream()).thenReturn(new ByteArrayInputStream("{\"id\":\"1\"}".getBytes()));
+
+            // When & Then
+            assertThatThrownBy(() -> streamingRepository.loadData())
+                    .isInstanceOf(DataLoadException.class)
+                    .hasMessageContaining("JSON array");
+        }
+    }
+
     @Nested
     @DisplayName("Find Operations Tests")
     class FindOperationsTests {
@@ -152,112 +247,1167 @@ class JsonProductRepositoryTest {
             // When
             Optional<ProductEntity> result = repository.findById("1");
 
-            // Then
-            assertThat(result).isPresent();
-            assertThat(result.get().getId()).isEqualTo("1");
-            assertThat(result.get().getTitle()).isEqualTo("Smartphone Samsung");
+            // Then
+            assertThat(result).isPresent();
+            assertThat(result.get().getId()).isEqualTo("1");
+            assertThat(result.get().getTitle()).isEqualTo("Smartphone Samsung");
+        }
+
+        @Test
+        @DisplayName("Should return empty when product not found")
+        void shouldReturnEmptyWhenProductNotFound() {
+            // When
+            Optional<ProductEntity> result = repository.findById("999");
+
+            // Then
+            assertThat(result).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should find all products")
+        void shouldFindAllProducts() {
+            // When
+            List<ProductEntity> result = repository.findAll();
+
+            // Then
+            assertThat(result).hasSize(mockProducts.size());
+            assertThat(result).extracting(ProductEntity::getId)
+                    .containsExactlyInAnyOrder("1", "2", "3");
+        }
+
+        @Test
+        @DisplayName("Should find products by category")
+        void shouldFindProductsByCategory() {
+            // When
+            List<ProductEntity> result = repository.findByCategory("electronics");
+
+            // Then
+            assertThat(result).hasSize(2);
+            assertThat(result).extracting(ProductEntity::getId)
+                    .containsExactlyInAnyOrder("1", "2");
+        }
+
+        @Test
+        @DisplayName("Should find products by brand")
+        void shouldFindProductsByBrand() {
+            // When
+            List<ProductEntity> result = repository.findByBrand("Samsung");
+
+            // Then
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getId()).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("Should serve category and brand lookups from shared unmodifiable lists")
+        void shouldServeLookupsFromSharedLists() {
+            // When
+            List<ProductEntity> byCategory = repository.findByCategory("electronics");
+            List<ProductEntity> byBrand = repository.findByBrand("sAMSUNG");
+
+            // Then
+            assertThat(repository.findByCategory("electronics")).isSameAs(byCategory);
+            assertThat(byBrand).extracting(ProductEntity::getId).containsExactly("1");
+            assertThat(repository.findByBrand("samsung")).isSameAs(byBrand);
+            assertThat(repository.findByCategory("unknown")).isEmpty();
+            assertThatThrownBy(() -> byCategory.add(new ProductEntity()))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should find products by search term in title")
+        void shouldFindProductsBySearchTermInTitle() {
+            // When
+            List<ProductEntity> result = repository.findBySearchTerm("smartphone");
+
+            // Then
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getId()).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("Should find products by search term in description")
+        void shouldFindProductsBySearchTermInDescription() {
+            // When
+            List<ProductEntity> result = repository.findBySearchTerm("avançado");
+
+            // Then
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getId()).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("Should find available products only")
+        void shouldFindAvailableProductsOnly() {
+            // When
+            List<ProductEntity> result = repository.findAvailableProducts();
+
+            // Then
+            assertThat(result).hasSize(3);
+            assertThat(result).extracting(ProductEntity::getId)
+                    .containsExactlyInAnyOrder("1", "2", "3");
+        }
+
+        @Test
+        @DisplayName("Should find products with discount")
+        void shouldFindProductsWithDiscount() {
+            // When
+            List<ProductEntity> result = repository.findProductsWithDiscount();
+
+            // Then
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getId()).isEqualTo("3");
+        }
+
+        @Test
+        @DisplayName("Should find products by price range")
+        void shouldFindProductsByPriceRange() {
+            // When
+            List<ProductEntity> result = repository.findByPriceRange(500.0, 1500.0);
+
+            // Then
+            assertThat(result).hasSize(2);
+            assertThat(result).extracting(ProductEntity::getId)
+                    .containsExactlyInAnyOrder("1", "2");
+        }
+
+        @Test
+        @DisplayName("Should return price range results cheapest first with inclusive bounds")
+        void shouldReturnPriceRangeCheapestFirst() {
+            // Given
+            List<ProductEntity> products = new ArrayList<>(mockProducts);
+            products.add(createProduct("4", "Cadeira", "furniture", "IKEA", 300.0, null, 0, "Cadeira"));
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(2, products));
+
+            // When / Then
+            assertThat(repository.findByPriceRange(0.0, 5000.0)).extracting(ProductEntity::getId)
+                    .containsExactly("3", "4", "1", "2");
+            assertThat(repository.findByPriceRange(300.0, 1000.0)).extracting(ProductEntity::getId)
+                    .containsExactly("3", "4", "1");
+            assertThat(repository.findByPriceRange(1000.01, 1499.99)).isEmpty();
+            assertThat(repository.findByPriceRange(2000.0, 3000.0)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should skip products without price, stock or discount in column scans")
+        void shouldSkipProductsWithMissingFilterFields() {
+            // Given
+            ProductEntity bare = new ProductEntity();
+            bare.setId("4");
+            List<ProductEntity> products = new ArrayList<>(mockProducts);
+            products.add(bare);
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(2, products));
+
+            // When / Then
+            assertThat(repository.findByPriceRange(0.0, Double.MAX_VALUE)).extracting(ProductEntity::getId)
+                    .containsExactlyInAnyOrder("1", "2", "3");
+            assertThat(repository.findAvailableProducts()).extracting(ProductEntity::getId)
+                    .containsExactly("1", "2", "3");
+            assertThat(repository.findProductsWithDiscount()).extracting(ProductEntity::getId)
+                    .containsExactly("3");
+        }
+    }
+
+    @Nested
+    @DisplayName("Text Index Tests")
+    class TextIndexTests {
+
+        @BeforeEach
+        void setUpData() {
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, List.of(
+                    product("1", "Câmera Digital Canon", "Oferta", "Fotografia em alta resolução"),
+                    product("2", "Camera de Segurança", "Oferta", "Visão noturna e ação contínua"),
+                    product("3", "Tripé para Câmeras", "Oferta", "Alumínio, leve")
+            )));
+        }
+
+        @Test
+        @DisplayName("Should fold case and Portuguese accents in both text and query")
+        void shouldFoldCaseAndAccents() {
+            // When / Then
+            assertThat(repository.findBySearchTerm("camera")).extracting(ProductEntity::getId).containsExactly("1", "2");
+            assertThat(repository.findBySearchTerm("CÂMERA")).extracting(ProductEntity::getId).containsExactly("1", "2");
+            assertThat(repository.findBySearchTerm("acao")).extracting(ProductEntity::getId).containsExactly("2");
+            assertThat(repository.findBySearchTerm("aluminio")).extracting(ProductEntity::getId).containsExactly("3");
+        }
+
+        @Test
+        @DisplayName("Should require every query token, in any field")
+        void shouldRequireEveryToken() {
+            // When / Then
+            assertThat(repository.findBySearchTerm("câmera canon")).extracting(ProductEntity::getId).containsExactly("1");
+            assertThat(repository.findBySearchTerm("camera resolução")).extracting(ProductEntity::getId).containsExactly("1");
+            assertThat(repository.findBySearchTerm("oferta")).hasSize(3);
+            assertThat(repository.findBySearchTerm("camera tripé")).isEmpty();
+            assertThat(repository.findBySearchTerm("!!!")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should keep postings per field")
+        void shouldKeepPostingsPerField() {
+            // Given
+            TextIndex index = CatalogSnapshot.of(1, repository.findAll()).textIndex();
+
+            // When / Then
+            assertThat(index.postings(TextIndex.Field.TITLE, "camera").toArray()).containsExactly(0, 1);
+            assertThat(index.postings(TextIndex.Field.DESCRIPTION, "camera").isEmpty()).isTrue();
+            assertThat(index.postings(TextIndex.Field.SHORT_DESCRIPTION, "oferta").cardinality()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("Relevance Ranking Tests")
+    class RelevanceRankingTests {
+
+        @BeforeEach
+        void setUpData() {
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, List.of(
+                    product("1", "Cabo USB", "Acessório", "Cabo reforçado de 1 metro, compatível com carregadores, "
+                            + "fone bluetooth e outros acessórios"),
+                    product("2", "Capa para celular", "Película e fone de brinde incluso na caixa", "Capa de silicone"),
+                    product("3", "Fone Bluetooth JBL", "Fone sem fio", "Fone com cancelamento de ruído"),
+                    product("4", "Fone de ouvido com fio e microfone embutido", "Acessório", "Som estéreo"),
+                    product("5", "Fone Bluetooth", "Sem fio", "Bateria de 20 horas")
+            )));
+        }
+
+        @Test
+        @DisplayName("Should rank title matches above description matches")
+        void shouldRankTitleMatchesFirst() {
+            // When
+            List<ProductEntity> result = repository.findBySearchTerm("fone");
+
+            // Then
+            assertThat(result).extracting(ProductEntity::getId).containsExactly("3", "5", "4", "2", "1");
+        }
+
+        @Test
+        @DisplayName("Should rank products matching in more fields first")
+        void shouldRankMoreFieldsFirst() {
+            // When / Then
+            assertThat(repository.findBySearchTerm("fone bluetooth")).extracting(ProductEntity::getId)
+                    .containsExactly("3", "5", "1");
+        }
+
+        @Test
+        @DisplayName("Should keep only the best results when limited")
+        void shouldKeepOnlyBestResults() {
+            // Given
+            List<ProductEntity> all = repository.findBySearchTerm("fone");
+
+            // When / Then
+            for (int limit = 0; limit <= all.size() + 1; limit++) {
+                assertThat(repository.findTopBySearchTerm("fone", limit))
+                        .containsExactlyElementsOf(all.subList(0, Math.min(limit, all.size())));
+            }
+        }
+
+        @Test
+        @DisplayName("Should rank combined filters with a search term")
+        void shouldRankCombinedFilters() {
+            // When
+            List<ProductEntity> result = repository.findMatching(
+                    new ProductCriteria("tech", null, "fone", true, false, null, null)).items();
+
+            // Then
+            assertThat(result).extracting(ProductEntity::getId).containsExactly("3", "5", "4", "2", "1");
+        }
+    }
+
+    @Nested
+    @DisplayName("Pagination Tests")
+    class PaginationTests {
+
+        @BeforeEach
+        void setUpData() {
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, List.of(
+                    createProduct("1", "Fone Bluetooth JBL", "audio", "JBL", 300.0, null, 0, "Fone sem fio"),
+                    createProduct("2", "Caixa de Som JBL", "audio", "JBL", 500.0, null, 0, "Som potente"),
+                    createProduct("3", "Fone de ouvido", "audio", "Sony", 100.0, null, 0, "Fone com fio"),
+                    createProduct("4", "Notebook Dell", "electronics", "Dell", 4000.0, null, 0, "Notebook"),
+                    createProduct("5", "Fone Gamer", "audio", "HyperX", 400.0, null, 0, "Fone e microfone"),
+                    createProduct("6", "Mesa", "furniture", "IKEA", 300.0, null, 0, "Mesa de escritório"),
+                    createProduct("7", "Fone Bluetooth Sony", "audio", "Sony", 700.0, null, 0, "Fone bluetooth")
+            )));
+        }
+
+        private List<ProductEntity> walk(ProductCriteria criteria, int limit) {
+            List<ProductEntity> walked = new ArrayList<>();
+            String cursor = null;
+            do {
+                ProductPage page = repository.findPage(criteria, limit, cursor);
+                assertThat(page.items()).hasSizeLessThanOrEqualTo(limit);
+                walked.addAll(page.items());
+                cursor = page.nextCursor();
+            } while (cursor != null);
+            return walked;
+        }
+
+        @Test
+        @DisplayName("Should walk every product page by page")
+        void shouldWalkEveryProduct() {
+            // Given
+            ProductCriteria criteria = new ProductCriteria(null, null, null, false, false, null, null);
+
+            // When / Then
+            for (int limit = 1; limit <= 8; limit++) {
+                assertThat(walk(criteria, limit)).containsExactlyElementsOf(repository.findAll());
+            }
+        }
+
+        @Test
+        @DisplayName("Should page filtered products in the order of the full result")
+        void shouldPageFilteredProducts() {
+            // Given
+            ProductCriteria criteria = new ProductCriteria("audio", null, null, false, false, null, null);
+
+            // When / Then
+            assertThat(walk(criteria, 2)).containsExactlyElementsOf(repository.findMatching(criteria).items());
+        }
+
+        @Test
+        @DisplayName("Should page ranked search results in relevance order")
+        void shouldPageRankedSearchResults() {
+            // Given
+            ProductCriteria criteria = new ProductCriteria(null, null, "fone bluetooth", false, false, null, null);
+            List<ProductEntity> ranked = repository.findMatching(criteria).items();
+
+            // When / Then
+            assertThat(ranked).isNotEmpty();
+            for (int limit = 1; limit <= ranked.size(); limit++) {
+                assertThat(walk(criteria, limit)).containsExactlyElementsOf(ranked);
+            }
+        }
+
+        @Test
+        @DisplayName("Should return no next cursor on the last page")
+        void shouldReturnNoCursorOnLastPage() {
+            // When
+            ProductPage page = repository.findPage(
+                    new ProductCriteria("furniture", null, null, false, false, null, null), 5, null);
+
+            // Then
+            assertThat(page.items()).extracting(ProductEntity::getId).containsExactly("6");
+            assertThat(page.hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor from a previous catalog version")
+        void shouldRejectCursorFromPreviousVersion() {
+            // Given
+            ProductCriteria criteria = new ProductCriteria(null, null, null, false, false, null, null);
+            String cursor = repository.findPage(criteria, 2, null).nextCursor();
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(2, repository.findAll()));
+
+            // When / Then
+            assertThatThrownBy(() -> repository.findPage(criteria, 2, cursor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("outdated catalog");
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor from another query")
+        void shouldRejectCursorFromAnotherQuery() {
+            // Given
+            String cursor = repository.findPage(
+                    new ProductCriteria("audio", null, null, false, false, null, null), 2, null).nextCursor();
+
+            // When / Then
+            assertThatThrownBy(() -> repository.findPage(
+                    new ProductCriteria(null, "JBL", null, false, false, null, null), 2, cursor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("does not belong to this query");
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            // When / Then
+            assertThatThrownBy(() -> repository.findPage(
+                    new ProductCriteria(null, null, null, false, false, null, null), 2, "not a cursor"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    @Nested
+    @DisplayName("Sort Order Tests")
+    class SortOrderTests {
+
+        private ProductEntity product(String id, String title, String categoryId, Double price, Double rating,
+                                      LocalDateTime createdAt) {
+            ProductEntity product = createProduct(id, title, categoryId, "Marca", price, null, 0, title);
+            if (price == null) {
+                product.setPrice(null);
+            }
+            if (rating != null) {
+                ProductRatingEntity productRating = new ProductRatingEntity();
+                productRating.setAverage(rating);
+                product.setRating(productRating);
+            }
+            product.setCreatedAt(createdAt);
+            return product;
+        }
+
+        @BeforeEach
+        void setUpData() {
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, List.of(
+                    product("1", "Óculos de sol", "moda", 150.0, 4.5, LocalDateTime.of(2024, 3, 1, 0, 0)),
+                    product("2", "abacate", "mercado", 5.0, null, LocalDateTime.of(2024, 5, 1, 0, 0)),
+                    product("3", "Ábaco escolar", "mercado", null, 4.9, null),
+                    product("4", "Zíper", "moda", 5.0, 3.0, LocalDateTime.of(2023, 1, 1, 0, 0)),
+                    product("5", "escova de dentes", "mercado", 12.0, 4.5, LocalDateTime.of(2024, 5, 1, 0, 0))
+            )));
+        }
+
+        private List<String> ids(String categoryId, String searchTerm, ProductSort sort) {
+            return repository.findMatching(new ProductCriteria(categoryId, null, searchTerm, false, false, null, null, sort))
+                    .items().stream().map(ProductEntity::getId).toList();
+        }
+
+        @Test
+        @DisplayName("Should order titles alphabetically in Portuguese, ignoring accents and case")
+        void shouldOrderTitlesInPortuguese() {
+            // When / Then
+            assertThat(ids(null, null, ProductSort.TITLE)).containsExactly("2", "3", "5", "1", "4");
+        }
+
+        @Test
+        @DisplayName("Should order by price, rating and date with missing values last and ties by id")
+        void shouldOrderByValuesWithMissingLast() {
+            // When / Then
+            assertThat(ids(null, null, ProductSort.PRICE_ASC)).containsExactly("2", "4", "5", "1", "3");
+            assertThat(ids(null, null, ProductSort.PRICE_DESC)).containsExactly("1", "5", "2", "4", "3");
+            assertThat(ids(null, null, ProductSort.RATING)).containsExactly("3", "1", "5", "4", "2");
+            assertThat(ids(null, null, ProductSort.NEWEST)).containsExactly("2", "5", "1", "4", "3");
+        }
+
+        @Test
+        @DisplayName("Should agree with the comparator of every sort order")
+        void shouldAgreeWithComparator() {
+            for (ProductSort sort : ProductSort.values()) {
+                // Given
+                List<ProductEntity> expected = repository.findAll().stream().sorted(sort.comparator()).toList();
+
+                // When / Then
+                assertThat(repository.findMatching(new ProductCriteria(null, null, null, false, false, null, null, sort))
+                        .items())
+                        .as(sort.parameter()).containsExactlyElementsOf(expected);
+            }
+        }
+
+        @Test
+        @DisplayName("Should sort filtered and searched products instead of ranking them")
+        void shouldSortFilteredProducts() {
+            // When / Then
+            assertThat(ids("mercado", null, ProductSort.PRICE_ASC)).containsExactly("2", "5", "3");
+            assertThat(ids(null, "de", ProductSort.TITLE)).containsExactly("5", "1");
+        }
+
+        @Test
+        @DisplayName("Should page through a sort order")
+        void shouldPageThroughSortOrder() {
+            // Given
+            ProductCriteria criteria = new ProductCriteria(null, null, null, false, false, null, null, ProductSort.RATING);
+            List<ProductEntity> walked = new ArrayList<>();
+            String cursor = null;
+
+            // When
+            do {
+                ProductPage page = repository.findPage(criteria, 2, cursor);
+                walked.addAll(page.items());
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            // Then
+            assertThat(walked).extracting(ProductEntity::getId).containsExactly("3", "1", "5", "4", "2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Facet Tests")
+    class FacetTests {
+
+        private ProductEntity product(String id, String categoryId, String brand, double price, int discount,
+                                      boolean freeShipping, int installments) {
+            ProductEntity product = createProduct(id, "Produto " + id, categoryId, brand, price, null, discount, "");
+            product.setShipping(new ShippingEntity(freeShipping, 5, 0.0, null));
+            product.setPaymentMethods(List.of(new PaymentMethodEntity("credit_card", "Cartão", null, installments, null)));
+            return product;
+        }
+
+        @BeforeEach
+        void setUpData() {
+            ProductEntity outOfStock = product("5", "moda", "Nike", 900.0, 0, false, 1);
+            outOfStock.setStock(new StockEntity(0, 100));
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, List.of(
+                    product("1", "eletronicos", "Samsung", 1500.0, 15, true, 12),
+                    product("2", "eletronicos", "samsung", 250.0, 0, true, 1),
+                    product("3", "eletronicos", "Apple", 4200.0, 55, false, 10),
+                    product("4", "moda", "Nike", 80.0, 5, true, 3),
+                    outOfStock
+            )));
+        }
+
+        private ProductCriteria criteria(String categoryId, boolean available) {
+            return new ProductCriteria(categoryId, null, null, available, false, null, null);
+        }
+
+        @Test
+        @DisplayName("Should count brands, categories, buckets and flags of the matching products")
+        void shouldCountFacetsOfMatches() {
+            // When
+            ProductFacets facets = repository.findFacets(criteria("eletronicos", false));
+
+            // Then
+            assertThat(facets.total()).isEqualTo(3);
+            assertThat(facets.brands()).containsExactly(
+                    new ProductFacets.Term("Samsung", "Samsung", 2),
+                    new ProductFacets.Term("Apple", "Apple", 1));
+            assertThat(facets.categories()).containsExactly(new ProductFacets.Term("eletronicos", "ELETRONICOS", 3));
+            assertThat(facets.discounts()).extracting(ProductFacets.Range::count).containsExactly(0L, 1L, 0L, 0L, 0L, 1L);
+            assertThat(facets.prices()).extracting(ProductFacets.Range::count).containsExactly(0L, 1L, 0L, 1L, 1L);
+            assertThat(facets.available()).isEqualTo(3);
+            assertThat(facets.freeShipping()).isEqualTo(2);
+            assertThat(facets.installments()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should derive price buckets from the whole catalog")
+        void shouldDerivePriceBucketsFromCatalog() {
+            // When
+            List<ProductFacets.Range> prices = repository.findFacets(criteria("moda", false)).prices();
+
+            // Then
+            assertThat(prices).extracting(ProductFacets.Range::from).containsExactly(0.0, 250.0, 900.0, 1500.0, 4200.0);
+            assertThat(prices.get(prices.size() - 1).to()).isNull();
+            assertThat(prices).extracting(ProductFacets.Range::count).containsExactly(1L, 0L, 1L, 0L, 0L);
+        }
+
+        @Test
+        @DisplayName("Should agree with counting the materialized products")
+        void shouldAgreeWithCountingProducts() {
+            for (ProductCriteria criteria : List.of(criteria(null, false), criteria(null, true),
+                    criteria("moda", true), criteria("inexistente", false))) {
+                // When / Then
+                assertThat(repository.findFacets(criteria)).as(criteria.toString())
+                        .isEqualTo(countFacets(criteria));
+            }
+        }
+
+        /**
+         * Reference: counts the facets of every matching product, one at a time.
+         */
+        private ProductFacets countFacets(ProductCriteria criteria) {
+            List<ProductEntity> products = repository.findAll();
+            double[] priceEdges = ProductFacets.priceEdges(products.stream()
+                    .filter(product -> product.getPrice() != null && product.getPrice().getCurrent() != null)
+                    .mapToDouble(product -> product.getPrice().getCurrent())
+                    .sorted()
+                    .toArray());
+            double[] discountEdges = ProductFacets.discountEdges();
+            long[] priceCounts = new long[priceEdges.length];
+            long[] discountCounts = new long[discountEdges.length];
+            Map<String, ProductFacets.Term> brands = new HashMap<>();
+            Map<String, ProductFacets.Term> categories = new HashMap<>();
+            long total = 0;
+            long available = 0;
+            long freeShipping = 0;
+            long installments = 0;
+
+            for (ProductEntity product : products) {
+                if (!criteria.matches(product)) {
+                    continue;
+                }
+                total++;
+                if (product.getBrand() != null) {
+                    brands.merge(product.getBrand().toLowerCase(Locale.ROOT),
+                            new ProductFacets.Term(product.getBrand(), product.getBrand(), 1), this::addCount);
+                }
+                if (product.getCategory() != null && product.getCategory().id() != null) {
+                    String label = product.getCategory().name() != null
+                            ? product.getCategory().name() : product.getCategory().id();
+                    categories.merge(product.getCategory().id(),
+                            new ProductFacets.Term(product.getCategory().id(), label, 1), this::addCount);
+                }
+                if (product.hasDiscount()) {
+                    int bucket = ProductFacets.bucketOf(discountEdges, product.getPrice().getDiscount());
+                    if (bucket >= 0) {
+                        discountCounts[bucket]++;
+                    }
+                }
+                if (product.getPrice() != null && product.getPrice().getCurrent() != null) {
+                    int bucket = ProductFacets.bucketOf(priceEdges, product.getPrice().getCurrent());
+                    if (bucket >= 0) {
+                        priceCounts[bucket]++;
+                    }
+                }
+                available += product.isAvailable() ? 1 : 0;
+                freeShipping += product.getShipping() != null && Boolean.TRUE.equals(product.getShipping().getFree()) ? 1 : 0;
+                installments += product.allowsInstallments() ? 1 : 0;
+            }
+
+            return new ProductFacets(total,
+                    brands.values().stream().sorted(ProductFacets.Term.BY_COUNT).toList(),
+                    categories.values().stream().sorted(ProductFacets.Term.BY_COUNT).toList(),
+                    ProductFacets.ranges(discountEdges, discountCounts),
+                    ProductFacets.ranges(priceEdges, priceCounts),
+                    available, freeShipping, installments);
+        }
+
+        private ProductFacets.Term addCount(ProductFacets.Term existing, ProductFacets.Term added) {
+            return new ProductFacets.Term(existing.value(), existing.label(), existing.count() + added.count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Aggregation Tests")
+    class AggregationTests {
+
+        private ProductEntity product(String id, String categoryId, String brand, String sellerId, Double price,
+                                      Double rating) {
+            ProductEntity product = createProduct(id, "Produto " + id, categoryId, brand, price, null, 0, "");
+            if (price == null) {
+                product.setPrice(null);
+            }
+            if (rating != null) {
+                ProductRatingEntity productRating = new ProductRatingEntity();
+                productRating.setAverage(rating);
+                product.setRating(productRating);
+            }
+            product.setSeller(new SellerEntity(sellerId, "Loja " + sellerId, null));
+            return product;
+        }
+
+        @BeforeEach
+        void setUpData() {
+            List<ProductEntity> products = new ArrayList<>();
+            for (int i = 1; i <= 10; i++) {
+                products.add(product("e" + i, "eletronicos", i % 2 == 0 ? "Samsung" : "samsung", "s1",
+                        i * 100.0, i <= 4 ? 4.0 + i * 0.25 : null));
+            }
+            products.add(product("m1", "moda", "Nike", "s2", null, 3.0));
+            products.add(product("m2", "moda", null, "s2", 50.0, null));
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, products));
+        }
+
+        @Test
+        @DisplayName("Should compute price distribution and average rating per category")
+        void shouldAggregateByCategory() {
+            // When
+            List<ProductGroupStats> stats = repository.aggregate(ProductGrouping.CATEGORY);
+
+            // Then
+            assertThat(stats).containsExactly(
+                    new ProductGroupStats("eletronicos", "ELETRONICOS", 10, 100.0, 1000.0, 550.0, 500.0, 900.0, 4.625),
+                    new ProductGroupStats("moda", "MODA", 2, 50.0, 50.0, 50.0, 50.0, 50.0, 3.0));
+        }
+
+        @Test
+        @DisplayName("Should group brands ignoring case and leave out products without the grouped value")
+        void shouldAggregateByBrand() {
+            // When
+            List<ProductGroupStats> stats = repository.aggregate(ProductGrouping.BRAND);
+
+            // Then
+            assertThat(stats).extracting(ProductGroupStats::key).containsExactly("samsung", "nike");
+            assertThat(stats.get(0).count()).isEqualTo(10);
+            assertThat(stats.get(1).minPrice()).isNull();
+            assertThat(stats.get(1).averageRating()).isEqualTo(3.0);
+        }
+
+        @Test
+        @DisplayName("Should agree with aggregating the products on every call")
+        void shouldAgreeWithAggregatingProducts() {
+            for (ProductGrouping grouping : ProductGrouping.values()) {
+                // When / Then
+                assertThat(repository.aggregate(grouping)).as(grouping.parameter())
+                        .isEqualTo(aggregateProducts(grouping));
+            }
+        }
+
+        /**
+         * Reference: groups the products and sorts the prices of each group.
+         */
+        private List<ProductGroupStats> aggregateProducts(ProductGrouping grouping) {
+            Map<String, List<ProductEntity>> groups = new HashMap<>();
+            for (ProductEntity product : repository.findAll()) {
+                String key = grouping.key(product);
+                if (key != null) {
+                    groups.computeIfAbsent(key, ignored -> new ArrayList<>()).add(product);
+                }
+            }
+
+            List<ProductGroupStats> stats = new ArrayList<>(groups.size());
+            groups.forEach((key, products) -> {
+                double[] prices = products.stream()
+                        .filter(product -> product.getPrice() != null && product.getPrice().getCurrent() != null)
+                        .mapToDouble(product -> product.getPrice().getCurrent())
+                        .sorted()
+                        .toArray();
+                double ratingSum = 0;
+                long ratingCount = 0;
+                for (ProductEntity product : products) {
+                    if (product.getRating() != null && product.getRating().getAverage() != null) {
+                        ratingSum += product.getRating().getAverage();
+                        ratingCount++;
+                    }
+                }
+                stats.add(ProductGroupStats.of(key, grouping.label(products.get(0)), products.size(),
+                        prices, 0, prices.length, ratingSum, ratingCount));
+            });
+            stats.sort(ProductGroupStats.BY_COUNT);
+            return stats;
+        }
+    }
+
+    @Nested
+    @DisplayName("Boolean Query Tests")
+    class BooleanQueryTests {
+
+        @BeforeEach
+        void setUpData() {
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, List.of(
+                    product("1", "Samsung Galaxy S24 Ultra", "Novo", "Com S Pen integrada"),
+                    product("2", "Samsung Galaxy Tab S9", "Usado", "S Pen vendida separadamente"),
+                    product("3", "Caneta Samsung", "Novo", "Pen S original"),
+                    product("4", "Apple iPad", "Novo", "Pen compatível, modelo S")
+            )));
+        }
+
+        private List<String> ids(String query) {
+            return repository.findBySearchTerm(query).stream().map(ProductEntity::getId).sorted().toList();
+        }
+
+        @Test
+        @DisplayName("Should match phrases by consecutive token positions")
+        void shouldMatchPhrasesByPosition() {
+            // When / Then
+            assertThat(ids("\"s pen\"")).containsExactly("1", "2");
+            assertThat(ids("s pen")).containsExactly("1", "2", "3", "4");
+            assertThat(ids("\"Galaxy S24 ultra\"")).containsExactly("1");
+            assertThat(ids("\"galaxy ultra\"")).isEmpty();
+            assertThat(ids("\"ultra com\"")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should combine AND, OR, NOT and grouping")
+        void shouldCombineOperators() {
+            // When / Then
+            assertThat(ids("\"s pen\" AND samsung NOT usado")).containsExactly("1");
+            assertThat(ids("samsung OR apple")).containsExactly("1", "2", "3", "4");
+            assertThat(ids("(tab OR ipad) NOT usado")).containsExactly("4");
+            assertThat(ids("NOT samsung")).containsExactly("4");
+            assertThat(ids("galaxy NOT (usado OR ultra)")).isEmpty();
+            assertThat(ids("caneta OR galaxy AND tab")).containsExactly("2", "3");
+        }
+
+        @Test
+        @DisplayName("Should keep lower-case operator words as search words")
+        void shouldKeepLowerCaseOperatorsAsWords() {
+            // When / Then
+            assertThat(ids("samsung not")).isEmpty();
+            assertThat(ids("samsung novo")).containsExactly("1", "3");
+        }
+
+        @Test
+        @DisplayName("Should apply boolean queries inside combined filters")
+        void shouldApplyInsideCombinedFilters() {
+            // When
+            List<ProductEntity> result = repository.findMatching(
+                    new ProductCriteria("tech", null, "samsung NOT \"s pen\"", true, false, null, null)).items();
+
+            // Then
+            assertThat(result).extracting(ProductEntity::getId).containsExactly("3");
+        }
+
+        @Test
+        @DisplayName("Should search a stray quote as plain text")
+        void shouldSearchStrayQuoteAsPlainText() {
+            // When / Then
+            assertThat(ids("galaxy ultra\"")).containsExactly("1");
+            assertThat(ids("\"s pen")).containsExactly("1", "2", "3", "4");
+            assertThat(ids("\"s pen\" tab\"")).containsExactly("2");
+        }
+
+        @Test
+        @DisplayName("Should search a stray parenthesis as plain text")
+        void shouldSearchStrayParenthesisAsPlainText() {
+            // When / Then
+            assertThat(ids("galaxy (tab")).containsExactly("2");
+            assertThat(ids("caneta samsung)")).containsExactly("3");
+            assertThat(ids(")samsung OR apple(")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should reject malformed queries")
+        void shouldRejectMalformedQueries() {
+            // When / Then
+            for (String query : List.of("samsung AND", "OR tab", "samsung () galaxy", "NOT")) {
+                assertThatThrownBy(() -> repository.findBySearchTerm(query)).as(query)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("Invalid search query");
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Substring Index Tests")
+    class SubstringIndexTests {
+
+        private final List<ProductEntity> products = List.of(
+                new ProductEntity("1", "Samsung GalaxyA55 5G", "Tela de 6,6 polegadas"),
+                new ProductEntity("2", "Câmera Digital", "Resolução de 24MP"),
+                new ProductEntity("3", "Camera de Segurança", "Visão noturna"),
+                new ProductEntity("4", "Relógio", "Galaxy Watch compatível")
+        );
+
+        @BeforeEach
+        void setUpData() {
+            CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(1).substringIndex(true);
+            products.forEach(builder::add);
+            ReflectionTestUtils.setField(repository, "snapshot", builder.build());
+        }
+
+        @Test
+        @DisplayName("Should match substrings inside words")
+        void shouldMatchSubstringsInsideWords() {
+            // When / Then
+            assertThat(repository.findBySearchTerm("A55")).extracting(ProductEntity::getId).containsExactly("1");
+            assertThat(repository.findBySearchTerm("galaxy")).extracting(ProductEntity::getId).containsExactly("4", "1");
+            assertThat(repository.findBySearchTerm("câm")).extracting(ProductEntity::getId).containsExactly("2");
+            assertThat(repository.findBySearchTerm("ra d")).extracting(ProductEntity::getId)
+                    .containsExactlyInAnyOrder("2", "3");
+        }
+
+        @Test
+        @DisplayName("Should search with the correction only when no substring matches")
+        void shouldFallBackToCorrectionWhenNothingMatches() {
+            // When / Then
+            assertThat(repository.findBySearchTerm("galaxi")).extracting(ProductEntity::getId)
+                    .containsExactlyInAnyOrder("1", "4");
+            assertThat(didYouMean("galaxi")).isEqualTo("galaxy");
+            assertThat(repository.findBySearchTerm("amera")).extracting(ProductEntity::getId).containsExactly("3");
+            assertThat(didYouMean("amera")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should return exactly the products of the contains check")
+        void shouldAgreeWithContainsCheck() {
+            List<String> terms = List.of("a", "5g", "SEGURANÇA", "seguranca", "camera", "amera", "olu", "x", " de ",
+                    "compatível", "tela de 6,6", "zzz", "6,6 pol");
+            for (String term : terms) {
+                // When
+                List<ProductEntity> result = repository.findBySearchTerm(term);
+
+                // Then
+                assertThat(result).as(term).containsExactlyInAnyOrderElementsOf(products.stream()
+                        .filter(product -> SubstringIndex.containsSearchTerm(product, term.toLowerCase()))
+                        .toList());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Spelling Correction Tests")
+    class SpellingCorrectionTests {
+
+        @BeforeEach
+        void setUpData() {
+            loadMockData();
+        }
+
+        @Test
+        @DisplayName("Should find products despite typos")
+        void shouldFindProductsDespiteTypos() {
+            // When / Then
+            assertThat(repository.findBySearchTerm("samsumg")).extracting(ProductEntity::getId).containsExactly("1");
+            assertThat(repository.findBySearchTerm("notbok dlel")).extracting(ProductEntity::getId).containsExactly("2");
+            assertThat(repository.findBySearchTerm("escritorio modreno")).extracting(ProductEntity::getId)
+                    .containsExactly("3");
+            assertThat(repository.findBySearchTerm("xyzxyz")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should offer a correction only when the term as typed finds nothing")
+        void shouldOfferCorrectionOnlyWhenNeeded() {
+            // When / Then
+            assertThat(didYouMean("Samsumg")).isEqualTo("samsung");
+            assertThat(didYouMean("notbok dlel")).isEqualTo("notebook dell");
+            assertThat(didYouMean("samsung")).isNull();
+            assertThat(didYouMean("xyzxyz")).isNull();
+            assertThat(didYouMean("samsumg mesa")).isNull();
         }
 
         @Test
-        @DisplayName("Should return empty when product not found")
-        void shouldReturnEmptyWhenProductNotFound() {
+        @DisplayName("Should correct typos inside combined filters")
+        void shouldCorrectTyposInsideCombinedFilters() {
             // When
-            Optional<ProductEntity> result = repository.findById("999");
+            ProductList result = repository.findMatching(
+                    new ProductCriteria("electronics", null, "notbok", true, false, null, null));
 
             // Then
-            assertThat(result).isEmpty();
+            assertThat(result.items()).extracting(ProductEntity::getId).containsExactly("2");
+            assertThat(result.didYouMean()).isEqualTo("notebook");
         }
 
         @Test
-        @DisplayName("Should find all products")
-        void shouldFindAllProducts() {
+        @DisplayName("Should report the correction on the first page only")
+        void shouldReportCorrectionOnFirstPage() {
+            // Given
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, List.of(mockProducts.get(1),
+                    createProduct("4", "Notebook Lenovo", "electronics", "Lenovo", 2500.0, null, 0, "Notebook leve"))));
+            ProductCriteria criteria = new ProductCriteria(null, null, "notebok", false, false, null, null);
+
             // When
-            List<ProductEntity> result = repository.findAll();
+            ProductPage first = repository.findPage(criteria, 1, null);
+            ProductPage second = repository.findPage(criteria, 1, first.nextCursor());
 
             // Then
-            assertThat(result).hasSize(mockProducts.size());
-            assertThat(result).extracting(ProductEntity::getId)
-                    .containsExactlyInAnyOrder("1", "2", "3");
+            assertThat(first.items()).hasSize(1);
+            assertThat(first.didYouMean()).isEqualTo("notebook");
+            assertThat(second.items()).hasSize(1);
+            assertThat(second.didYouMean()).isNull();
         }
 
         @Test
-        @DisplayName("Should find products by category")
-        void shouldFindProductsByCategory() {
-            // When
-            List<ProductEntity> result = repository.findByCategory("electronics");
+        @DisplayName("Should count transpositions as a single edit")
+        void shouldCountTranspositionsAsSingleEdit() {
+            // When / Then
+            assertThat(SpellingCorrector.distance("dlel", "dell", 2)).isEqualTo(1);
+            assertThat(SpellingCorrector.distance("galxy", "galaxy", 2)).isEqualTo(1);
+            assertThat(SpellingCorrector.distance("samsumg", "samsung", 2)).isEqualTo(1);
+            assertThat(SpellingCorrector.distance("notebook", "mesa", 2)).isEqualTo(3);
+        }
+    }
 
-            // Then
-            assertThat(result).hasSize(2);
-            assertThat(result).extracting(ProductEntity::getId)
-                    .containsExactlyInAnyOrder("1", "2");
+    @Nested
+    @DisplayName("Suggest Tests")
+    class SuggestTests {
+
+        @BeforeEach
+        void setUpData() {
+            List<ProductEntity> products = List.of(
+                    rated(createProduct("1", "Samsung Galaxy S24", "celulares", "Samsung", 4000.0, null, 0, "S24"), 50),
+                    rated(createProduct("2", "Samsung Galaxy A55", "celulares", "Samsung", 2000.0, null, 0, "A55"), 120),
+                    rated(createProduct("3", "Sandália Havaianas", "calcados", "Havaianas", 50.0, null, 0, "Sandália"), 80),
+                    rated(createProduct("4", "Câmera Digital Profissional", "cameras", "Canon", 3000.0, null, 0, "Câmera"), 5)
+            );
+            ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, products));
+        }
+
+        private ProductEntity rated(ProductEntity product, int ratingCount) {
+            product.setRating(new ProductRatingEntity(4.5, ratingCount, null));
+            return product;
+        }
+
+        private List<String> texts(String prefix) {
+            return repository.suggest(prefix, 10).stream().map(SuggestionEntity::text).toList();
         }
 
         @Test
-        @DisplayName("Should find products by brand")
-        void shouldFindProductsByBrand() {
+        @DisplayName("Should rank completions by rating count")
+        void shouldRankByRatingCount() {
             // When
-            List<ProductEntity> result = repository.findByBrand("Samsung");
+            List<SuggestionEntity> suggestions = repository.suggest("sa", 10);
 
             // Then
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getId()).isEqualTo("1");
+            assertThat(suggestions).extracting(SuggestionEntity::text)
+                    .containsExactly("Samsung", "Samsung Galaxy A55", "Sandália Havaianas", "Samsung Galaxy S24");
+            assertThat(suggestions.get(0).type()).isEqualTo(SuggestionEntity.Type.BRAND);
+            assertThat(suggestions.get(0).ratingCount()).isEqualTo(170);
         }
 
         @Test
-        @DisplayName("Should find products by search term in title")
-        void shouldFindProductsBySearchTermInTitle() {
-            // When
-            List<ProductEntity> result = repository.findBySearchTerm("smartphone");
+        @DisplayName("Should complete any word, ignoring case and accents")
+        void shouldCompleteAnyWordIgnoringAccents() {
+            // When / Then
+            assertThat(texts("GAL")).containsExactly("Samsung Galaxy A55", "Samsung Galaxy S24");
+            assertThat(texts("camer")).containsExactly("CAMERAS", "Câmera Digital Profissional");
+            assertThat(texts("sandalia h")).containsExactly("Sandália Havaianas");
+            assertThat(texts("prof")).containsExactly("Câmera Digital Profissional");
+            assertThat(texts("xyz")).isEmpty();
+        }
 
-            // Then
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getId()).isEqualTo("1");
+        @Test
+        @DisplayName("Should complete prefixes longer than the trie depth")
+        void shouldCompleteLongPrefixes() {
+            // When / Then
+            assertThat(texts("samsung galaxy a")).containsExactly("Samsung Galaxy A55");
+            assertThat(texts("câmera digital profissional")).containsExactly("Câmera Digital Profissional");
+            assertThat(texts("câmera digital profissionais")).isEmpty();
         }
 
         @Test
-        @DisplayName("Should find products by search term in description")
-        void shouldFindProductsBySearchTermInDescription() {
-            // When
-            List<ProductEntity> result = repository.findBySearchTerm("avançado");
+        @DisplayName("Should respect the limit")
+        void shouldRespectLimit() {
+            // When / Then
+            assertThat(repository.suggest("s", 2)).extracting(SuggestionEntity::text)
+                    .containsExactly("Samsung", "Samsung Galaxy A55");
+        }
 
-            // Then
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getId()).isEqualTo("1");
+        @Test
+        @DisplayName("Should agree with a scan of the catalog")
+        void shouldAgreeWithScan() {
+            // When / Then
+            for (String prefix : List.of("s", "sa", "galaxy", "a55", "CEL", "canon", "d")) {
+                assertThat(repository.suggest(prefix, 10)).as(prefix)
+                        .containsExactlyElementsOf(scanSuggestions(prefix, 10));
+            }
+        }
+
+        /**
+         * Reference: every title, brand and category name with a word starting with the prefix.
+         */
+        private List<SuggestionEntity> scanSuggestions(String prefix, int limit) {
+            String lowerCasePrefix = prefix.toLowerCase(Locale.ROOT);
+            Map<String, SuggestionEntity> suggestions = new LinkedHashMap<>();
+            for (ProductEntity product : repository.findAll()) {
+                long ratingCount = product.getRating() != null && product.getRating().getCount() != null
+                        ? product.getRating().getCount() : 0;
+                String category = product.getCategory() != null ? product.getCategory().name() : null;
+                addSuggestion(suggestions, product.getTitle(), SuggestionEntity.Type.TITLE, ratingCount, lowerCasePrefix);
+                addSuggestion(suggestions, product.getBrand(), SuggestionEntity.Type.BRAND, ratingCount, lowerCasePrefix);
+                addSuggestion(suggestions, category, SuggestionEntity.Type.CATEGORY, ratingCount, lowerCasePrefix);
+            }
+            return suggestions.values().stream()
+                    .sorted(Comparator.comparingLong(SuggestionEntity::ratingCount).reversed()
+                            .thenComparing(SuggestionEntity::text)
+                            .thenComparing(SuggestionEntity::type))
+                    .limit(limit)
+                    .toList();
+        }
+
+        private void addSuggestion(Map<String, SuggestionEntity> suggestions, String text,
+                                   SuggestionEntity.Type type, long ratingCount, String lowerCasePrefix) {
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            String lowerCaseText = text.toLowerCase(Locale.ROOT);
+            boolean matches = false;
+            for (int i = 0; i < lowerCaseText.length() && !matches; i++) {
+                boolean wordStart = Character.isLetterOrDigit(lowerCaseText.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(lowerCaseText.charAt(i - 1)));
+                matches = wordStart && lowerCaseText.startsWith(lowerCasePrefix, i);
+            }
+            if (matches) {
+                suggestions.merge(type + ":" + text, new SuggestionEntity(text, type, ratingCount),
+                        (existing, added) -> new SuggestionEntity(text, type, existing.ratingCount() + added.ratingCount()));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Conjunctive Query Tests")
+    class ConjunctiveQueryTests {
+
+        @BeforeEach
+        void setUpData() {
+            loadMockData();
+        }
+
+        private ProductCriteria criteria(String categoryId, String brand, String searchTerm, boolean available,
+                                         boolean discounted, Double minPrice, Double maxPrice) {
+            return new ProductCriteria(categoryId, brand, searchTerm, available, discounted, minPrice, maxPrice);
         }
 
         @Test
-        @DisplayName("Should find available products only")
-        void shouldFindAvailableProductsOnly() {
-            // When
-            List<ProductEntity> result = repository.findAvailableProducts();
+        @DisplayName("Should apply every criterion as an AND")
+        void shouldApplyEveryCriterion() {
+            // When / Then
+            assertThat(repository.findMatching(criteria("electronics", "dell", null, true, false, null, null)).items())
+                    .extracting(ProductEntity::getId).containsExactly("2");
+            assertThat(repository.findMatching(criteria("electronics", null, null, false, true, null, null)).items())
+                    .isEmpty();
+            assertThat(repository.findMatching(criteria(null, null, null, true, false, 200.0, 1200.0)).items())
+                    .extracting(ProductEntity::getId).containsExactly("1", "3");
+            assertThat(repository.findMatching(criteria("furniture", null, "MESA", false, false, null, null)).items())
+                    .extracting(ProductEntity::getId).containsExactly("3");
+        }
 
-            // Then
-            assertThat(result).hasSize(3);
-            assertThat(result).extracting(ProductEntity::getId)
-                    .containsExactlyInAnyOrder("1", "2", "3");
+        @Test
+        @DisplayName("Should return the same products as the reference predicate")
+        void shouldMatchReferencePredicate() {
+            List<ProductCriteria> cases = List.of(
+                    criteria("electronics", null, "smartphone", true, false, 0.0, 5000.0),
+                    criteria(null, "IKEA", null, true, true, null, null),
+                    criteria(null, null, "notebook", false, false, 1000.0, 1500.0),
+                    criteria("electronics", "Samsung", null, false, false, 1500.0, 2000.0)
+            );
+            for (ProductCriteria criteria : cases) {
+                // When
+                List<ProductEntity> result = repository.findMatching(criteria).items();
+
+                // Then
+                assertThat(result).containsExactlyElementsOf(
+                        repository.findAll().stream().filter(criteria::matches).toList());
+            }
         }
 
         @Test
-        @DisplayName("Should find products with discount")
-        void shouldFindProductsWithDiscount() {
+        @DisplayName("Should count the same products as the reference predicate")
+        void shouldCountLikeReferencePredicate() {
+            List<ProductCriteria> cases = List.of(
+                    criteria(null, null, null, false, false, null, null),
+                    criteria("electronics", null, null, false, false, null, null),
+                    criteria(null, null, null, false, false, 200.0, 1200.0),
+                    criteria("electronics", null, null, true, false, null, null),
+                    criteria("electronics", null, "smartphone", true, false, 0.0, 5000.0),
+                    criteria(null, "IKEA", null, true, true, null, null),
+                    criteria(null, null, "notebook", false, false, 1000.0, 1500.0),
+                    criteria("electronics", "Samsung", null, false, false, 1500.0, 2000.0),
+                    criteria(null, null, null, true, false, 250.0, 400.0),
+                    criteria("electronics", null, null, true, false, 1100.0, 1600.0)
+            );
+            for (ProductCriteria criteria : cases) {
+                // When
+                long count = repository.countMatching(criteria);
+
+                // Then
+                assertThat(count).as(criteria.toString())
+                        .isEqualTo(repository.findAll().stream().filter(criteria::matches).count());
+            }
+        }
+
+        @Test
+        @DisplayName("Should run the most selective criterion first")
+        void shouldOrderPlanBySelectivity() {
+            // Given
+            CatalogSnapshot snapshot = CatalogSnapshot.of(1, mockProducts);
+
             // When
-            List<ProductEntity> result = repository.findProductsWithDiscount();
+            List<ConjunctiveQueryPlanner.Step> plan = ConjunctiveQueryPlanner.plan(snapshot,
+                    criteria("electronics", null, "mesa", true, true, null, null));
 
             // Then
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getId()).isEqualTo("3");
+            assertThat(plan).extracting(ConjunctiveQueryPlanner.Step::field)
+                    .containsExactly("discounted", "search", "category", "available");
+            assertThat(plan).extracting(ConjunctiveQueryPlanner.Step::estimate).containsExactly(1, 1, 2, 3);
         }
 
         @Test
-        @DisplayName("Should find products by price range")
-        void shouldFindProductsByPriceRange() {
+        @DisplayName("Should count a price range first by walking the price index")
+        void shouldCountPriceRangeFirst() {
+            // Given
+            CatalogSnapshot snapshot = CatalogSnapshot.of(1, mockProducts);
+            ProductCriteria criteria = criteria("electronics", null, null, true, false, 1100.0, 1600.0);
+
             // When
-            List<ProductEntity> result = repository.findByPriceRange(500.0, 1500.0);
+            List<ConjunctiveQueryPlanner.Step> plan = ConjunctiveQueryPlanner.plan(snapshot, criteria);
+            int count = ConjunctiveQueryPlanner.count(snapshot, criteria);
 
             // Then
-            assertThat(result).hasSize(2);
-            assertThat(result).extracting(ProductEntity::getId)
-                    .containsExactlyInAnyOrder("1", "2");
+            assertThat(plan).extracting(ConjunctiveQueryPlanner.Step::field)
+                    .containsExactly("price", "category", "available");
+            assertThat(count).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid price range")
+        void shouldRejectInvalidPriceRange() {
+            // When / Then
+            assertThatThrownBy(() -> repository.findMatching(criteria("electronics", null, null, false, false, 10.0, 1.0)))
+                    .isInstanceOf(IllegalArgumentException.class);
         }
     }
 
@@ -417,18 +1567,343 @@ class JsonProductRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Snapshot Swap Tests")
+    class SnapshotSwapTests {
+
+        @BeforeEach
+        void setUpData() {
+            loadMockData();
+        }
+
+        @Test
+        @DisplayName("Should keep serving the previous snapshot while reloading")
+        void shouldServePreviousSnapshotWhileReloading() throws IOException {
+            // Given
+            List<ProductEntity> reloaded = List.of(createProduct("4", "Cadeira Gamer", "furniture", "DXRacer",
+                    900.0, null, 0, "Cadeira ergonômica"));
+            List<Integer> sizesSeenDuringReload = new java.util.ArrayList<>();
+
+            when(resourceLoader.getResource(PRODUCTS_FILE_PATH)).thenReturn(resource);
+            when(resource.exists()).thenReturn(true);
+            when(resource.getInputStream()).thenReturn(new ByteArrayInputStream("[]".getBytes()));
+            when(objectMapper.readValue(any(InputStream.class), any(TypeReference.class)))
+                    .thenAnswer(invocation -> {
+                        sizesSeenDuringReload.add(repository.findAll().size());
+                        return reloaded;
+                    });
+
+            // When
+            repository.reloadData();
+
+            // Then
+            assertThat(sizesSeenDuringReload).containsExactly(mockProducts.size());
+            assertThat(repository.findAll()).extracting(ProductEntity::getId).containsExactly("4");
+        }
+
+        @Test
+        @DisplayName("Should increment the catalog version on every load")
+        void shouldIncrementCatalogVersionOnEveryLoad() throws IOException {
+            // Given
+            when(resourceLoader.getResource(PRODUCTS_FILE_PATH)).thenReturn(resource);
+            when(resource.exists()).thenReturn(true);
+            when(resource.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream("[]".getBytes()));
+            when(objectMapper.readValue(any(InputStream.class), any(TypeReference.class)))
+                    .thenReturn(mockProducts);
+
+            // When
+            repository.reloadData();
+            long firstVersion = repository.getCatalogVersion();
+            repository.reloadData();
+
+            // Then
+            assertThat(repository.getCatalogVersion()).isGreaterThan(firstVersion);
+        }
+
+        @Test
+        @DisplayName("Should keep the previous snapshot when reload fails")
+        void shouldKeepPreviousSnapshotWhenReloadFails() throws IOException {
+            // Given
+            when(resourceLoader.getResource(PRODUCTS_FILE_PATH)).thenReturn(resource);
+            when(resource.exists()).thenReturn(true);
+            when(resource.getInputStream()).thenThrow(new IOException("File read error"));
+
+            // When
+            assertThatThrownBy(() -> repository.reloadData()).isInstanceOf(DataLoadException.class);
+
+            // Then
+            assertThat(repository.count()).isEqualTo(mockProducts.size());
+            assertThat(repository.findById("1")).isPresent();
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Refresh Tests")
+    class IncrementalRefreshTests {
+
+        @TempDir
+        Path dataDir;
+
+        private JsonProductRepository fileRepository;
+
+        private void createRepository(String location) {
+            fileRepository = new JsonProductRepository(
+                    new JacksonConfig().objectMapper(), new DefaultResourceLoader(), location, IMAGES_BASE_URL
+            );
+            ReflectionTestUtils.setField(fileRepository, "trackContentHashes", true);
+        }
+
+        private String product(String id, String title) {
+            return "{\"id\":\"" + id + "\",\"title\":\"" + title + "\",\"images\":[{\"url\":\"" + id + ".jpg\"}]}";
+        }
+
+        @Test
+        @DisplayName("Should apply only added, changed and removed products")
+        void shouldApplyOnlyChangedProducts() throws IOException {
+            // Given
+            Path file = dataDir.resolve("products.json");
+            Files.writeString(file, "[" + product("1", "One") + "," + product("2", "Two") + "," + product("3", "Three") + "]");
+            createRepository(file.toUri().toString());
+            fileRepository.loadData();
+            ProductEntity unchangedBefore = fileRepository.findById("1").orElseThrow();
+            long versionBefore = fileRepository.getCatalogVersion();
+
+            Files.writeString(file, "[\n  " + product("1", "One") + ",\n  " + product("2", "Two v2") + ",\n  " + product("4", "Four") + "\n]");
+
+            // When
+            CatalogChanges changes = fileRepository.refreshData();
+
+            // Then
+            assertThat(changes).isEqualTo(new CatalogChanges(1, 1, 1, 1));
+            assertThat(fileRepository.findById("1").orElseThrow()).isSameAs(unchangedBefore);
+            assertThat(fileRepository.findById("2").orElseThrow().getTitle()).isEqualTo("Two v2");
+            assertThat(fileRepository.findById("4").orElseThrow().getImages().get(0).getUrl())
+                    .isEqualTo(IMAGES_BASE_URL + "/4.jpg");
+            assertThat(fileRepository.existsById("3")).isFalse();
+            assertThat(fileRepository.getCatalogVersion()).isGreaterThan(versionBefore);
+        }
+
+        @Test
+        @DisplayName("Should patch the indexes of changed products when no id was added or removed")
+        void shouldPatchIndexesOfChangedProducts() {
+            // Given
+            List<ProductEntity> products = new ArrayList<>();
+            for (int i = 1; i <= 8; i++) {
+                products.add(createProduct(String.valueOf(i), "Produto " + i, "electronics", "Samsung",
+                        100.0 * i, null, 0, "Descrição comum"));
+            }
+            CatalogSnapshot previous = CatalogSnapshot.of(1, products);
+            products.set(2, createProduct("3", "Notebook Dell", "computers", "Dell", 999.0, 899.0, 10,
+                    "Notebook para trabalho"));
+
+            // When
+            CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(2).basedOn(previous);
+            products.forEach(builder::add);
+            CatalogSnapshot patched = builder.build();
+            CatalogSnapshot rebuilt = CatalogSnapshot.of(2, products);
+
+            // Then
+            for (TextIndex.Field field : TextIndex.Field.values()) {
+                for (String term : rebuilt.textIndex().vocabulary()) {
+                    assertThat(patched.textIndex().postings(field, term).toArray()).as(term)
+                            .containsExactly(rebuilt.textIndex().postings(field, term).toArray());
+                }
+            }
+            assertThat(patched.textIndex().vocabulary()).isEqualTo(rebuilt.textIndex().vocabulary());
+            assertThat(patched.rankedSearch("comum", 8))
+                    .containsExactly(rebuilt.rankedSearch("comum", 8));
+            assertThat(patched.textIndex().postings(TextIndex.Field.DESCRIPTION, "comum"))
+                    .isNotSameAs(previous.textIndex().postings(TextIndex.Field.DESCRIPTION, "comum"));
+            assertThat(patched.textIndex().postings(TextIndex.Field.TITLE, "1"))
+                    .isSameAs(previous.textIndex().postings(TextIndex.Field.TITLE, "1"));
+            assertThat(patched.bitmaps().category("computers").toArray()).containsExactly(2);
+            assertThat(patched.bitmaps().brand("samsung").toArray()).containsExactly(0, 1, 3, 4, 5, 6, 7);
+            assertThat(patched.bitmaps().flag(CatalogFlag.DISCOUNTED).toArray())
+                    .containsExactly(rebuilt.bitmaps().flag(CatalogFlag.DISCOUNTED).toArray());
+            assertThat(patched.columns().currentPrice(2)).isEqualTo(899.0);
+            assertThat(patched.columns().currentPrice(3)).isEqualTo(previous.columns().currentPrice(3));
+        }
+
+        @Test
+        @DisplayName("Should not publish a new snapshot when nothing changed")
+        void shouldNotPublishWhenNothingChanged() throws IOException {
+            // Given
+            Path file = dataDir.resolve("products.json");
+            Files.writeString(file, "[" + product("1", "One") + "]");
+            createRepository(file.toUri().toString());
+            fileRepository.loadData();
+            long versionBefore = fileRepository.getCatalogVersion();
+
+            // When
+            CatalogChanges changes = fileRepository.refreshData();
+
+            // Then
+            assertThat(changes.hasChanges()).isFalse();
+            assertThat(fileRepository.getCatalogVersion()).isEqualTo(versionBefore);
+        }
+
+        @Test
+        @DisplayName("Should load every shard of a products directory")
+        void shouldLoadEveryShardOfDirectory() throws IOException {
+            // Given
+            Files.writeString(dataDir.resolve("part-1.json"), "[" + product("1", "One") + "]");
+            try (GZIPOutputStream gzip = new GZIPOutputStream(Files.newOutputStream(dataDir.resolve("part-2.json.gz")))) {
+                gzip.write(("[" + product("2", "Two") + "]").getBytes(StandardCharsets.UTF_8));
+            }
+            Files.writeString(dataDir.resolve("README.txt"), "not a shard");
+            createRepository(dataDir.toUri().toString());
+
+            // When
+            fileRepository.loadData();
+
+            // Then
+            assertThat(fileRepository.findAll()).extracting(ProductEntity::getId).containsExactly("1", "2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Binary Snapshot Tests")
+    class BinarySnapshotTests {
+
+        @TempDir
+        Path dataDir;
+
+        private JsonProductRepository createRepository(Path productsFile, Path snapshotFile) {
+            JsonProductRepository fileRepository = new JsonProductRepository(
+                    new JacksonConfig().objectMapper(), new DefaultResourceLoader(), productsFile.toUri().toString(), IMAGES_BASE_URL
+            );
+            ReflectionTestUtils.setField(fileRepository, "binarySnapshotFile", snapshotFile.toString());
+            return fileRepository;
+        }
+
+        @Test
+        @DisplayName("Should write the snapshot after a JSON load and read it on the next load")
+        void shouldWriteAndReuseSnapshot() throws IOException {
+            // Given
+            Path productsFile = dataDir.resolve("products.json");
+            Path snapshotFile = dataDir.resolve("catalog.bin");
+            Files.writeString(productsFile, "[{\"id\":\"2\",\"title\":\"Two\",\"images\":[{\"url\":\"2.jpg\"}]},"
+                    + "{\"id\":\"1\",\"title\":\"One\"}]");
+            createRepository(productsFile, snapshotFile).loadData();
+            assertThat(snapshotFile).exists();
+
+            // When
+            JsonProductRepository restarted = createRepository(productsFile, snapshotFile);
+            restarted.loadData();
+
+            // Then
+            assertThat(restarted.findAll()).extracting(ProductEntity::getId).containsExactly("1", "2");
+            assertThat(restarted.findById("2").orElseThrow().getImages().get(0).getUrl())
+                    .isEqualTo(IMAGES_BASE_URL + "/2.jpg");
+        }
+
+        @Test
+        @DisplayName("Should fall back to JSON when the snapshot is stale or unreadable")
+        void shouldFallBackToJson() throws IOException {
+            // Given
+            Path productsFile = dataDir.resolve("products.json");
+            Path snapshotFile = dataDir.resolve("catalog.bin");
+            Files.writeString(productsFile, "[{\"id\":\"1\",\"title\":\"One\"}]");
+            createRepository(productsFile, snapshotFile).loadData();
+
+            Files.writeString(productsFile, "[{\"id\":\"1\",\"title\":\"One v2\"},{\"id\":\"22\",\"title\":\"Other\"}]");
+            JsonProductRepository stale = createRepository(productsFile, snapshotFile);
+
+            // When
+            stale.loadData();
+
+            // Then
+            assertThat(stale.findById("1").orElseThrow().getTitle()).isEqualTo("One v2");
+
+            // Given a corrupted snapshot
+            Files.write(snapshotFile, new byte[]{1, 2, 3});
+            JsonProductRepository corrupted = createRepository(productsFile, snapshotFile);
+
+            // When
+            corrupted.loadData();
+
+            // Then
+            assertThat(corrupted.getCacheSize()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Interning Tests")
+    class InterningTests {
+
+        @TempDir
+        Path dataDir;
+
+        private String product(String id, String sellerReputation) {
+            return "{\"id\":\"" + id + "\",\"title\":\"Product " + id + "\",\"brand\":\"Samsung\","
+                    + "\"category\":{\"id\":\"phones\",\"name\":\"Celulares\",\"path\":[\"Eletronicos\",\"Celulares\"]},"
+                    + "\"seller\":{\"id\":\"s1\",\"name\":\"Loja\",\"reputation\":" + sellerReputation + "},"
+                    + "\"paymentMethods\":[{\"type\":\"pix\",\"name\":\"PIX\",\"installments\":1}]}";
+        }
+
+        @Test
+        @DisplayName("Should share equal categories, sellers and payment methods across products")
+        void shouldShareEqualValueObjects() throws IOException {
+            // Given
+            Path file = dataDir.resolve("products.json");
+            Files.writeString(file, "[" + product("1", "4.5") + "," + product("2", "4.5") + "," + product("3", "3.0") + "]");
+            JsonProductRepository fileRepository = new JsonProductRepository(
+                    new JacksonConfig().objectMapper(), new DefaultResourceLoader(), file.toUri().toString(), IMAGES_BASE_URL
+            );
+
+            // When
+            fileRepository.loadData();
+
+            // Then
+            ProductEntity first = fileRepository.findById("1").orElseThrow();
+            ProductEntity second = fileRepository.findById("2").orElseThrow();
+            ProductEntity third = fileRepository.findById("3").orElseThrow();
+            assertThat(second.getCategory()).isSameAs(first.getCategory());
+            assertThat(second.getSeller()).isSameAs(first.getSeller());
+            assertThat(third.getSeller()).isNotSameAs(first.getSeller());
+            assertThat(third.getSeller().getName()).isSameAs(first.getSeller().getName());
+            assertThat(third.getPaymentMethods()).isSameAs(first.getPaymentMethods());
+            assertThat(third.getBrand()).isSameAs(first.getBrand());
+
+            CatalogInterner.MemoryReport report = fileRepository.getMemoryReport();
+            assertThat(report.categories()).isEqualTo(2);
+            assertThat(report.sellers()).isEqualTo(1);
+            assertThat(report.bytesSaved()).isPositive();
+        }
+
+        @Test
+        @DisplayName("Should reuse the published instances for products changed on refresh")
+        void shouldReusePublishedInstancesOnRefresh() throws IOException {
+            // Given
+            Path file = dataDir.resolve("products.json");
+            Files.writeString(file, "[" + product("1", "4.5") + "," + product("2", "4.5") + "]");
+            JsonProductRepository fileRepository = new JsonProductRepository(
+                    new JacksonConfig().objectMapper(), new DefaultResourceLoader(), file.toUri().toString(), IMAGES_BASE_URL
+            );
+            ReflectionTestUtils.setField(fileRepository, "trackContentHashes", true);
+            fileRepository.loadData();
+            CategoryEntity category = fileRepository.findById("1").orElseThrow().getCategory();
+
+            Files.writeString(file, "[" + product("1", "4.5") + "," + product("2", "4.8") + "]");
+
+            // When
+            fileRepository.refreshData();
+
+            // Then
+            assertThat(fileRepository.findById("2").orElseThrow().getCategory()).isSameAs(category);
+            assertThat(fileRepository.findById("1").orElseThrow().getCategory()).isSameAs(category);
+        }
+    }
+
     // Helper methods
 
+    private String didYouMean(String searchTerm) {
+        return repository.findMatching(new ProductCriteria(null, null, searchTerm, false, false, null, null))
+                .didYouMean();
+    }
+
     private void loadMockData() {
-        ReflectionTestUtils.setField(repository, "dataLoaded", true);
-        ReflectionTestUtils.setField(repository, "productsCache",
-                mockProducts.stream().collect(
-                        java.util.stream.Collectors.toConcurrentMap(
-                                ProductEntity::getId,
-                                product -> product
-                        )
-                )
-        );
+        ReflectionTestUtils.setField(repository, "snapshot", CatalogSnapshot.of(1, mockProducts));
     }
 
     private List<ProductEntity> createMockProducts() {
@@ -463,6 +1938,14 @@ class JsonProductRepositoryTest {
         return product;
     }
 
+    private ProductEntity product(String id, String title, String shortDescription, String description) {
+        ProductEntity product = new ProductEntity(id, title, description);
+        product.setShortDescription(shortDescription);
+        product.setCategory(new CategoryEntity("tech", "Tecnologia", null));
+        product.setStock(new StockEntity(10, 100));
+        return product;
+    }
+
     private ProductEntity createProductWithImages(String imageUrl) {
         ProductEntity product = createProduct("1", "Test Product", "test", "Test", 100.0, null, 0, "Test");
         ProductImageEntity image = new ProductImageEntity();
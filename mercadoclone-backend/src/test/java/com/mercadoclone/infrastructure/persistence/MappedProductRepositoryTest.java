@@ -0,0 +1,385 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import com.mercadoclone.config.JacksonConfig;
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductGrouping;
+import com.mercadoclone.domain.repository.ProductPage;
+import com.mercadoclone.domain.repository.ProductSort;
+import com.mercadoclone.exception.DataLoadException;
+import com.mercadoclone.infrastructure.persistence.binary.CatalogGenerations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MappedProductRepository Tests")
+class MappedProductRepositoryTest {
+
+    private static final String IMAGES_BASE_URL = "http://localhost:3001/images/products";
+
+    @TempDir
+    Path dataDir;
+
+    private Path productsFile;
+    private Path catalogFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        productsFile = dataDir.resolve("products.json");
+        catalogFile = dataDir.resolve("mapped/catalog.bin");
+        Files.writeString(productsFile, "["
+                + product("3", "Mesa de Escritório", "furniture", "IKEA", 300.0, 0) + ","
+                + product("1", "Smartphone Samsung", "electronics", "Samsung", 1000.0, 5) + ","
+                + product("2", "Notebook Dell", "electronics", "Dell", 1500.0, 2)
+                + "]");
+    }
+
+    private static String product(String id, String title, String category, String brand, double price, int stock) {
+        return "{\"id\":\"" + id + "\",\"title\":\"" + title + "\",\"brand\":\"" + brand + "\","
+                + "\"category\":{\"id\":\"" + category + "\",\"name\":\"" + category + "\"},"
+                + "\"price\":{\"current\":" + price + ",\"currency\":\"BRL\"},"
+                + "\"stock\":{\"available\":" + stock + "},\"images\":[{\"url\":\"" + id + ".jpg\"}]}";
+    }
+
+    private MappedProductRepository createRepository(int cacheSize, int segmentSize) {
+        MappedProductRepository repository = new MappedProductRepository(
+                new JacksonConfig().objectMapper(), new DefaultResourceLoader(), productsFile.toUri().toString(), IMAGES_BASE_URL
+        );
+        ReflectionTestUtils.setField(repository, "catalogFile", catalogFile.toString());
+        ReflectionTestUtils.setField(repository, "cacheSize", cacheSize);
+        ReflectionTestUtils.setField(repository, "segmentSize", segmentSize);
+        repository.loadData();
+        return repository;
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should find products by id through the index")
+        void shouldFindProductsById() {
+            // Given
+            MappedProductRepository repository = createRepository(10, 1 << 20);
+
+            // When
+            ProductEntity product = repository.findById("1").orElseThrow();
+
+            // Then
+            assertThat(product.getTitle()).isEqualTo("Smartphone Samsung");
+            assertThat(product.getImages().get(0).getUrl()).isEqualTo(IMAGES_BASE_URL + "/1.jpg");
+            assertThat(repository.findById("missing")).isEmpty();
+            assertThat(repository.existsById("3")).isTrue();
+            assertThat(repository.existsById("missing")).isFalse();
+            assertThat(repository.count()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should serve hot ids from the bounded cache")
+        void shouldServeHotIdsFromCache() {
+            // Given
+            MappedProductRepository repository = createRepository(2, 1 << 20);
+            ProductEntity first = repository.findById("1").orElseThrow();
+
+            // When
+            ProductEntity again = repository.findById("1").orElseThrow();
+            repository.findById("2");
+            repository.findById("3");
+
+            // Then
+            assertThat(again).isSameAs(first);
+            assertThat(repository.getCacheSize()).isEqualTo(2);
+            assertThat(repository.findById("1").orElseThrow()).isNotSameAs(first);
+        }
+
+        @Test
+        @DisplayName("Should validate product id")
+        void shouldValidateProductId() {
+            MappedProductRepository repository = createRepository(10, 1 << 20);
+
+            assertThatThrownBy(() -> repository.findById(" "))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Product ID cannot be null or blank");
+        }
+    }
+
+    @Nested
+    @DisplayName("Scan Tests")
+    class ScanTests {
+
+        @Test
+        @DisplayName("Should filter products by scanning the file in id order")
+        void shouldFilterByScanning() {
+            // Given
+            MappedProductRepository repository = createRepository(10, 1 << 20);
+
+            // When & Then
+            assertThat(repository.findAll()).extracting(ProductEntity::getId).containsExactly("1", "2", "3");
+            assertThat(repository.findByCategory("electronics")).extracting(ProductEntity::getId).containsExactly("1", "2");
+            assertThat(repository.findByBrand("ikea")).extracting(ProductEntity::getId).containsExactly("3");
+            assertThat(repository.findBySearchTerm("NOTEBOOK")).extracting(ProductEntity::getId).containsExactly("2");
+            assertThat(repository.findAvailableProducts()).extracting(ProductEntity::getId).containsExactly("1", "2");
+            assertThat(repository.findByPriceRange(900.0, 1200.0)).extracting(ProductEntity::getId).containsExactly("1");
+            assertThat(repository.getCacheSize()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should combine criteria by scanning and reject sorted results")
+        void shouldFindMatchingByScanning() {
+            // Given
+            MappedProductRepository repository = createRepository(10, 1 << 20);
+
+            // When & Then
+            assertThat(repository.findMatching(new ProductCriteria("electronics", null, null, true, false, 900.0, 1200.0)).items())
+                    .extracting(ProductEntity::getId).containsExactly("1");
+            assertThat(repository.getCacheSize()).isZero();
+            assertThatThrownBy(() -> repository.findMatching(new ProductCriteria(null, null, null, false, false, null, null,
+                    ProductSort.PRICE_ASC)))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should count matches without keeping decoded products")
+        void shouldCountMatches() {
+            // Given
+            MappedProductRepository repository = createRepository(10, 1 << 20);
+
+            // When & Then
+            assertThat(repository.countMatching(new ProductCriteria("electronics", null, null, true, false, null, null)))
+                    .isEqualTo(2);
+            assertThat(repository.countMatching(new ProductCriteria(null, "ikea", null, true, false, null, null)))
+                    .isZero();
+            assertThat(repository.getCacheSize()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should page through the matches in id order with a cursor")
+        void shouldPageInIdOrder() {
+            // Given
+            MappedProductRepository repository = createRepository(10, 1 << 20);
+            ProductCriteria electronics = new ProductCriteria("electronics", null, null, false, false, null, null);
+
+            // When
+            ProductPage first = repository.findPage(electronics, 1, null);
+            ProductPage second = repository.findPage(electronics, 1, first.nextCursor());
+
+            // Then
+            assertThat(first.items()).extracting(ProductEntity::getId).containsExactly("1");
+            assertThat(second.items()).extracting(ProductEntity::getId).containsExactly("2");
+            assertThat(second.hasNext()).isFalse();
+            assertThatThrownBy(() -> repository.findPage(
+                    new ProductCriteria(null, null, null, false, false, null, null), 1, first.nextCursor()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> repository.findPage(new ProductCriteria(null, null, null, false, false, null, null,
+                    ProductSort.PRICE_ASC), 1, null))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject index-only queries instead of decoding the whole file")
+        void shouldRejectIndexOnlyQueries() {
+            // Given
+            MappedProductRepository repository = createRepository(10, 1 << 20);
+
+            // When & Then
+            assertThatThrownBy(() -> repository.suggest("sam", 5))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> repository.findFacets(new ProductCriteria(null, null, null, false, false, null, null)))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> repository.aggregate(ProductGrouping.BRAND))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should map large files in several segments")
+        void shouldMapSeveralSegments() throws IOException {
+            // Given
+            Files.writeString(productsFile, IntStream.range(0, 200)
+                    .mapToObj(i -> product(String.format("p%03d", i), "Product " + i, "c", "b", i, 1))
+                    .collect(Collectors.joining(",", "[", "]")));
+
+            // When
+            MappedProductRepository repository = createRepository(0, 1024);
+
+            // Then
+            assertThat(repository.count()).isEqualTo(200);
+            assertThat(repository.findById("p137").orElseThrow().getTitle()).isEqualTo("Product 137");
+            assertThat(repository.findByPriceRange(10.0, 12.0)).extracting(ProductEntity::getId)
+                    .containsExactly("p010", "p011", "p012");
+        }
+    }
+
+    @Nested
+    @DisplayName("Catalog File Tests")
+    class CatalogFileTests {
+
+        @Test
+        @DisplayName("Should reuse the catalog file while the JSON is unchanged")
+        void shouldReuseCatalogFile() throws IOException {
+            // Given
+            createRepository(10, 1 << 20);
+            FileTime builtAt = FileTime.fromMillis(0);
+            Files.setLastModifiedTime(catalogFile, builtAt);
+
+            // When
+            MappedProductRepository restarted = createRepository(10, 1 << 20);
+
+            // Then
+            assertThat(Files.getLastModifiedTime(catalogFile)).isEqualTo(builtAt);
+            assertThat(restarted.count()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should rebuild the catalog file on reload when the JSON changed")
+        void shouldRebuildWhenJsonChanged() throws IOException {
+            // Given
+            MappedProductRepository repository = createRepository(10, 1 << 20);
+            repository.findById("1");
+            Files.writeString(productsFile, "[" + product("1", "Smartphone v2", "electronics", "Samsung", 900.0, 5) + "]");
+
+            // When
+            repository.reloadData();
+
+            // Then
+            assertThat(repository.count()).isEqualTo(1);
+            assertThat(repository.findById("1").orElseThrow().getTitle()).isEqualTo("Smartphone v2");
+        }
+
+        @Test
+        @DisplayName("Should fail when products file does not exist")
+        void shouldFailWhenProductsFileMissing() throws IOException {
+            Files.delete(productsFile);
+
+            assertThatThrownBy(() -> createRepository(10, 1 << 20))
+                    .isInstanceOf(DataLoadException.class)
+                    .hasMessageContaining("Products file not found");
+        }
+    }
+
+    @Nested
+    @DisplayName("Shared Generation Tests")
+    class SharedGenerationTests {
+
+        private MappedProductRepository createSharedRepository(Path directory, boolean publish) {
+            MappedProductRepository repository = new MappedProductRepository(
+                    new JacksonConfig().objectMapper(), new DefaultResourceLoader(), productsFile.toUri().toString(), IMAGES_BASE_URL
+            );
+            ReflectionTestUtils.setField(repository, "sharedDirectory", directory.toString());
+            ReflectionTestUtils.setField(repository, "publishShared", publish);
+            ReflectionTestUtils.setField(repository, "pollMillis", 0L);
+            ReflectionTestUtils.setField(repository, "cacheSize", 10);
+            ReflectionTestUtils.setField(repository, "segmentSize", 1 << 20);
+            repository.loadData();
+            return repository;
+        }
+
+        @Test
+        @DisplayName("Should let reader processes map the generation published by another one")
+        void shouldShareThePublishedGeneration() throws IOException {
+            // Given
+            Path directory = dataDir.resolve("shared");
+            createSharedRepository(directory, true);
+
+            // When
+            MappedProductRepository reader = createSharedRepository(directory, false);
+
+            // Then
+            assertThat(CatalogGenerations.current(directory)).isEqualTo("catalog-1.bin");
+            assertThat(reader.count()).isEqualTo(3);
+            assertThat(reader.refreshGeneration()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should switch to a newly published generation without restarting")
+        void shouldSwitchToNewGeneration() throws IOException {
+            // Given
+            Path directory = dataDir.resolve("shared");
+            MappedProductRepository reader = createSharedRepository(directory, true);
+            Files.writeString(productsFile, "[" + product("9", "Cadeira", "furniture", "IKEA", 90.0, 1) + "]");
+            Files.setLastModifiedTime(productsFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+            // When
+            String published = new CatalogPublisher(new JacksonConfig().objectMapper(), new DefaultResourceLoader(),
+                    productsFile.toUri().toString(), IMAGES_BASE_URL).publish(directory);
+
+            // Then
+            assertThat(published).isEqualTo("catalog-2.bin");
+            assertThat(reader.existsById("9")).isFalse();
+            assertThat(reader.refreshGeneration()).isTrue();
+            assertThat(reader.findAll()).extracting(ProductEntity::getId).containsExactly("9");
+        }
+
+        @Test
+        @DisplayName("Should keep only the newest generations")
+        void shouldDeleteOlderGenerations() throws IOException {
+            // Given
+            Path directory = dataDir.resolve("shared");
+            CatalogPublisher publisher = new CatalogPublisher(new JacksonConfig().objectMapper(),
+                    new DefaultResourceLoader(), productsFile.toUri().toString(), IMAGES_BASE_URL);
+
+            // When
+            for (int i = 1; i <= 3; i++) {
+                Files.setLastModifiedTime(productsFile, FileTime.fromMillis(i * 1000L));
+                publisher.publish(directory);
+            }
+
+            // Then
+            assertThat(directory.resolve("catalog-1.bin")).doesNotExist();
+            assertThat(directory.resolve("catalog-2.bin")).exists();
+            assertThat(directory.resolve("catalog-3.bin")).exists();
+        }
+
+        @Test
+        @DisplayName("Should publish one generation when several publishers start together")
+        void shouldSerializeConcurrentPublishers() throws Exception {
+            // Given
+            Path directory = dataDir.resolve("shared");
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+
+            try {
+                // When
+                List<Future<String>> published = executor.invokeAll(IntStream.range(0, 4)
+                        .<Callable<String>>mapToObj(i -> () -> new CatalogPublisher(new JacksonConfig().objectMapper(),
+                                new DefaultResourceLoader(), productsFile.toUri().toString(), IMAGES_BASE_URL)
+                                .publish(directory))
+                        .toList());
+
+                // Then
+                for (Future<String> generation : published) {
+                    assertThat(generation.get()).isEqualTo("catalog-1.bin");
+                }
+                assertThat(directory.resolve("catalog-2.bin")).doesNotExist();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Should fail when no generation was published")
+        void shouldFailWithoutGeneration() {
+            Path directory = dataDir.resolve("empty");
+
+            assertThatThrownBy(() -> createSharedRepository(directory, false))
+                    .isInstanceOf(DataLoadException.class)
+                    .hasMessageContaining("No catalog generation published");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mercadoclone.infrastructure.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("OrdinalBitmap Tests")
+class OrdinalBitmapTest {
+
+    private static BitSet randomBits(Random random, int size, double density) {
+        BitSet bits = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (random.nextDouble() < density) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    private static OrdinalBitmap bitmapOf(BitSet bits) {
+        return OrdinalBitmap.of(bits.stream().toArray());
+    }
+
+    @Nested
+    @DisplayName("Construction Tests")
+    class ConstructionTests {
+
+        @Test
+        @DisplayName("Should keep ordinals sorted and distinct")
+        void shouldKeepOrdinalsSortedAndDistinct() {
+            // When
+            OrdinalBitmap bitmap = OrdinalBitmap.of(70000, 3, 3, 65535, 0);
+
+            // Then
+            assertThat(bitmap.toArray()).containsExactly(0, 3, 65535, 70000);
+            assertThat(bitmap.cardinality()).isEqualTo(4);
+            assertThat(bitmap.contains(65535)).isTrue();
+            assertThat(bitmap.contains(65536)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should cover a dense range across several chunks")
+        void shouldCoverDenseRange() {
+            // When
+            OrdinalBitmap bitmap = OrdinalBitmap.range(200_000);
+
+            // Then
+            assertThat(bitmap.cardinality()).isEqualTo(200_000);
+            assertThat(bitmap.contains(0)).isTrue();
+            assertThat(bitmap.contains(199_999)).isTrue();
+            assertThat(bitmap.contains(200_000)).isFalse();
+            assertThat(OrdinalBitmap.range(0).isEmpty()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reject ordinals added out of order")
+        void shouldRejectOutOfOrderOrdinals() {
+            // Given
+            OrdinalBitmap.Builder builder = new OrdinalBitmap.Builder().add(5);
+
+            // When / Then
+            assertThatThrownBy(() -> builder.add(5)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Set Operation Tests")
+    class SetOperationTests {
+
+        @Test
+        @DisplayName("Should match BitSet for AND, OR and ANDNOT over sparse and dense chunks")
+        void shouldMatchBitSet() {
+            Random random = new Random(42);
+            double[] densities = {0.001, 0.05, 0.5, 0.95};
+            for (double leftDensity : densities) {
+                for (double rightDensity : densities) {
+                    // Given
+                    BitSet left = randomBits(random, 150_000, leftDensity);
+                    BitSet right = randomBits(random, 150_000, rightDensity);
+                    OrdinalBitmap leftBitmap = bitmapOf(left);
+                    OrdinalBitmap rightBitmap = bitmapOf(right);
+
+                    BitSet and = (BitSet) left.clone();
+                    and.and(right);
+                    BitSet or = (BitSet) left.clone();
+                    or.or(right);
+                    BitSet andNot = (BitSet) left.clone();
+                    andNot.andNot(right);
+
+                    // When / Then
+                    assertThat(leftBitmap.and(rightBitmap).toArray()).isEqualTo(and.stream().toArray());
+                    assertThat(leftBitmap.or(rightBitmap).toArray()).isEqualTo(or.stream().toArray());
+                    assertThat(leftBitmap.andNot(rightBitmap).toArray()).isEqualTo(andNot.stream().toArray());
+                    assertThat(leftBitmap.and(rightBitmap).cardinality()).isEqualTo(and.cardinality());
+                    assertThat(leftBitmap.andCardinality(rightBitmap)).isEqualTo(and.cardinality());
+                    assertThat(leftBitmap.count(right::get)).isEqualTo(and.cardinality());
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should leave the operands unchanged")
+        void shouldLeaveOperandsUnchanged() {
+            // Given
+            OrdinalBitmap all = OrdinalBitmap.range(10_000);
+            OrdinalBitmap some = OrdinalBitmap.of(1, 2, 3);
+
+            // When
+            OrdinalBitmap rest = all.andNot(some);
+
+            // Then
+            assertThat(rest.cardinality()).isEqualTo(9_997);
+            assertThat(all.cardinality()).isEqualTo(10_000);
+            assertThat(all.contains(2)).isTrue();
+            assertThat(some.or(OrdinalBitmap.EMPTY).toArray()).containsExactly(1, 2, 3);
+            assertThat(some.and(OrdinalBitmap.EMPTY).isEmpty()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Select Tests")
+    class SelectTests {
+
+        @Test
+        @DisplayName("Should return the ordinals from a position, across sparse and dense chunks")
+        void shouldSelectFromPosition() {
+            // Given
+            Random random = new Random(7);
+            for (double density : new double[]{0.001, 0.5, 0.95}) {
+                BitSet bits = randomBits(random, 200_000, density);
+                OrdinalBitmap bitmap = bitmapOf(bits);
+                int[] all = bits.stream().toArray();
+
+                for (int from : new int[]{0, 1, 65_535, 65_536, 131_000, 199_999, 250_000}) {
+                    // When
+                    int[] selected = bitmap.select(from, 100);
+
+                    // Then
+                    int[] expected = bits.stream().filter(ordinal -> ordinal >= from).limit(100).toArray();
+                    assertThat(selected).isEqualTo(expected);
+                }
+                assertThat(bitmap.select(0, all.length + 1)).isEqualTo(all);
+            }
+        }
+    }
+}
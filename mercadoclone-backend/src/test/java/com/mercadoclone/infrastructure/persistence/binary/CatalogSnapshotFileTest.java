@@ -0,0 +1,198 @@
+package com.mercadoclone.infrastructure.persistence.binary;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.mercadoclone.config.JacksonConfig;
+import com.mercadoclone.domain.entity.ProductEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CatalogSnapshotFile Tests")
+class CatalogSnapshotFileTest {
+
+    private static final long FINGERPRINT = 42L;
+
+    @TempDir
+    Path dataDir;
+
+    private List<ProductEntity> products;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream in = new ClassPathResource("data/products.json").getInputStream()) {
+            products = new JacksonConfig().objectMapper().readValue(in, new TypeReference<>() {});
+        }
+    }
+
+    @Nested
+    @DisplayName("Record Codec Tests")
+    class RecordCodecTests {
+
+        @Test
+        @DisplayName("Should encode and decode every product field")
+        void shouldRoundTripEveryField() {
+            StringTable.Builder strings = new StringTable.Builder();
+            RecordOutput output = new RecordOutput(16);
+
+            for (ProductEntity product : products) {
+                // When
+                output.reset();
+                ProductRecordCodec.encode(product, output, strings);
+                RecordInput input = new RecordInput(ByteBuffer.wrap(output.array(), 0, output.size()), strings.build());
+
+                // Then
+                assertThat(ProductRecordCodec.decode(input)).usingRecursiveComparison().isEqualTo(product);
+            }
+        }
+
+        @Test
+        @DisplayName("Should decode the id without the rest of the record")
+        void shouldDecodeIdOnly() {
+            // Given
+            StringTable.Builder strings = new StringTable.Builder();
+            RecordOutput output = new RecordOutput();
+            ProductRecordCodec.encode(products.get(0), output, strings);
+
+            // When
+            String id = ProductRecordCodec.decodeId(
+                    new RecordInput(ByteBuffer.wrap(output.array(), 0, output.size()), strings.build()));
+
+            // Then
+            assertThat(id).isEqualTo(products.get(0).getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshot File Tests")
+    class SnapshotFileTests {
+
+        @Test
+        @DisplayName("Should read back products and content hashes in order")
+        void shouldReadBackProductsAndHashes() throws IOException {
+            // Given
+            Path file = dataDir.resolve("catalog.bin");
+            long[] hashes = new long[products.size()];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = 1000L + i;
+            }
+            CatalogSnapshotFile.write(file, FINGERPRINT, products, hashes);
+
+            // When
+            List<ProductEntity> read = new ArrayList<>();
+            List<Long> readHashes = new ArrayList<>();
+            boolean loaded = CatalogSnapshotFile.read(file, FINGERPRINT, (product, hash) -> {
+                read.add(product);
+                readHashes.add(hash);
+            });
+
+            // Then
+            assertThat(loaded).isTrue();
+            assertThat(read).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(products);
+            assertThat(readHashes).first().isEqualTo(1000L);
+            assertThat(readHashes).hasSize(products.size());
+        }
+
+        @Test
+        @DisplayName("Should report missing or stale snapshots")
+        void shouldReportMissingOrStaleSnapshots() throws IOException {
+            // Given
+            Path file = dataDir.resolve("catalog.bin");
+            assertThat(CatalogSnapshotFile.read(file, FINGERPRINT, (product, hash) -> fail("no records expected")))
+                    .isFalse();
+            CatalogSnapshotFile.write(file, FINGERPRINT, products, null);
+
+            // When
+            boolean loaded = CatalogSnapshotFile.read(file, FINGERPRINT + 1, (product, hash) -> fail("stale snapshot read"));
+
+            // Then
+            assertThat(loaded).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject corrupted snapshots")
+        void shouldRejectCorruptedSnapshots() throws IOException {
+            // Given
+            Path file = dataDir.resolve("catalog.bin");
+            CatalogSnapshotFile.write(file, FINGERPRINT, products, null);
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[CatalogSnapshotFile.HEADER_SIZE + CatalogSnapshotFile.RECORD_PREFIX_SIZE + 2] ^= 0x55;
+            Files.write(file, bytes);
+
+            // When & Then
+            assertThatThrownBy(() -> CatalogSnapshotFile.read(file, FINGERPRINT, (product, hash) -> { }))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("records are corrupted");
+
+            bytes[30] ^= 0x55;
+            Files.write(file, bytes);
+            assertThatThrownBy(() -> CatalogSnapshotFile.read(file, FINGERPRINT, (product, hash) -> { }))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("header is corrupted");
+        }
+    }
+
+    @Nested
+    @DisplayName("Mapped File Tests")
+    class MappedFileTests {
+
+        @Test
+        @DisplayName("Should look up products through the persisted index")
+        void shouldLookUpThroughIndex() throws IOException {
+            // Given
+            Path file = dataDir.resolve("catalog.bin");
+            CatalogSnapshotFile.write(file, FINGERPRINT, products, null);
+
+            // When
+            MappedCatalogFile mapped = MappedCatalogFile.open(file, 1 << 20);
+
+            // Then
+            assertThat(mapped.size()).isEqualTo(products.size());
+            for (ProductEntity product : products) {
+                int ordinal = mapped.ordinalOf(product.getId());
+                assertThat(mapped.idAt(ordinal)).isEqualTo(product.getId());
+                assertThat(mapped.decode(ordinal)).usingRecursiveComparison().isEqualTo(product);
+            }
+            assertThat(mapped.ordinalOf("missing")).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("Should keep the last record of a duplicated id")
+        void shouldKeepLastDuplicate() throws IOException {
+            // Given
+            Path file = dataDir.resolve("catalog.bin");
+            ProductEntity first = new ProductEntity();
+            first.setId("same");
+            first.setTitle("first");
+            ProductEntity second = new ProductEntity();
+            second.setId("same");
+            second.setTitle("second");
+            ProductEntity other = new ProductEntity();
+            other.setId("other");
+            CatalogSnapshotFile.write(file, FINGERPRINT, List.of(first, other, second), new long[]{1, 2, 3});
+
+            // When
+            MappedCatalogFile mapped = MappedCatalogFile.open(file, 64);
+
+            // Then
+            assertThat(mapped.size()).isEqualTo(2);
+            assertThat(mapped.segmentCount()).isGreaterThan(1);
+            int ordinal = mapped.ordinalOf("same");
+            assertThat(mapped.decode(ordinal).getTitle()).isEqualTo("second");
+            assertThat(mapped.contentHash(ordinal)).isEqualTo(3);
+            assertThat(mapped.idAt(0)).isEqualTo("other");
+        }
+    }
+}
@@ -264,6 +264,40 @@ class ProductControllerIntegrationTest {
         assertThat(totalCount).isEqualTo(listSize);
     }
 
+    @Test
+    @DisplayName("Should report the correction of a misspelled search, also when the result is cached")
+    void shouldReportCorrectionOfCachedSearch() throws Exception {
+        for (int request = 0; request < 2; request++) {
+            // When & Then
+            mockMvc.perform(get("/api/v1/products").param("value", "notebok"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(greaterThan(0))))
+                    .andExpect(jsonPath("$.meta.didYouMean", is("notebook")));
+        }
+    }
+
+    @Test
+    @DisplayName("Should count the products of a filter without listing them")
+    void shouldCountFilteredProducts() throws Exception {
+        // Given
+        JsonNode list = objectMapper.readTree(mockMvc.perform(get("/api/v1/products")
+                        .param("available", "true")
+                        .param("rangePrice", "true")
+                        .param("minPrice", "100")
+                        .param("maxPrice", "5000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/count")
+                        .param("available", "true")
+                        .param("rangePrice", "true")
+                        .param("minPrice", "100")
+                        .param("maxPrice", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", is(list.get("data").size())));
+    }
+
     @Test
     @DisplayName("Should handle performance test for product exists endpoint")
     void shouldHandlePerformanceTestForProductExistsEndpoint() throws Exception {
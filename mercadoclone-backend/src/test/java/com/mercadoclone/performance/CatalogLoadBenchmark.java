@@ -0,0 +1,111 @@
+package com.mercadoclone.performance;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadoclone.config.JacksonConfig;
+import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.infrastructure.persistence.JsonProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares catalog startup from JSON against startup from the binary snapshot
+ * ({@code app.data.snapshot-file}).
+ *
+ * Not part of the test suite; run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mercadoclone.performance.CatalogLoadBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CatalogLoadBenchmark {
+
+    private static final String IMAGES_BASE_URL = "http://localhost:3001/images/products";
+
+    @Param({"10000", "100000", "1000000"})
+    private int products;
+
+    private Path dataDir;
+    private Path productsFile;
+    private Path snapshotFile;
+
+    @Setup(Level.Trial)
+    public void createCatalog() throws IOException {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        List<ProductEntity> samples;
+        try (InputStream in = new ClassPathResource("data/products.json").getInputStream()) {
+            samples = objectMapper.readValue(in, new TypeReference<>() {});
+        }
+
+        dataDir = Files.createTempDirectory("catalog-benchmark");
+        productsFile = dataDir.resolve("products.json");
+        snapshotFile = dataDir.resolve("catalog.bin");
+
+        try (OutputStream out = Files.newOutputStream(productsFile);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (int i = 0; i < products; i++) {
+                ProductEntity product = samples.get(i % samples.size());
+                product.setId(String.format("product-%08d", i));
+                objectMapper.writeValue(generator, product);
+            }
+            generator.writeEndArray();
+        }
+
+        // Writes the snapshot consumed by loadFromSnapshot
+        repository(snapshotFile.toString()).loadData();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCatalog() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public JsonProductRepository loadFromJson() {
+        JsonProductRepository repository = repository("");
+        repository.loadData();
+        return repository;
+    }
+
+    @Benchmark
+    public JsonProductRepository loadFromSnapshot() {
+        JsonProductRepository repository = repository(snapshotFile.toString());
+        repository.loadData();
+        return repository;
+    }
+
+    private JsonProductRepository repository(String binarySnapshotFile) {
+        JsonProductRepository repository = new JsonProductRepository(
+                new JacksonConfig().objectMapper(), new DefaultResourceLoader(), productsFile.toUri().toString(), IMAGES_BASE_URL
+        );
+        ReflectionTestUtils.setField(repository, "streamingLoad", true);
+        ReflectionTestUtils.setField(repository, "binarySnapshotFile", binarySnapshotFile);
+        return repository;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CatalogLoadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
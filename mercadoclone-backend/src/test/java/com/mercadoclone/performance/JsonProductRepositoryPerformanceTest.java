@@ -12,14 +12,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.StopWatch;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.*;
@@ -216,13 +214,6 @@ class JsonProductRepositoryPerformanceTest {
                 .thenReturn(largeProductDataset);
 
         repository.loadData();
-
-        // Set up the cache manually for testing
-        ConcurrentHashMap<String, ProductEntity> cache = new ConcurrentHashMap<>();
-        largeProductDataset.forEach(product -> cache.put(product.getId(), product));
-
-        ReflectionTestUtils.setField(repository, "productsCache", cache);
-        ReflectionTestUtils.setField(repository, "dataLoaded", true);
     }
 
     private List<ProductEntity> createLargeProductDataset(int size) {
@@ -4,6 +4,7 @@ import com.mercadoclone.domain.entity.ProductEntity;
 import com.mercadoclone.domain.repository.ProductRepository;
 import com.mercadoclone.dto.request.FilterRequest;
 import com.mercadoclone.service.ProductService;
+import com.mercadoclone.service.cache.ProductQueryCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,7 +37,7 @@ class ProductServicePerformanceTest {
 
     @BeforeEach
     void setUp() {
-        productService = new ProductService(productRepository);
+        productService = new ProductService(productRepository, new ProductQueryCache(1000));
         largeProductList = createLargeProductList(10000);
     }
 
@@ -47,7 +48,7 @@ class ProductServicePerformanceTest {
         when(productRepository.findAll()).thenReturn(largeProductList);
 
         StopWatch stopWatch = new StopWatch();
-        FilterRequest filter = new FilterRequest(null, null, null, null, null, null, null, null);
+        FilterRequest filter = new FilterRequest(null, null, null, null, null, null, null, null, null);
 
         // When
         stopWatch.start();
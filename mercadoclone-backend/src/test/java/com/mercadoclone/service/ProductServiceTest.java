@@ -5,15 +5,25 @@ package com.mercadoclone.service;
 
 import com.mercadoclone.domain.entity.CategoryEntity;
 import com.mercadoclone.domain.entity.ProductEntity;
+import com.mercadoclone.domain.entity.SuggestionEntity;
+import com.mercadoclone.domain.repository.ProductCriteria;
+import com.mercadoclone.domain.repository.ProductFacets;
+import com.mercadoclone.domain.repository.ProductGroupStats;
+import com.mercadoclone.domain.repository.ProductGrouping;
+import com.mercadoclone.domain.repository.ProductList;
+import com.mercadoclone.domain.repository.ProductPage;
 import com.mercadoclone.domain.repository.ProductRepository;
+import com.mercadoclone.domain.repository.ProductSort;
 import com.mercadoclone.dto.request.FilterRequest;
 import com.mercadoclone.exception.ProductNotFoundException;
+import com.mercadoclone.service.cache.ProductQueryCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
@@ -31,6 +41,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private ProductQueryCache queryCache = new ProductQueryCache(100);
+
     @InjectMocks
     private ProductService productService;
 
@@ -103,7 +116,7 @@ class ProductServiceTest {
 
         // When
         List<ProductEntity> result = productService.findAllWithCommandPattern(new FilterRequest(
-                 null, null, null, null, null, null, null, null
+                 null, null, null, null, null, null, null, null, null
         ));
 
         // Then
@@ -112,6 +125,132 @@ class ProductServiceTest {
         verify(productRepository).findAll();
     }
 
+    @Test
+    @DisplayName("Should reuse the result of an identical query until the catalog version changes")
+    void shouldReuseResultUntilVersionChanges() {
+        // Given
+        ProductCriteria criteria = new ProductCriteria("cat-electronics", "Samsung", null, false, true, null, null);
+        when(productRepository.findMatching(criteria)).thenReturn(new ProductList(List.of(sampleProduct)));
+        when(productRepository.version()).thenReturn(1L, 1L, 2L);
+
+        // When
+        List<ProductEntity> first = productService.findAllWithCommandPattern(new FilterRequest(
+                "cat-electronics", "Samsung", null, null, true, null, null, null, null));
+        List<ProductEntity> second = productService.findAllWithCommandPattern(new FilterRequest(
+                " cat-electronics ", "Samsung ", " ", false, true, false, 10.0, 20.0, null));
+        productService.findAllWithCommandPattern(new FilterRequest(
+                "cat-electronics", "Samsung", null, null, true, null, null, null, null));
+
+        // Then
+        assertThat(second).isSameAs(first).containsExactly(sampleProduct);
+        verify(productRepository, times(2)).findMatching(any());
+    }
+
+    @Test
+    @DisplayName("Should run a padded query trimmed so its cached result also answers the unpadded one")
+    void shouldRunPaddedQueryTrimmed() {
+        // Given
+        when(productRepository.findByCategory("cat-electronics")).thenReturn(List.of(sampleProduct));
+        when(productRepository.version()).thenReturn(1L);
+
+        // When
+        List<ProductEntity> padded = productService.findAllWithCommandPattern(new FilterRequest(
+                "cat-electronics ", null, null, null, null, null, null, null, null));
+        List<ProductEntity> unpadded = productService.findAllWithCommandPattern(new FilterRequest(
+                "cat-electronics", null, null, null, null, null, null, null, null));
+
+        // Then
+        assertThat(padded).containsExactly(sampleProduct);
+        assertThat(unpadded).isSameAs(padded);
+        verify(productRepository).findByCategory("cat-electronics");
+        verify(productRepository, never()).findByCategory("cat-electronics ");
+    }
+
+    @Test
+    @DisplayName("Should cache the spelling correction together with the corrected results")
+    void shouldCacheCorrectionWithResults() {
+        // Given
+        ProductCriteria criteria = new ProductCriteria(null, null, "samsumg", true, false, null, null);
+        when(productRepository.findMatching(criteria)).thenReturn(new ProductList(List.of(sampleProduct), "samsung"));
+        when(productRepository.version()).thenReturn(1L);
+        FilterRequest filter = new FilterRequest(null, null, "samsumg", true, null, null, null, null, null);
+
+        // When
+        ProductList first = productService.findProducts(filter);
+        ProductList second = productService.findProducts(filter);
+
+        // Then
+        assertThat(first.items()).containsExactly(sampleProduct);
+        assertThat(first.didYouMean()).isEqualTo("samsung");
+        assertThat(second).isSameAs(first);
+        verify(productRepository).findMatching(criteria);
+    }
+
+    @Test
+    @DisplayName("Should report the correction of a search term given alone")
+    void shouldReportCorrectionOfSingleSearchTerm() {
+        // Given
+        ProductCriteria criteria = new ProductCriteria(null, null, "galaxi", false, false, null, null);
+        when(productRepository.findMatching(criteria)).thenReturn(new ProductList(List.of(sampleProduct), "galaxy"));
+
+        // When
+        ProductList result = productService.findProducts(
+                new FilterRequest(null, null, "galaxi", null, null, null, null, null, null));
+
+        // Then
+        assertThat(result.items()).containsExactly(sampleProduct);
+        assertThat(result.didYouMean()).isEqualTo("galaxy");
+        verify(productRepository, never()).findBySearchTerm(any());
+    }
+
+    @Test
+    @DisplayName("Should combine every filter of the request into one query")
+    void shouldCombineEveryFilterIntoOneQuery() {
+        // Given
+        ProductCriteria expectedCriteria = new ProductCriteria("cat-electronics", "Samsung", null, false, true, 100.0, 500.0);
+        when(productRepository.findMatching(expectedCriteria)).thenReturn(new ProductList(List.of(sampleProduct)));
+
+        // When
+        List<ProductEntity> result = productService.findAllWithCommandPattern(new FilterRequest(
+                "cat-electronics", "Samsung", null, null, true, true, 100.0, 500.0, null
+        ));
+
+        // Then
+        assertThat(result).containsExactly(sampleProduct);
+        verify(productRepository).findMatching(expectedCriteria);
+        verify(productRepository, never()).findByCategory(any());
+    }
+
+    @Test
+    @DisplayName("Should query with the requested sort order even without filters")
+    void shouldQueryWithSortOrder() {
+        // Given
+        ProductCriteria expectedCriteria = new ProductCriteria(null, null, null, false, false, null, null,
+                ProductSort.PRICE_DESC);
+        when(productRepository.findMatching(expectedCriteria)).thenReturn(new ProductList(List.of(sampleProduct)));
+
+        // When
+        List<ProductEntity> result = productService.findAllWithCommandPattern(new FilterRequest(
+                null, null, null, null, null, null, null, null, "price_desc"
+        ));
+
+        // Then
+        assertThat(result).containsExactly(sampleProduct);
+        assertThatThrownBy(() -> productService.findAllWithCommandPattern(new FilterRequest(
+                null, null, null, null, null, null, null, null, "cheapest"
+        ))).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Invalid sort 'cheapest'");
+    }
+
+    @Test
+    @DisplayName("Should reject combined filters with an invalid price range")
+    void shouldRejectCombinedFiltersWithInvalidPriceRange() {
+        // When & Then
+        assertThatThrownBy(() -> productService.findAllWithCommandPattern(new FilterRequest(
+                "cat-electronics", null, null, true, null, true, 500.0, 100.0, null
+        ))).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     @DisplayName("Should return products by category successfully")
     void shouldReturnProductsByCategorySuccessfully() {
@@ -146,6 +285,138 @@ class ProductServiceTest {
                 .hasMessageContaining("Minimum price cannot be greater than maximum price");
     }
 
+    @Test
+    @DisplayName("Should return suggestions for a trimmed prefix")
+    void shouldReturnSuggestionsForTrimmedPrefix() {
+        // Given
+        List<SuggestionEntity> expected = List.of(
+                new SuggestionEntity("Samsung", SuggestionEntity.Type.BRAND, 170));
+        when(productRepository.suggest("sam", 5)).thenReturn(expected);
+
+        // When
+        List<SuggestionEntity> result = productService.getSuggestions(" sam ", 5);
+
+        // Then
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should reject blank prefixes and out of range limits")
+    void shouldRejectInvalidSuggestionRequests() {
+        // When & Then
+        assertThatThrownBy(() -> productService.getSuggestions(" ", 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Prefix cannot be null or blank");
+        assertThatThrownBy(() -> productService.getSuggestions("sam", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.getSuggestions("sam", 11))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should request a page with the criteria of the filter")
+    void shouldRequestPageWithFilterCriteria() {
+        // Given
+        FilterRequest filter = new FilterRequest("cat-electronics", null, "sample", null, null, null, 0.0, 0.0, null);
+        ProductCriteria criteria = new ProductCriteria("cat-electronics", null, "sample", false, false, null, null);
+        ProductPage expected = new ProductPage(List.of(sampleProduct), "next");
+        when(productRepository.findPage(criteria, 20, "cursor")).thenReturn(expected);
+
+        // When
+        ProductPage result = productService.getProductPage(filter, 20, "cursor");
+
+        // Then
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should count facets with the criteria of the filter")
+    void shouldCountFacetsWithFilterCriteria() {
+        // Given
+        FilterRequest filter = new FilterRequest("cat-electronics", null, null, true, null, null, 0.0, 0.0, null);
+        ProductCriteria criteria = new ProductCriteria("cat-electronics", null, null, true, false, null, null);
+        ProductFacets expected = new ProductFacets(1, List.of(), List.of(), List.of(), List.of(), 1, 0, 0);
+        when(productRepository.findFacets(criteria)).thenReturn(expected);
+
+        // When
+        ProductFacets result = productService.getProductFacets(filter);
+
+        // Then
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should count the products matching the filter without listing them")
+    void shouldCountMatchingProducts() {
+        // Given
+        FilterRequest filter = new FilterRequest("cat-electronics", null, null, true, null, null, 0.0, 0.0, null);
+        ProductCriteria criteria = new ProductCriteria("cat-electronics", null, null, true, false, null, null);
+        when(productRepository.countMatching(criteria)).thenReturn(7L);
+
+        // When
+        long result = productService.countProducts(filter);
+
+        // Then
+        assertThat(result).isEqualTo(7L);
+        verify(productRepository, never()).findMatching(any());
+    }
+
+    @Test
+    @DisplayName("Should count every product when the filter is empty")
+    void shouldCountAllProductsWithoutFilter() {
+        // Given
+        FilterRequest filter = new FilterRequest(null, null, null, null, null, null, 0.0, 0.0, null);
+        when(productRepository.count()).thenReturn(150L);
+
+        // When
+        long result = productService.countProducts(filter);
+
+        // Then
+        assertThat(result).isEqualTo(150L);
+        verify(productRepository, never()).countMatching(any());
+    }
+
+    @Test
+    @DisplayName("Should aggregate by the requested grouping")
+    void shouldAggregateByGrouping() {
+        // Given
+        List<ProductGroupStats> expected = List.of(
+                new ProductGroupStats("samsung", "Samsung", 2, 100.0, 200.0, 150.0, 100.0, 200.0, 4.5));
+        when(productRepository.aggregate(ProductGrouping.BRAND)).thenReturn(expected);
+
+        // When
+        List<ProductGroupStats> result = productService.getAggregations(" Brand ");
+
+        // Then
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown groupings")
+    void shouldRejectUnknownGrouping() {
+        // When & Then
+        assertThatThrownBy(() -> productService.getAggregations("color"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expected one of category, brand, seller");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject out of range page limits")
+    void shouldRejectInvalidPageLimits() {
+        // Given
+        FilterRequest filter = new FilterRequest(null, null, null, null, null, null, 0.0, 0.0, null);
+
+        // When & Then
+        assertThatThrownBy(() -> productService.getProductPage(filter, 0, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Page limit must be between 1 and 100");
+        assertThatThrownBy(() -> productService.getProductPage(filter, 101, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productRepository);
+    }
+
     private ProductEntity createSampleProduct() {
         ProductEntity product = new ProductEntity("product-001", "Sample Product", "Sample Description");
         CategoryEntity category = new CategoryEntity("cat-electronics", "Electronics", Arrays.asList("Electronics"));
@@ -0,0 +1,103 @@
+package com.mercadoclone.service.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    @DisplayName("Should compute once for concurrent callers of the same key and share the value")
+    void shouldComputeOnceForConcurrentCallers() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        try {
+            // When
+            List<CompletableFuture<String>> results = IntStream.range(0, CALLERS)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> singleFlight.execute("galaxy", () -> {
+                        computations.incrementAndGet();
+                        awaitQuietly(release);
+                        return "result";
+                    }), executor))
+                    .toList();
+            await().atMost(5, TimeUnit.SECONDS).until(() -> singleFlight.coalescedCount() == CALLERS - 1);
+            release.countDown();
+
+            // Then
+            assertThat(results).allSatisfy(result -> assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result"));
+            assertThat(computations).hasValue(1);
+            assertThat(singleFlight.inFlightCount()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should give every waiting caller the exception of the computation")
+    void shouldShareException() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            List<CompletableFuture<String>> results = IntStream.range(0, 2)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> singleFlight.execute("invalid", () -> {
+                        awaitQuietly(release);
+                        throw new IllegalArgumentException("Invalid search query");
+                    }), executor))
+                    .toList();
+            await().atMost(5, TimeUnit.SECONDS).until(() -> singleFlight.coalescedCount() == 1);
+            release.countDown();
+
+            // Then
+            assertThat(results).allSatisfy(result -> assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalArgumentException.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute again once the previous computation finished")
+    void shouldComputeAgainAfterCompletion() {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        // When
+        singleFlight.execute("key", computations::incrementAndGet);
+        int second = singleFlight.execute("key", computations::incrementAndGet);
+
+        // Then
+        assertThat(second).isEqualTo(2);
+        assertThat(singleFlight.coalescedCount()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
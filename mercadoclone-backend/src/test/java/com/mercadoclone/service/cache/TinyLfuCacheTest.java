@@ -0,0 +1,108 @@
+package com.mercadoclone.service.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TinyLfuCache Tests")
+class TinyLfuCacheTest {
+
+    @Test
+    @DisplayName("Should never hold more entries than its capacity")
+    void shouldStayWithinCapacity() {
+        // Given
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(50);
+
+        // When
+        for (int key = 0; key < 1_000; key++) {
+            cache.get(key);
+            cache.put(key, "value-" + key);
+        }
+
+        // Then
+        assertThat(cache.size()).isEqualTo(50);
+        assertThat(cache.evictionCount()).isEqualTo(950);
+        assertThat(cache.missCount()).isEqualTo(1_000);
+    }
+
+    private static void request(TinyLfuCache<String, String> cache, String key) {
+        if (cache.get(key) == null) {
+            cache.put(key, key);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep popular entries while one-off keys stream through")
+    void shouldKeepPopularEntriesThroughScan() {
+        // Given
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(100);
+        for (int popular = 0; popular < 20; popular++) {
+            request(cache, "popular-" + popular);
+        }
+
+        // When
+        for (int oneOff = 0; oneOff < 10_000; oneOff++) {
+            request(cache, "one-off-" + oneOff);
+            if (oneOff % 50 == 0) {
+                for (int popular = 0; popular < 20; popular++) {
+                    request(cache, "popular-" + popular);
+                }
+            }
+        }
+        long hitsBefore = cache.hitCount();
+
+        // Then
+        for (int popular = 0; popular < 20; popular++) {
+            request(cache, "popular-" + popular);
+        }
+        assertThat(cache.hitCount() - hitsBefore).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should evict stale entries before popular ones")
+    void shouldEvictStaleEntriesFirst() {
+        // Given
+        long[] currentVersion = {1};
+        TinyLfuCache<long[], String> cache = new TinyLfuCache<>(10,
+                key -> key[1], key -> key[0] < currentVersion[0]);
+        long[][] oldKeys = new long[10][];
+        for (int query = 0; query < 10; query++) {
+            oldKeys[query] = new long[]{1, query};
+            for (int hit = 0; hit < 5; hit++) {
+                if (cache.get(oldKeys[query]) == null) {
+                    cache.put(oldKeys[query], "v1");
+                }
+            }
+        }
+
+        // When
+        currentVersion[0] = 2;
+        long[][] newKeys = new long[10][];
+        for (int query = 0; query < 10; query++) {
+            newKeys[query] = new long[]{2, query};
+            cache.get(newKeys[query]);
+            cache.put(newKeys[query], "v2");
+        }
+
+        // Then
+        assertThat(cache.size()).isEqualTo(10);
+        for (long[] key : newKeys) {
+            assertThat(cache.get(key)).isEqualTo("v2");
+        }
+    }
+
+    @Test
+    @DisplayName("Should cache nothing when the capacity is zero")
+    void shouldCacheNothingWithZeroCapacity() {
+        // Given
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(0);
+
+        // When
+        cache.put("key", "value");
+
+        // Then
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -61,7 +61,7 @@ Feature: Cenários de Erro da API de Produtos
     When eu faço uma requisição GET para "/api/v1/products?categoryId=cat1&brandId=brand1&available=true"
     Then o status da resposta deve ser 200
     And o campo "success" deve ser true
-    # Apenas o primeiro filtro (categoryId) deve ser processado
+    # Todos os filtros informados são combinados (AND)
 
   Scenario: Teste de edge case com faixa de preço zero
     When eu faço uma requisição GET para "/api/v1/products" com parâmetros de preço min "0" e max "0"